@@ -0,0 +1,55 @@
+package net.porillo.bench;
+
+import net.porillo.util.ChatTable;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the top-polluters table, laid out like /gw top
+ * - 280 pixels wide, the default chat.table-width
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatTableBenchmark {
+
+    private static final int WIDTH = 280;
+
+    @Param({"10", "50"})
+    private int rows;
+
+    private String[][] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        values = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            values[i] = new String[]{
+                    String.format("Player_%d_%s", i, Long.toString(random.nextLong() & 0xFFFFFF, 36)),
+                    String.format("%.2f", random.nextDouble() * 10),
+                    Integer.toString(random.nextInt(2000000) - 1000000)};
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        ChatTable chatTable = new ChatTable("Top Polluters");
+        chatTable.setGridColor(ChatColor.DARK_RED);
+        chatTable.addHeader("Player", (int) (WIDTH * 0.464));
+        chatTable.addHeader("Index", (int) (WIDTH * 0.268));
+        chatTable.addHeader("Score", (int) (WIDTH * 0.268));
+        for (String[] row : values) {
+            chatTable.addRow(Arrays.asList(row));
+        }
+
+        return chatTable.toString();
+    }
+}
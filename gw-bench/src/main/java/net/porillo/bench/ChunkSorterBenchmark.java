@@ -0,0 +1,106 @@
+package net.porillo.bench;
+
+import net.porillo.util.ChunkSorter;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sea-level chunk selection: loaded chunks nearest the players, once per period
+ * - Chunks form a square around spawn, players are spread over it
+ * - All chunks are pending, as after a sea-level change
+ * - Picks 16 chunks, the default chunks-per-period times two
+ * - fullSort is the former selection, sorting every chunk by its mean distance to the players
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkSorterBenchmark {
+
+    private static final int CHUNKS_PER_PERIOD = 8;
+
+    @Param({"1", "20", "150"})
+    private int players;
+
+    @Param({"500", "5000"})
+    private int chunks;
+
+    private Chunk[] loadedChunks;
+    private List<Player> onlinePlayers;
+
+    @Setup
+    public void setup() {
+        Headless.install();
+        Random random = new Random(0);
+        int side = (int) Math.ceil(Math.sqrt(chunks));
+        loadedChunks = new Chunk[chunks];
+        for (int i = 0; i < chunks; i++) {
+            loadedChunks[i] = chunk(i % side - side / 2, i / side - side / 2);
+        }
+
+        onlinePlayers = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            double x = (random.nextDouble() - 0.5) * side * 16;
+            double z = (random.nextDouble() - 0.5) * side * 16;
+            onlinePlayers.add(Mocks.mock(Player.class, (method, args) ->
+                    method.equals("getLocation") ? new Location(Headless.WORLD, x, 64, z) : null));
+        }
+    }
+
+    private static Chunk chunk(int chunkX, int chunkZ) {
+        return Mocks.mock(Chunk.class, (method, args) -> {
+            switch (method) {
+                case "getX":
+                    return chunkX;
+                case "getZ":
+                    return chunkZ;
+                case "getWorld":
+                    return Headless.WORLD;
+                case "getBlock":
+                    return block((chunkX << 4) + (int) args[0], (int) args[1], (chunkZ << 4) + (int) args[2]);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static Block block(int x, int y, int z) {
+        return Mocks.mock(Block.class, (method, args) ->
+                method.equals("getLocation") ? new Location(Headless.WORLD, x, y, z) : null);
+    }
+
+    @Benchmark
+    public List<Chunk> sortByDistance() {
+        return ChunkSorter.sortByDistance(loadedChunks, onlinePlayers, CHUNKS_PER_PERIOD * 2);
+    }
+
+    @Benchmark
+    public List<Chunk> fullSort() {
+        List<Chunk> sortedChunks = new ArrayList<>(Arrays.asList(loadedChunks));
+        sortedChunks.sort((o1, o2) -> {
+            Location l1 = o1.getBlock(8, 64, 8).getLocation();
+            Location l2 = o2.getBlock(8, 64, 8).getLocation();
+            double d1 = 0;
+            double d2 = 0;
+            for (Player player : onlinePlayers) {
+                d1 += l1.distance(player.getLocation());
+                d2 += l2.distance(player.getLocation());
+            }
+
+            return Double.compare(d1 / onlinePlayers.size(), d2 / onlinePlayers.size());
+        });
+
+        return sortedChunks.subList(0, Math.min(CHUNKS_PER_PERIOD * 2, sortedChunks.size()));
+    }
+}
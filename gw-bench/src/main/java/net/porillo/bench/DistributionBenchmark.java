@@ -0,0 +1,86 @@
+package net.porillo.bench;
+
+import net.porillo.engine.api.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Curve lookups, by the shapes the shipped models use
+ * - bell: evenly spaced, rises then falls (entity fitness, farm yield)
+ * - rising: unevenly spaced over several orders of magnitude (score to temperature)
+ * - falling: unevenly spaced, decreasing (carbon index)
+ * - step: flat segments between jumps (fire, snow and ice thresholds)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributionBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({"bell", "rising", "falling", "step"})
+    private String shape;
+
+    @Param({"0", "64"})
+    private int lookupTableSize;
+
+    private Distribution distribution;
+    private double[] inputs;
+
+    @Setup
+    public void setup() {
+        double[] x;
+        double[] y;
+        switch (shape) {
+            case "bell":
+                x = new double[]{10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20};
+                y = new double[]{20, 40, 60, 80, 100, 95, 90, 75, 50, 30, 10};
+                break;
+            case "rising":
+                x = new double[]{-1000000, -500000, -250000, -100000, -25000, -1000, -100, 0, 1, 10, 50, 100, 500, 1000,
+                        5000, 10000, 50000, 100000, 250000, 500000, 1000000};
+                y = new double[]{10.0, 11.0, 12.0, 13.0, 13.5, 13.8, 13.9, 14.0, 14.0, 14.0, 14.1, 14.2, 14.3, 14.5,
+                        14.75, 15.0, 15.5, 16.0, 17.0, 18.0, 20.0};
+                break;
+            case "falling":
+                x = new double[]{-1000000, -500000, -250000, -100000, -25000, -1000, -100, 0, 100, 1000, 10000, 50000,
+                        200000, 500000, 1000000};
+                y = new double[]{10.0, 9.0, 8.0, 7.0, 6.0, 5.5, 5.1, 5.0, 4.9, 4.5, 4.0, 3.0, 2.0, 1.0, 0.0};
+                break;
+            case "step":
+                x = new double[]{10, 14, 14.01, 16, 16.01, 18, 18.01, 20};
+                y = new double[]{0, 0, 1, 1, 2, 2, 3, 3};
+                break;
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+
+        distribution = new Distribution(x, y);
+        distribution.setLookupTableSize(lookupTableSize);
+
+        //Inputs spread over the curve, with a margin past both ends:
+        Random random = new Random(0);
+        double low = x[0];
+        double span = x[x.length - 1] - low;
+        inputs = new double[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = low + (random.nextDouble() * 1.1 - 0.05) * span;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public double getValue() {
+        double sum = 0;
+        for (double input : inputs) {
+            sum += distribution.getValue(input);
+        }
+
+        return sum;
+    }
+}
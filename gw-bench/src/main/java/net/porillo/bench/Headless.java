@@ -0,0 +1,78 @@
+package net.porillo.bench;
+
+import net.porillo.HeadlessPlatform;
+import net.porillo.Platform;
+import net.porillo.RandomService;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stands in for the server during benchmarks
+ * - One world, named "world", which every world lookup returns
+ * - Models are copied into a temporary data folder on first use
+ * - Random numbers are seeded, so runs are reproducible
+ */
+final class Headless {
+
+    static final UUID WORLD_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    static final World WORLD = Mocks.mock(World.class, (method, args) -> {
+        switch (method) {
+            case "getName":
+                return "world";
+            case "getUID":
+                return WORLD_ID;
+            default:
+                return null;
+        }
+    });
+
+    private static HeadlessPlatform platform;
+
+    private Headless() {
+    }
+
+    static synchronized HeadlessPlatform install() {
+        if (platform != null) {
+            return platform;
+        }
+
+        platform = new HeadlessPlatform();
+        platform.getLogger().setLevel(Level.WARNING);
+        platform.setRandom(new RandomService(0L));
+        try {
+            platform.setDataFolder(Files.createTempDirectory("gw-bench").toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Platform.setInstance(platform);
+        if (Bukkit.getServer() == null) {
+            Logger logger = Logger.getLogger("Server");
+            logger.setLevel(Level.WARNING);
+            Bukkit.setServer(Mocks.mock(Server.class, (method, args) -> {
+                switch (method) {
+                    case "getLogger":
+                        return logger;
+                    case "getWorld":
+                        return WORLD;
+                    case "getName":
+                    case "getVersion":
+                    case "getBukkitVersion":
+                        return "headless";
+                    default:
+                        return null;
+                }
+            }));
+        }
+
+        return platform;
+    }
+}
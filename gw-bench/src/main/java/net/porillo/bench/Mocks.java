@@ -0,0 +1,68 @@
+package net.porillo.bench;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Minimal interface mocks for the Bukkit API, built on dynamic proxies
+ * - Unanswered methods return null, zero or false
+ * - Identity equality, as the server uses for worlds and chunks
+ */
+final class Mocks {
+
+    interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private Mocks() {
+    }
+
+    static <T> T mock(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object[] arguments = args == null ? NO_ARGS : args;
+            switch (method.getName()) {
+                case "hashCode":
+                    if (arguments.length == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "equals":
+                    if (arguments.length == 1) {
+                        return proxy == arguments[0];
+                    }
+                    break;
+                case "toString":
+                    if (arguments.length == 0) {
+                        return String.format("Mock%s@%x", type.getSimpleName(), System.identityHashCode(proxy));
+                    }
+                    break;
+            }
+
+            Object value = answer.answer(method.getName(), arguments);
+            return value != null ? value : defaultValue(method.getReturnType());
+        }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        }
+
+        return 0d;
+    }
+}
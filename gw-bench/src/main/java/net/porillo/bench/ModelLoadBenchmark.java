@@ -0,0 +1,38 @@
+package net.porillo.bench;
+
+import com.google.gson.Gson;
+import net.porillo.engine.models.FuelModel;
+import net.porillo.engine.models.ReductionModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the default models headless, i.e., without a server
+ * - Models are copied from the jar into a temporary data folder on the first load
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelLoadBenchmark {
+
+    private Gson gson;
+
+    @Setup
+    public void setup() {
+        gson = Headless.install().getGson();
+    }
+
+    @Benchmark
+    public FuelModel loadFuelModel() {
+        return new FuelModel(gson, "world");
+    }
+
+    @Benchmark
+    public ReductionModel loadReductionModel() {
+        return new ReductionModel(gson, "world");
+    }
+}
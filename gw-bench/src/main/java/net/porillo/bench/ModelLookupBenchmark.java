@@ -0,0 +1,97 @@
+package net.porillo.bench;
+
+import com.google.gson.Gson;
+import net.porillo.engine.models.EntityMethaneModel;
+import net.porillo.engine.models.FuelModel;
+import net.porillo.engine.models.ReductionModel;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event model lookups: furnace burns, tree growth and animal deaths
+ * - Blocks and entities: one in ten is not in the model (logged once, then a plain miss)
+ * - Fuels are always in the model, furnaces only burn known fuels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelLookupBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private FuelModel fuelModel;
+    private ReductionModel reductionModel;
+    private EntityMethaneModel methaneModel;
+    private Material[] fuels;
+    private Material[] blocks;
+    private EntityType[] entities;
+
+    @Setup
+    public void setup() {
+        Gson gson = Headless.install().getGson();
+        fuelModel = new FuelModel(gson, "world");
+        reductionModel = new ReductionModel(gson, "world");
+        methaneModel = new EntityMethaneModel("world");
+
+        Random random = new Random(0);
+        fuels = sample(new ArrayList<>(fuelModel.getFuelMap().keySet()), null, random).toArray(new Material[0]);
+        blocks = sample(new ArrayList<>(reductionModel.getReductionMap().keySet()), Material.values(), random).toArray(new Material[0]);
+        entities = sample(new ArrayList<>(methaneModel.getEntityMethaneMap().keySet()), EntityType.values(), random).toArray(new EntityType[0]);
+    }
+
+    /**
+     * @param all every value, one in ten inputs is drawn from it; null to only use known values
+     */
+    private static <T> List<T> sample(List<T> known, T[] all, Random random) {
+        List<T> inputs = new ArrayList<>(INPUTS);
+        for (int i = 0; i < INPUTS; i++) {
+            inputs.add(all != null && i % 10 == 9
+                    ? all[random.nextInt(all.length)]
+                    : known.get(random.nextInt(known.size())));
+        }
+
+        return inputs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public double fuelContribution() {
+        double sum = 0;
+        for (Material fuel : fuels) {
+            sum += fuelModel.getContribution(fuel);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public double blockReduction() {
+        double sum = 0;
+        for (Material block : blocks) {
+            sum += reductionModel.getReduction(block);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public double methaneContribution() {
+        double sum = 0;
+        for (EntityType entity : entities) {
+            sum += methaneModel.getContribution(entity);
+        }
+
+        return sum;
+    }
+}
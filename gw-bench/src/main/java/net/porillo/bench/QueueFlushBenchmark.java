@@ -0,0 +1,100 @@
+package net.porillo.bench;
+
+import net.porillo.database.ConnectionManager;
+import net.porillo.database.ConnectionPool;
+import net.porillo.database.queries.insert.ContributionInsertQuery;
+import net.porillo.database.queries.insert.ContributionRollupQuery;
+import net.porillo.database.queries.other.CreateTableQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.Contribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full queue flush into an in-memory H2 database, as the writer thread runs it
+ * - Each furnace burn queues an insert and a rollup (20 players, 50 furnaces)
+ * - Tables are emptied and the queue refilled before every flush, outside the measurement
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueFlushBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean batch;
+
+    private ConnectionPool pool;
+    private AsyncDBQueue queue;
+
+    @Setup
+    public void setup() throws SQLException, ClassNotFoundException {
+        pool = new ConnectionPool(
+                () -> DriverManager.getConnection("jdbc:h2:mem:gw_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE"),
+                1, 2, 60_000L, 10_000L, 64);
+        Headless.install().setConnectionManager(new ConnectionManager("H2", null, 0, null, null, null) {
+            @Override
+            public Connection openConnection() throws SQLException, ClassNotFoundException {
+                return pool.borrow();
+            }
+        });
+
+        queue = AsyncDBQueue.getInstance();
+        queue.setBatchEnabled(batch);
+        try (Connection connection = pool.borrow()) {
+            queue.queueCreateQuery(new CreateTableQuery("contributions", script("contributions")));
+            queue.queueCreateQuery(new CreateTableQuery("contribution_rollups", script("contribution_rollups")));
+            queue.writeCreateTableQueue(connection);
+        }
+    }
+
+    private static String script(String table) {
+        try (InputStream in = QueueFlushBenchmark.class.getResourceAsStream(String.format("/scripts/%s.sql", table));
+             Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name()).useDelimiter("\\A")) {
+            return scanner.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() throws SQLException, ClassNotFoundException {
+        try (Connection connection = pool.borrow(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE contributions");
+            statement.execute("TRUNCATE TABLE contribution_rollups");
+        }
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            Contribution contribution = new Contribution(i, i % 20, i % 50, Headless.WORLD_ID, 1 + i % 7);
+            queue.queueInsertQuery(new ContributionInsertQuery(contribution));
+            queue.queueRollupQuery(new ContributionRollupQuery(contribution, now));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int flush() {
+        queue.flush("benchmark");
+        return queue.getLastFlushRows();
+    }
+}
@@ -0,0 +1,143 @@
+package net.porillo.bench;
+
+import net.porillo.config.WorldConfig;
+import net.porillo.engine.api.WorldClimateEngine;
+import net.porillo.engine.models.ReductionModel;
+import net.porillo.objects.Reduction;
+import net.porillo.objects.Tree;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.BlockState;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reduction credited for a grown tree, from the blocks of its StructureGrowEvent
+ * - oak: 1x1 trunk, small canopy (~70 blocks)
+ * - dark_oak: 2x2 trunk, wide canopy (~250 blocks)
+ * - jungle: 2x2 giant trunk, large canopy (~1000 blocks)
+ * - Block states hand out a new Location per call, like the server's
+ * - A few positions are listed twice, as in the server's event
+ * - locationMap is the former Location-keyed dedupe, for comparison; run with -prof gc to see the allocations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeGrowBenchmark {
+
+    @Param({"oak", "dark_oak", "jungle"})
+    private String species;
+
+    private ReductionModel reductionModel;
+    private WorldClimateEngine engine;
+    private Tree tree;
+    private List<BlockState> blocks;
+
+    @Setup
+    public void setup() {
+        reductionModel = new ReductionModel(Headless.install().getGson(), "world");
+        WorldConfig config = new WorldConfig(Headless.WORLD_ID, "world", new YamlConfiguration());
+        engine = new WorldClimateEngine(config, Collections.singletonList(reductionModel));
+        tree = new Tree(1, 1, new Location(Headless.WORLD, 0, 64, 0), true, 0);
+
+        switch (species) {
+            case "oak":
+                blocks = grow(Material.OAK_LOG, Material.OAK_LEAVES, 1, 5, 2);
+                break;
+            case "dark_oak":
+                blocks = grow(Material.DARK_OAK_LOG, Material.DARK_OAK_LEAVES, 2, 7, 4);
+                break;
+            case "jungle":
+                blocks = grow(Material.JUNGLE_LOG, Material.JUNGLE_LEAVES, 2, 24, 6);
+                break;
+            default:
+                throw new IllegalArgumentException(species);
+        }
+    }
+
+    /**
+     * A trunk of logs topped by a round canopy of leaves
+     */
+    private static List<BlockState> grow(Material log, Material leaves, int width, int height, int radius) {
+        List<BlockState> blocks = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int z = 0; z < width; z++) {
+                    blocks.add(blockState(x, 64 + y, z, log));
+                }
+            }
+        }
+
+        int top = 64 + height;
+        for (int x = -radius; x < radius + width; x++) {
+            for (int y = -radius / 2; y <= radius / 2; y++) {
+                for (int z = -radius; z < radius + width; z++) {
+                    boolean trunk = x >= 0 && x < width && z >= 0 && z < width && y < 0;
+                    double dx = x - (width - 1) / 2.0;
+                    double dz = z - (width - 1) / 2.0;
+                    if (!trunk && dx * dx + dz * dz + 4 * y * y <= radius * radius) {
+                        blocks.add(blockState(x, top + y, z, leaves));
+                    }
+                }
+            }
+        }
+
+        int size = blocks.size();
+        for (int i = 0; i < size; i += 20) {
+            BlockState duplicate = blocks.get(i);
+            Location location = duplicate.getLocation();
+            blocks.add(blockState(location.getBlockX(), location.getBlockY(), location.getBlockZ(), duplicate.getType()));
+        }
+
+        return blocks;
+    }
+
+    private static BlockState blockState(int x, int y, int z, Material type) {
+        return Mocks.mock(BlockState.class, (method, args) -> {
+            switch (method) {
+                case "getLocation":
+                    return new Location(Headless.WORLD, x, y, z);
+                case "getType":
+                    return type;
+                case "getX":
+                    return x;
+                case "getY":
+                    return y;
+                case "getZ":
+                    return z;
+                case "getWorld":
+                    return Headless.WORLD;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public Reduction treeGrow() {
+        return engine.treeGrow(tree, blocks, false);
+    }
+
+    @Benchmark
+    public double locationMap() {
+        Map<Location, Material> blockStateMap = blocks.stream()
+                .collect(Collectors.toMap(BlockState::getLocation, BlockState::getType, (a, b) -> b));
+
+        double reductionValue = 0;
+        for (Material material : blockStateMap.values()) {
+            reductionValue += reductionModel.getReduction(material);
+        }
+
+        return reductionValue;
+    }
+}
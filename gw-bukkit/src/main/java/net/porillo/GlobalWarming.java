@@ -15,9 +15,15 @@ import net.porillo.config.Lang;
 import net.porillo.database.ConnectionManager;
 import net.porillo.database.TableManager;
 import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.database.queue.CarbonTotalsRefresher;
+import net.porillo.database.queue.QueryJournal;
+import net.porillo.database.queue.TableLoader;
 import net.porillo.database.tables.WorldTable;
 import net.porillo.effect.EffectEngine;
 import net.porillo.engine.ClimateEngine;
+import net.porillo.engine.ClimateSimulation;
+import net.porillo.engine.ModelWatcher;
+import net.porillo.engine.api.Distribution;
 import net.porillo.listeners.*;
 import net.porillo.objects.GPlayer;
 import net.porillo.objects.GWorld;
@@ -35,21 +41,25 @@ import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Random;
 
 @Getter
-public class GlobalWarming extends JavaPlugin {
+public class GlobalWarming extends JavaPlugin implements Platform {
 
     private static GlobalWarming instance; // single plugin instance
 
     private GlobalWarmingConfig conf;
     private ConnectionManager connectionManager;
     private TableManager tableManager;
+    private TableLoader tableLoader;
     private GScoreboard scoreboard;
     private CO2Notifications notifications;
-    private Random random;
+    private ModelWatcher modelWatcher;
+    private ClimateSimulation climateSimulation;
+    private RandomService random;
     private Gson gson;
 
     private PaperCommandManager commandManager;
@@ -58,25 +68,46 @@ public class GlobalWarming extends JavaPlugin {
     @Override
     public void onEnable() {
         instance = this;
+        Platform.setInstance(this);
 
         Lang.init();
-        this.random = new Random();
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.conf = new GlobalWarmingConfig();
+        this.random = conf.isRandomDeterministic() ? new RandomService(conf.getRandomSeed()) : new RandomService();
+        if (random.isSeeded()) {
+            getLogger().warning(String.format("Random numbers are seeded with [%d], ids will repeat after a restart", random.getSeed()));
+        }
+        Distribution.setDefaultLookupTableSize(conf.getModelsLookupTableSize());
         this.connectionManager = conf.makeConnectionManager();
         this.tableManager = new TableManager();
+        this.tableLoader = new TableLoader(conf.getDatabaseLoadFetchSize(), conf.getDatabaseLoadChunkSize(), conf.getDatabaseLoadTickBudget());
+        AsyncDBQueue.getInstance().setBatchEnabled(conf.isDatabaseBatchEnabled());
+        AsyncDBQueue.getInstance().setMaxBatchSize(conf.getDatabaseBatchSize());
+        AsyncDBQueue.getInstance().setDeltaMode(conf.isDatabaseDeltaEnabled());
+        if (conf.isDatabaseJournalEnabled()) {
+            try {
+                AsyncDBQueue.getInstance().setJournal(new QueryJournal(new File(getDataFolder(), "queue.journal"), 1 << 20));
+            } catch (IOException e) {
+                getLogger().warning(String.format("Unable to open the query journal: %s", e.getMessage()));
+            }
+        }
 
-        try {
-            //Connect to the database:
-            // - Refer to setup.sh for setup information
-            Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection();
-
+        //Connect to the database:
+        // - Refer to setup.sh for setup information
+        try (Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection()) {
             //Create the database if it doesn't exist:
             // - Required for the first run
             AsyncDBQueue.getInstance().writeCreateTableQueue(connection);
 
-            //Load any stored records back into memory:
-            AsyncDBQueue.getInstance().writeSelectQueue(connection);
+            //Re-apply writes that were queued but not flushed before a crash:
+            AsyncDBQueue.getInstance().replayJournal(connection);
+
+            //Load the records needed during startup back into memory:
+            // - Worlds are read by the climate engines below
+            // - Players are created on demand, so they must be known before anyone joins
+            // - Lazy mode: only the untracked player and anyone already online
+            tableLoader.load(connection, "worlds", "players");
+            tableManager.getPlayerTable().loadResident(connection);
 
             //Confirm that each world has a record:
             // - Required for the first run
@@ -87,6 +118,10 @@ public class GlobalWarming extends JavaPlugin {
                     worldTable.insertNewWorld(world.getUID());
                 }
             }
+
+            //Stream the remaining records in over the next ticks:
+            // - Listeners defer work on these tables until they are ready, see TableLoader.whenReady()
+            tableLoader.start();
         } catch (SQLException | ClassNotFoundException e) {
             getLogger().severe("Database connection not found.");
             getLogger().severe("Data won't persist after restarts!");
@@ -100,6 +135,17 @@ public class GlobalWarming extends JavaPlugin {
 
         ClimateEngine.getInstance().loadWorldClimateEngines();
         EffectEngine.getInstance();
+
+        //Advance the climate off the main thread:
+        this.climateSimulation = new ClimateSimulation(conf.getClimateInterval(), conf.getClimateLag(), conf.getClimateDecay());
+        this.climateSimulation.start();
+
+        //Reload model files when they are edited:
+        if (conf.isModelsWatch()) {
+            this.modelWatcher = new ModelWatcher(getDataFolder().toPath().resolve("models"));
+            this.modelWatcher.start();
+        }
+
         this.commandManager = new PaperCommandManager(this);
         this.scoreboard = new GScoreboard(conf.isScoreboardEnabled());
         this.notifications = new CO2Notifications();
@@ -114,7 +160,17 @@ public class GlobalWarming extends JavaPlugin {
         Bukkit.getPluginManager().registerEvents(new PlayerListener(this), this);
         Bukkit.getPluginManager().registerEvents(new WorldListener(this), this);
 
-        AsyncDBQueue.getInstance().scheduleAsyncTask(conf.getDatabaseInterval() * 20L);
+        AsyncDBQueue.getInstance().startWriter(
+                conf.getDatabaseInterval() * 1000L,
+                conf.getDatabaseFlushMaxAge() * 1000L,
+                conf.getDatabaseFlushRowThreshold(),
+                conf.getDatabaseFlushMaxDepth());
+
+        //Delta mode: pick up carbon changes written by other servers sharing the database:
+        if (conf.isDatabaseDeltaEnabled()) {
+            long refreshTicks = Math.max(1, conf.getDatabaseDeltaRefreshInterval()) * 20L;
+            new CarbonTotalsRefresher().runTaskTimer(this, refreshTicks, refreshTicks);
+        }
 
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null && !conf.isScoreboardEnabled()) {
             new TemperatureExpansion().register();
@@ -127,6 +183,18 @@ public class GlobalWarming extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (tableLoader != null) {
+            tableLoader.cancel();
+        }
+
+        if (modelWatcher != null) {
+            modelWatcher.stop();
+        }
+
+        if (climateSimulation != null) {
+            climateSimulation.stop();
+        }
+
         AsyncDBQueue.getInstance().close();
         GlobalWarming.getInstance().getConnectionManager().close();
         EffectEngine.getInstance().unloadEffects(); // handles stuff like sea level metadata disk storage
@@ -173,6 +241,16 @@ public class GlobalWarming extends JavaPlugin {
     }
 
 
+    @Override
+    public boolean isPrimaryThread() {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public void runTask(Runnable task) {
+        Bukkit.getScheduler().runTask(this, task);
+    }
+
     /**
      * @return instance of main class
      */
@@ -4,7 +4,7 @@ import co.aikar.commands.BaseCommand;
 import co.aikar.commands.annotation.*;
 import net.porillo.GlobalWarming;
 import net.porillo.config.Lang;
-import net.porillo.database.queries.update.WorldUpdateQuery;
+import net.porillo.database.ConnectionPool;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.database.tables.WorldTable;
 import net.porillo.effect.EffectEngine;
@@ -21,6 +21,26 @@ import org.bukkit.entity.Player;
 @CommandAlias("gw")
 public class AdminCommands extends BaseCommand {
 
+    @Subcommand("reload")
+    @CommandPermission("globalwarming.admin.reload")
+    public class ReloadCommands extends BaseCommand {
+
+        /**
+         * Apply edited model files without a restart, invalid files keep the previous model
+         */
+        @Subcommand("models")
+        @Description("Reloads changed model files for all worlds")
+        public void onReloadModels(CommandSender sender) {
+            sender.sendMessage(String.format("%sReloading models...", ChatColor.GRAY));
+            ClimateEngine.getInstance().reloadModels(null, updated -> sender.sendMessage(String.format(
+                    "%sModels reloaded: %s%d %sworld(s) updated, see the console for rejected files.",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    updated,
+                    ChatColor.GREEN)));
+        }
+    }
+
     @Subcommand("debug")
     @CommandPermission("globalwarming.admin.debug")
     public class DebugCommands extends BaseCommand {
@@ -43,6 +63,65 @@ public class AdminCommands extends BaseCommand {
             }
         }
 
+        /**
+         * Connection pool and statement cache metrics
+         */
+        @Subcommand("pool")
+        @Description("Shows database connection pool usage")
+        public void onPoolDebug(CommandSender sender) {
+            ConnectionPool pool = GlobalWarming.getInstance().getConnectionManager().getPool();
+            if (pool == null) {
+                sender.sendMessage(String.format("%sNo database connections have been opened yet.", ChatColor.GRAY));
+                return;
+            }
+
+            sender.sendMessage(String.format(
+                    "%sConnections: %s%d active, %d idle, %d/%d open (%d evicted)",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    pool.getActiveConnections(),
+                    pool.getIdleConnections(),
+                    pool.getTotalConnections(),
+                    pool.getMaxSize(),
+                    pool.getEvictedConnections()));
+            sender.sendMessage(String.format(
+                    "%sBorrows: %s%d, avg wait %.2f ms, max wait %.2f ms",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    pool.getBorrowCount(),
+                    pool.getAverageBorrowWaitMillis(),
+                    pool.getMaxBorrowWaitMillis()));
+            sender.sendMessage(String.format(
+                    "%sStatement cache: %s%d hits, %d misses",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    pool.getStatementCacheHits(),
+                    pool.getStatementCacheMisses()));
+        }
+
+        /**
+         * Database write queue statistics
+         */
+        @Subcommand("queue")
+        @Description("Shows database write queue usage")
+        public void onQueueDebug(CommandSender sender) {
+            AsyncDBQueue queue = AsyncDBQueue.getInstance();
+            sender.sendMessage(String.format(
+                    "%sQueued: %s%d rows, oldest %d ms",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    queue.getQueueDepth(),
+                    queue.getOldestEntryAgeMillis()));
+            sender.sendMessage(String.format(
+                    "%sLast flush: %s%d rows in %d ms (max %d ms, %d flushes)",
+                    ChatColor.GREEN,
+                    ChatColor.YELLOW,
+                    queue.getLastFlushRows(),
+                    queue.getLastFlushMillis(),
+                    queue.getMaxFlushMillis(),
+                    queue.getFlushCount()));
+        }
+
         /**
          * Set the temperature to activate / deactivate climate-effects
          * including sea-level, farm yields, slowness and more
@@ -54,7 +133,7 @@ public class AdminCommands extends BaseCommand {
             if (args.length == 1) {
                 double temperature;
                 try {
-                    temperature = Math.floor(Double.parseDouble(args[0]));
+                    temperature = Double.parseDouble(args[0]);
                 } catch (NumberFormatException e) {
                     gPlayer.sendMsg(String.format("%sInvalid temperature", ChatColor.RED));
                     return;
@@ -100,28 +179,26 @@ public class AdminCommands extends BaseCommand {
             boolean isTemperatureUpdated = false;
             if (onlinePlayer != null) {
                 climateEngine = ClimateEngine.getInstance().getClimateEngine(gPlayer.getWorldId());
-                for (int carbonScore : climateEngine.getScoreTempModel().getTemperatureMap().keySet()) {
-                    if (climateEngine.getScoreTempModel().getTemperatureMap().get(carbonScore) == temperature) {
-                        WorldTable worldTable = GlobalWarming.getInstance().getTableManager().getWorldTable();
-                        gWorld = worldTable.getWorld(gPlayer.getWorldId());
-                        gWorld.setCarbonValue(carbonScore);
-                        isTemperatureUpdated = true;
-                        break;
-                    }
+                Integer carbonScore = climateEngine.getScoreTempModel().getScore(temperature);
+                if (carbonScore != null) {
+                    WorldTable worldTable = GlobalWarming.getInstance().getTableManager().getWorldTable();
+                    gWorld = worldTable.getWorld(gPlayer.getWorldId());
+
+                    //Database update:
+                    // - Queued as a change, so delta mode moves the shared total to the same score
+                    worldTable.updateWorldCarbonValue(gWorld.getWorldId(), carbonScore - gWorld.getCarbonValue());
+                    isTemperatureUpdated = true;
                 }
             }
 
             if (isTemperatureUpdated) {
-                //Database update:
-                WorldUpdateQuery updateQuery = new WorldUpdateQuery(gWorld);
-                AsyncDBQueue.getInstance().queueUpdateQuery(updateQuery);
-
                 //Notify:
                 GlobalWarming.getInstance().getScoreboard().update(gPlayer);
+                //The climate simulation moves the published temperature towards this on its next ticks:
                 gPlayer.sendMsg(
                         String.format("World carbon score: [%s], temperature: [%s]",
                                 gWorld.getCarbonValue(),
-                                climateEngine.getTemperature()));
+                                climateEngine.getScoreTempModel().getTemperature(gWorld.getCarbonValue())));
             } else {
                 gPlayer.sendMsg("Temperature was not updated");
             }
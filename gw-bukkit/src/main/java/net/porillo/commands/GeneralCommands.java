@@ -7,6 +7,7 @@ import net.porillo.GlobalWarming;
 import net.porillo.config.Lang;
 import net.porillo.database.tables.PlayerTable;
 import net.porillo.engine.ClimateEngine;
+import net.porillo.engine.api.ClimateState;
 import net.porillo.engine.api.WorldClimateEngine;
 import net.porillo.engine.models.CarbonIndexModel;
 import net.porillo.objects.GPlayer;
@@ -273,13 +274,14 @@ public class GeneralCommands extends BaseCommand {
 
             if (associatedClimateEngine != null && associatedClimateEngine.isEnabled()) {
                 int score = gPlayer.getCarbonScore();
-                double temperature = associatedClimateEngine.getTemperature();
+                ClimateState climateState = associatedClimateEngine.getClimateState();
+                double temperature = climateState.getTemperature();
                 StringBuilder welcomeMessage = new StringBuilder();
                 //Player's carbon score and the global temperature:
                 welcomeMessage.append(String.format(
                         Lang.SCORE_CHAT.get(),
                         Colorizer.formatScore(score),
-                        associatedClimateEngine.formatTemp(temperature)));
+                        climateState.getFormattedTemperature()));
 
                 //What the target is (i.e., a point of reference):
                 welcomeMessage.append("\n");
@@ -321,9 +323,10 @@ public class GeneralCommands extends BaseCommand {
             CarbonIndexModel indexModel = associatedClimateEngine.getCarbonIndexModel();
             ChatTable chatTable = new ChatTable(isPolluterList ? Lang.TOPTABLE_POLLUTERS.get() : Lang.TOPTABLE_PLANTERS.get());
             chatTable.setGridColor(isPolluterList ? ChatColor.DARK_RED : ChatColor.GREEN);
-            chatTable.addHeader(Lang.TOPTABLE_PLAYER.get(), (int) (ChatTable.CHAT_WIDTH * 0.464));
-            chatTable.addHeader(Lang.TOPTABLE_INDEX.get(), (int) (ChatTable.CHAT_WIDTH * 0.268));
-            chatTable.addHeader(Lang.TOPTABLE_SCORE.get(), (int) (ChatTable.CHAT_WIDTH * 0.268));
+            int width = ChatTable.getChatWidth();
+            chatTable.addHeader(Lang.TOPTABLE_PLAYER.get(), (int) (width * 0.464));
+            chatTable.addHeader(Lang.TOPTABLE_INDEX.get(), (int) (width * 0.268));
+            chatTable.addHeader(Lang.TOPTABLE_SCORE.get(), (int) (width * 0.268));
 
             try {
                 PlayerTable playerTable = GlobalWarming.getInstance().getTableManager().getPlayerTable();
@@ -38,13 +38,21 @@ public abstract class ConfigLoader {
         this(fileName, fileName);
     }
 
+    /**
+     * Config held in memory only, nothing is read from or written to disk
+     */
+    ConfigLoader(String fileName, FileConfiguration conf) {
+        this.fileName = fileName;
+        this.conf = conf;
+    }
+
     private void addDefaults() {
         conf.options().copyDefaults(true);
         saveConfig();
     }
 
     void load() {
-        if (!configFile.exists()) {
+        if (configFile != null && !configFile.exists()) {
             GlobalWarming.getInstance().getDataFolder().mkdir();
             saveConfig();
         }
@@ -60,10 +68,18 @@ public abstract class ConfigLoader {
     }
 
     private void rereadFromDisk() {
+        if (configFile == null) {
+            return;
+        }
+
         conf = YamlConfiguration.loadConfiguration(configFile);
     }
 
     private void saveConfig() {
+        if (configFile == null) {
+            return;
+        }
+
         try {
             conf.save(configFile);
         } catch (IOException ex) {
@@ -0,0 +1,120 @@
+package net.porillo.config;
+
+import lombok.Getter;
+import net.porillo.database.ConnectionManager;
+
+@Getter
+public class GlobalWarmingConfig extends ConfigLoader {
+
+    private String host;
+    private int port;
+    private String database, type;
+    private String username, password;
+    private int maxBounties;
+    private int chatTableWidth;
+    private int climateInterval;
+    private double climateLag;
+    private double climateDecay;
+    private double degreesUntilChangeDetected;
+    private int spamInterval;
+    private int databaseInterval;
+    private int databaseFlushRowThreshold;
+    private int databaseFlushMaxAge;
+    private int databaseFlushMaxDepth;
+    private boolean databaseBatchEnabled;
+    private int databaseBatchSize;
+    private int databasePoolMinSize;
+    private int databasePoolMaxSize;
+    private int databasePoolIdleTimeout;
+    private int databasePoolBorrowTimeout;
+    private int databaseStatementCacheSize;
+    private boolean databaseJournalEnabled;
+    private boolean databaseRawEvents;
+    private int databaseLoadFetchSize;
+    private int databaseLoadChunkSize;
+    private int databaseLoadTickBudget;
+    private boolean databasePlayersLazy;
+    private int databasePlayersCacheSize;
+    private boolean databaseDeltaEnabled;
+    private int databaseDeltaRefreshInterval;
+    private int modelsLookupTableSize;
+    private boolean modelsWatch;
+    private int notificationInterval;
+    private int notificationDuration;
+    private boolean randomDeterministic;
+    private long randomSeed;
+    private boolean scoreboardEnabled;
+    private int scoreboardInterval;
+    private String temperatureFormat;
+    private boolean welcomingOnJoin;
+
+    public GlobalWarmingConfig() {
+        super("config.yml");
+        super.saveIfNotExist();
+        super.load();
+    }
+
+    @Override
+    protected void loadKeys() {
+        this.chatTableWidth = conf.getInt("chat.table-width", 280);
+        this.maxBounties = conf.getInt("bounty.max-created-per-player", 5);
+        this.climateInterval = conf.getInt("climate.interval-ms", 1000);
+        this.climateLag = conf.getDouble("climate.lag", 0.0);
+        this.climateDecay = conf.getDouble("climate.decay", 0.0);
+        this.degreesUntilChangeDetected = conf.getDouble("climate-notification.degrees-until-change-detected", 0.25);
+        this.spamInterval = conf.getInt("commands.spam-interval", 60);
+
+        this.host = conf.getString("database.host");
+        this.port = conf.getInt("database.port");
+        this.database = conf.getString("database.name");
+        this.type = conf.getString("database.type", "H2");
+        this.username = conf.getString("database.username");
+        this.password = conf.getString("database.password");
+        this.databaseInterval = conf.getInt("database.interval", 300);
+        this.databaseFlushRowThreshold = conf.getInt("database.flush.row-threshold", 1000);
+        this.databaseFlushMaxAge = conf.getInt("database.flush.max-age", 60);
+        this.databaseFlushMaxDepth = conf.getInt("database.flush.max-depth", 20000);
+        this.databaseBatchEnabled = conf.getBoolean("database.batch.enabled", true);
+        this.databaseBatchSize = conf.getInt("database.batch.max-size", 500);
+        this.databasePoolMinSize = conf.getInt("database.pool.min-size", 1);
+        this.databasePoolMaxSize = conf.getInt("database.pool.max-size", 4);
+        this.databasePoolIdleTimeout = conf.getInt("database.pool.idle-timeout", 300);
+        this.databasePoolBorrowTimeout = conf.getInt("database.pool.borrow-timeout", 10);
+        this.databaseStatementCacheSize = conf.getInt("database.pool.statement-cache-size", 64);
+        this.databaseJournalEnabled = conf.getBoolean("database.journal.enabled", true);
+        this.databaseRawEvents = conf.getBoolean("database.rollups.raw-events", false);
+        this.databaseLoadFetchSize = conf.getInt("database.load.fetch-size", 500);
+        this.databaseLoadChunkSize = conf.getInt("database.load.chunk-size", 500);
+        this.databaseLoadTickBudget = conf.getInt("database.load.tick-budget-ms", 5);
+        this.databasePlayersLazy = conf.getBoolean("database.players.lazy", false);
+        this.databasePlayersCacheSize = conf.getInt("database.players.cache-size", 1000);
+        this.databaseDeltaEnabled = conf.getBoolean("database.delta.enabled", false);
+        this.databaseDeltaRefreshInterval = conf.getInt("database.delta.refresh-interval", 30);
+
+        this.modelsLookupTableSize = conf.getInt("models.lookup-table-size", 0);
+        this.modelsWatch = conf.getBoolean("models.watch", true);
+
+        this.notificationInterval = conf.getInt("notification.interval", 6000);
+        this.notificationDuration = conf.getInt("notification.duration", 300);
+
+        this.randomDeterministic = conf.getBoolean("random.deterministic", false);
+        this.randomSeed = conf.getLong("random.seed", 0L);
+
+        this.scoreboardEnabled = conf.getBoolean("scoreboard.enabled", true);
+        this.scoreboardInterval = conf.getInt("scoreboard.interval", 20);
+        this.temperatureFormat = conf.getString("temperature.format", "#.##");
+
+        this.welcomingOnJoin = conf.getBoolean("chat.welcome-on-join", true);
+    }
+
+    public ConnectionManager makeConnectionManager() {
+        ConnectionManager connectionManager = new ConnectionManager(type, host, port, database, username, password);
+        connectionManager.setPoolMinSize(databasePoolMinSize);
+        connectionManager.setPoolMaxSize(databasePoolMaxSize);
+        connectionManager.setPoolIdleTimeoutMillis(databasePoolIdleTimeout * 1000L);
+        connectionManager.setPoolBorrowTimeoutMillis(databasePoolBorrowTimeout * 1000L);
+        connectionManager.setStatementCacheSize(databaseStatementCacheSize);
+        return connectionManager;
+    }
+
+} 
@@ -5,6 +5,7 @@ import net.porillo.GlobalWarming;
 import net.porillo.effect.api.ClimateEffectType;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -32,6 +33,15 @@ public class WorldConfig extends ConfigLoader {
         super.load();
     }
 
+    /**
+     * World config held in memory, e.g., for benchmarks
+     */
+    public WorldConfig(UUID worldId, String worldName, FileConfiguration conf) {
+        super(String.format("%s.yml", worldName), conf);
+        this.worldId = worldId;
+        super.load();
+    }
+
     public String getName() {
         return super.getFileName().substring(0, super.getFileName().indexOf("."));
     }
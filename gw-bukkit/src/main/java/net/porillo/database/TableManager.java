@@ -23,6 +23,13 @@ public class TableManager {
     private ReductionTable reductionTable;
     private ContributionTable contributionTable;
 
+    // Tables for per-minute contribution / reduction totals
+    private ContributionRollupTable contributionRollupTable;
+    private ReductionRollupTable reductionRollupTable;
+
+    // Applied schema migrations, created last
+    private SchemaVersionTable schemaVersionTable;
+
     public TableManager() {
         this.worldTable = new WorldTable();
         this.playerTable = new PlayerTable();
@@ -33,6 +40,11 @@ public class TableManager {
 
         this.reductionTable = new ReductionTable();
         this.contributionTable = new ContributionTable();
+
+        this.contributionRollupTable = new ContributionRollupTable();
+        this.reductionRollupTable = new ReductionRollupTable();
+
+        this.schemaVersionTable = new SchemaVersionTable();
     }
 
     public List<Table> getTables() {
@@ -3,7 +3,6 @@ package net.porillo.database.queries.delete;
 import net.porillo.database.api.DeleteQuery;
 import net.porillo.objects.TrackedEntity;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -22,9 +21,12 @@ public class EntityDeleteQuery extends DeleteQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return entity.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, entity.getUniqueId());
-        return preparedStatement;
     }
 }
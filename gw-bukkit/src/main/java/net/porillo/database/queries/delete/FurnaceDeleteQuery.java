@@ -3,7 +3,6 @@ package net.porillo.database.queries.delete;
 import net.porillo.database.api.DeleteQuery;
 import net.porillo.objects.Furnace;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -22,9 +21,12 @@ public class FurnaceDeleteQuery extends DeleteQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return furnace.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, furnace.getUniqueId());
-        return preparedStatement;
     }
 }
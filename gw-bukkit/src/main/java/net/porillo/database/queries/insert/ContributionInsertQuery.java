@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.Contribution;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -22,13 +21,16 @@ public class ContributionInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return contribution.getUniqueID();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, contribution.getUniqueID());
         preparedStatement.setInt(2, contribution.getContributer());
         preparedStatement.setInt(3, contribution.getContributionKey());
         preparedStatement.setString(4, contribution.getWorldId().toString());
         preparedStatement.setInt(5, contribution.getContributionValue());
-        return preparedStatement;
     }
 }
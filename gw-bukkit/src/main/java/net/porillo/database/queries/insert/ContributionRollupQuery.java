@@ -0,0 +1,34 @@
+package net.porillo.database.queries.insert;
+
+import net.porillo.database.api.RollupQuery;
+import net.porillo.objects.Contribution;
+
+import java.util.UUID;
+
+public class ContributionRollupQuery extends RollupQuery {
+
+    public ContributionRollupQuery(Contribution contribution, long timeMillis) {
+        this(contribution.getContributer(),
+                contribution.getContributionKey(),
+                contribution.getWorldId(),
+                bucketOf(timeMillis),
+                contribution.getContributionValue(),
+                1);
+    }
+
+    private ContributionRollupQuery(int playerId, int sourceKey, UUID worldId, long bucket, long value, int events) {
+        super("contribution_rollups", playerId, sourceKey, worldId, bucket, value, events);
+    }
+
+    @Override
+    protected RollupQuery withTotals(long value, int events) {
+        return new ContributionRollupQuery(getPlayerId(), getSourceKey(), getWorldId(), getBucket(), value, events);
+    }
+
+    @Override
+    public String getSQL() {
+        return "INSERT INTO contribution_rollups (contributerId, contributionKey, worldId, bucket, value, events)" +
+                " VALUES (?,?,?,?,?,?)" +
+                " ON DUPLICATE KEY UPDATE value = value + VALUES(value), events = events + VALUES(events)";
+    }
+}
@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.TrackedEntity;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -22,14 +21,17 @@ public class EntityInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return entity.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, entity.getUniqueId());
         preparedStatement.setString(2, entity.getUuid().toString());
         preparedStatement.setInt(3, entity.getBreederId());
         preparedStatement.setString(4, entity.getEntityType().name());
         preparedStatement.setLong(5, entity.getTicksLived());
         preparedStatement.setBoolean(6, entity.isAlive());
-        return preparedStatement;
     }
 }
@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.Furnace;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -23,8 +22,12 @@ public class FurnaceInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return furnace.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, furnace.getUniqueId());
         preparedStatement.setInt(2, furnace.getOwnerId());
         preparedStatement.setString(3, furnace.getLocation().getWorld().getUID().toString());
@@ -32,6 +35,5 @@ public class FurnaceInsertQuery extends InsertQuery {
         preparedStatement.setInt(5, furnace.getLocation().getBlockY());
         preparedStatement.setInt(6, furnace.getLocation().getBlockZ());
         preparedStatement.setBoolean(7, furnace.isActive());
-        return preparedStatement;
     }
 }
@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.OffsetBounty;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -23,8 +22,12 @@ public class OffsetInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return offsetBounty.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, offsetBounty.getUniqueId());
         preparedStatement.setInt(2, offsetBounty.getCreatorId());
 
@@ -39,6 +42,5 @@ public class OffsetInsertQuery extends InsertQuery {
         preparedStatement.setInt(6, offsetBounty.getReward());
         preparedStatement.setLong(7, offsetBounty.getTimeStarted());
         preparedStatement.setLong(8, offsetBounty.getTimeCompleted());
-        return preparedStatement;
     }
 }
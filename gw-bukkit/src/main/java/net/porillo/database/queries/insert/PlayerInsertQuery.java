@@ -2,9 +2,9 @@ package net.porillo.database.queries.insert;
 
 import lombok.Getter;
 import net.porillo.database.api.InsertQuery;
+import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.GPlayer;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -24,13 +24,17 @@ public class PlayerInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return player.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, player.getUniqueId());
         preparedStatement.setString(2, player.getUuid().toString());
         preparedStatement.setLong(3, player.getFirstSeen());
-        preparedStatement.setInt(4, player.getCarbonScore());
+        //In delta mode the carbon score follows as a PlayerCarbonDeltaQuery, flushed after inserts:
+        preparedStatement.setInt(4, AsyncDBQueue.getInstance().isDeltaMode() ? 0 : player.getCarbonScore());
         preparedStatement.setString(5, player.getWorldId().toString());
-        return preparedStatement;
     }
 }
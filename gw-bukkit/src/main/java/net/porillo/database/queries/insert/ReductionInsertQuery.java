@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.Reduction;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -22,13 +21,16 @@ public class ReductionInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return reduction.getUniqueID();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, reduction.getUniqueID());
         preparedStatement.setInt(2, reduction.getReductioner());
         preparedStatement.setInt(3, reduction.getReductionKey());
         preparedStatement.setString(4, reduction.getWorldId().toString());
         preparedStatement.setInt(5, reduction.getReductionValue());
-        return preparedStatement;
     }
 }
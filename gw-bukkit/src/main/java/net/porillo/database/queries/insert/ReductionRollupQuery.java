@@ -0,0 +1,34 @@
+package net.porillo.database.queries.insert;
+
+import net.porillo.database.api.RollupQuery;
+import net.porillo.objects.Reduction;
+
+import java.util.UUID;
+
+public class ReductionRollupQuery extends RollupQuery {
+
+    public ReductionRollupQuery(Reduction reduction, long timeMillis) {
+        this(reduction.getReductioner(),
+                reduction.getReductionKey(),
+                reduction.getWorldId(),
+                bucketOf(timeMillis),
+                reduction.getReductionValue(),
+                1);
+    }
+
+    private ReductionRollupQuery(int playerId, int sourceKey, UUID worldId, long bucket, long value, int events) {
+        super("reduction_rollups", playerId, sourceKey, worldId, bucket, value, events);
+    }
+
+    @Override
+    protected RollupQuery withTotals(long value, int events) {
+        return new ReductionRollupQuery(getPlayerId(), getSourceKey(), getWorldId(), getBucket(), value, events);
+    }
+
+    @Override
+    public String getSQL() {
+        return "INSERT INTO reduction_rollups (reductionerId, reductionKey, worldId, bucket, value, events)" +
+                " VALUES (?,?,?,?,?,?)" +
+                " ON DUPLICATE KEY UPDATE value = value + VALUES(value), events = events + VALUES(events)";
+    }
+}
@@ -3,7 +3,6 @@ package net.porillo.database.queries.insert;
 import net.porillo.database.api.InsertQuery;
 import net.porillo.objects.Tree;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -23,8 +22,12 @@ public class TreeInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return tree.getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, tree.getUniqueId());
         preparedStatement.setInt(2, tree.getOwnerId());
         preparedStatement.setString(3, tree.getLocation().getWorld().getUID().toString());
@@ -33,6 +36,5 @@ public class TreeInsertQuery extends InsertQuery {
         preparedStatement.setInt(6, tree.getLocation().getBlockZ());
         preparedStatement.setBoolean(7, tree.isSapling());
         preparedStatement.setInt(8, tree.getSize());
-        return preparedStatement;
     }
 }
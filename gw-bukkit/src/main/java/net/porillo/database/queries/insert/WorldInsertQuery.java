@@ -1,9 +1,9 @@
 package net.porillo.database.queries.insert;
 
 import net.porillo.database.api.InsertQuery;
+import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.GWorld;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -23,14 +23,18 @@ public class WorldInsertQuery extends InsertQuery {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return world.getUniqueID();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setInt(1, world.getUniqueID());
         preparedStatement.setString(2, world.getWorldId().toString());
         preparedStatement.setLong(3, world.getFirstSeen());
-        preparedStatement.setInt(4, world.getCarbonValue());
+        //In delta mode the carbon value follows as a WorldCarbonDeltaQuery, flushed after inserts:
+        preparedStatement.setInt(4, AsyncDBQueue.getInstance().isDeltaMode() ? 0 : world.getCarbonValue());
         preparedStatement.setInt(5, world.getSeaLevel());
         preparedStatement.setInt(6, world.getSize());
-        return preparedStatement;
     }
 }
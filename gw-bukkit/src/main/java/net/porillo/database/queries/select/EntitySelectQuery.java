@@ -0,0 +1,26 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.EntityTable;
+import net.porillo.objects.TrackedEntity;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class EntitySelectQuery extends SelectQuery<TrackedEntity, EntityTable> {
+
+    public EntitySelectQuery(EntityTable callback) {
+        super("entities", callback);
+    }
+
+    @Override
+    public TrackedEntity decode(ResultSet rs) throws SQLException {
+        return new TrackedEntity(rs);
+    }
+
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM entities WHERE alive = true";
+    }
+}
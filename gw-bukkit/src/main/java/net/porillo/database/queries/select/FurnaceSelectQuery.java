@@ -0,0 +1,26 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.FurnaceTable;
+import net.porillo.objects.Furnace;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class FurnaceSelectQuery extends SelectQuery<Furnace, FurnaceTable> {
+
+    public FurnaceSelectQuery(FurnaceTable callback) {
+        super("furnaces", callback);
+    }
+
+    @Override
+    public Furnace decode(ResultSet rs) throws SQLException {
+        return new Furnace(rs);
+    }
+
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM furnaces WHERE active = true";
+    }
+}
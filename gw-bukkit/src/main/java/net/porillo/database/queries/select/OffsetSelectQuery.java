@@ -0,0 +1,25 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.OffsetTable;
+import net.porillo.objects.OffsetBounty;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class OffsetSelectQuery extends SelectQuery<OffsetBounty, OffsetTable> {
+
+    public OffsetSelectQuery(OffsetTable callback) {
+        super("offsets", callback);
+    }
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM offsets WHERE timeCompleted = 0";
+    }
+
+    @Override
+    public OffsetBounty decode(ResultSet rs) throws SQLException {
+        return new OffsetBounty(rs);
+    }
+}
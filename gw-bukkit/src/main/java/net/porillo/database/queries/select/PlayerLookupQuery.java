@@ -0,0 +1,56 @@
+package net.porillo.database.queries.select;
+
+import lombok.Getter;
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.PlayerTable;
+import net.porillo.objects.GPlayer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Single-row player lookup, by UUID or by GW identifier
+ */
+public class PlayerLookupQuery extends SelectQuery<GPlayer, PlayerTable> {
+
+    private final String column;
+    private final Object value;
+
+    //The UUID or GW identifier looked up:
+    @Getter
+    private final Object key;
+
+    public PlayerLookupQuery(PlayerTable callback, UUID uuid) {
+        super("players", callback);
+        this.column = "uuid";
+        this.value = uuid.toString();
+        this.key = uuid;
+    }
+
+    public PlayerLookupQuery(PlayerTable callback, int uniqueId) {
+        super("players", callback);
+        this.column = "uniqueId";
+        this.value = uniqueId;
+        this.key = uniqueId;
+    }
+
+    @Override
+    public String getSQL() {
+        return String.format("SELECT * FROM players WHERE %s = ?", column);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
+        PreparedStatement preparedStatement = super.prepareStatement(connection);
+        preparedStatement.setObject(1, value);
+        return preparedStatement;
+    }
+
+    @Override
+    public GPlayer decode(ResultSet rs) throws SQLException {
+        return new GPlayer(rs);
+    }
+}
@@ -0,0 +1,25 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.PlayerTable;
+import net.porillo.objects.GPlayer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class PlayerSelectQuery extends SelectQuery<GPlayer, PlayerTable> {
+
+    public PlayerSelectQuery(PlayerTable callback) {
+        super("players", callback);
+    }
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM players";
+    }
+
+    @Override
+    public GPlayer decode(ResultSet rs) throws SQLException {
+        return new GPlayer(rs);
+    }
+}
@@ -0,0 +1,25 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.TreeTable;
+import net.porillo.objects.Tree;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class TreeSelectQuery extends SelectQuery<Tree, TreeTable> {
+
+    public TreeSelectQuery(TreeTable callback) {
+        super("trees", callback);
+    }
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM trees WHERE sapling = true";
+    }
+
+    @Override
+    public Tree decode(ResultSet rs) throws SQLException {
+        return new Tree(rs);
+    }
+}
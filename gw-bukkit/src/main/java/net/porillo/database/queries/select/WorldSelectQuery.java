@@ -0,0 +1,26 @@
+package net.porillo.database.queries.select;
+
+import net.porillo.database.api.SelectQuery;
+import net.porillo.database.tables.WorldTable;
+import net.porillo.objects.GWorld;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class WorldSelectQuery extends SelectQuery<GWorld, WorldTable> {
+
+    public WorldSelectQuery(WorldTable callback) {
+        super("worlds", callback);
+    }
+
+    @Override
+    public GWorld decode(ResultSet rs) throws SQLException {
+        return new GWorld(rs);
+    }
+
+
+    @Override
+    public String getSQL() {
+        return "SELECT * FROM worlds";
+    }
+}
@@ -3,7 +3,6 @@ package net.porillo.database.queries.update;
 import net.porillo.database.api.UpdateQuery;
 import net.porillo.objects.TrackedEntity;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -19,11 +18,14 @@ public class EntityUpdateQuery extends UpdateQuery<TrackedEntity> {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return getObject().getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setLong(1, getObject().getTicksLived());
         preparedStatement.setBoolean(2, getObject().isAlive());
         preparedStatement.setInt(3, getObject().getUniqueId());
-        return preparedStatement;
     }
 }
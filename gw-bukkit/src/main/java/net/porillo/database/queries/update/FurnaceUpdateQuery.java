@@ -3,7 +3,6 @@ package net.porillo.database.queries.update;
 import net.porillo.database.api.UpdateQuery;
 import net.porillo.objects.Furnace;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -19,10 +18,13 @@ public class FurnaceUpdateQuery extends UpdateQuery<Furnace> {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return getObject().getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setBoolean(1, getObject().isActive());
         preparedStatement.setInt(2, getObject().getUniqueId());
-        return preparedStatement;
     }
 }
@@ -3,7 +3,6 @@ package net.porillo.database.queries.update;
 import net.porillo.database.api.UpdateQuery;
 import net.porillo.objects.OffsetBounty;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -19,8 +18,12 @@ public class OffsetUpdateQuery extends UpdateQuery<OffsetBounty> {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return getObject().getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         if (getObject().getHunterId() == null) {
             preparedStatement.setObject(1, null);
         } else {
@@ -31,7 +34,5 @@ public class OffsetUpdateQuery extends UpdateQuery<OffsetBounty> {
         preparedStatement.setLong(3, getObject().getLogBlocksTarget());
         preparedStatement.setLong(4, getObject().getTimeCompleted());
         preparedStatement.setInt(5, getObject().getUniqueId());
-
-        return preparedStatement;
     }
 }
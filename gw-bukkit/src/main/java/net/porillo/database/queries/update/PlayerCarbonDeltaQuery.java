@@ -0,0 +1,20 @@
+package net.porillo.database.queries.update;
+
+import net.porillo.database.api.DeltaQuery;
+
+public class PlayerCarbonDeltaQuery extends DeltaQuery {
+
+    public PlayerCarbonDeltaQuery(int uniqueId, long delta) {
+        super("players", uniqueId, delta);
+    }
+
+    @Override
+    protected DeltaQuery withDelta(long delta) {
+        return new PlayerCarbonDeltaQuery(getUniqueId(), delta);
+    }
+
+    @Override
+    public String getSQL() {
+        return "UPDATE players SET carbonScore = carbonScore + ? WHERE uniqueId = ?";
+    }
+}
@@ -0,0 +1,44 @@
+package net.porillo.database.queries.update;
+
+import net.porillo.database.api.UpdateQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.GPlayer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class PlayerUpdateQuery extends UpdateQuery<GPlayer> {
+
+    public PlayerUpdateQuery(GPlayer gPlayer) {
+        super("players", gPlayer);
+
+    }
+
+    /**
+     * In delta mode the carbon score is only written by PlayerCarbonDeltaQuery
+     */
+    @Override
+    public String getSQL() {
+        if (AsyncDBQueue.getInstance().isDeltaMode()) {
+            return "UPDATE players SET worldId = ? WHERE uniqueId = ?";
+        }
+
+        return "UPDATE players SET carbonScore = ?, worldId = ? WHERE uniqueId = ?";
+    }
+
+    @Override
+    public Object getPrimaryKey() {
+        return getObject().getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+        int index = 1;
+        if (!AsyncDBQueue.getInstance().isDeltaMode()) {
+            preparedStatement.setInt(index++, getObject().getCarbonScore());
+        }
+
+        preparedStatement.setString(index++, getObject().getWorldId().toString());
+        preparedStatement.setInt(index, getObject().getUniqueId());
+    }
+}
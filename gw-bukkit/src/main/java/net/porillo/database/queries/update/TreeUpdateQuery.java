@@ -3,7 +3,6 @@ package net.porillo.database.queries.update;
 import net.porillo.database.api.UpdateQuery;
 import net.porillo.objects.Tree;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -19,11 +18,14 @@ public class TreeUpdateQuery extends UpdateQuery<Tree> {
     }
 
     @Override
-    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+    public Object getPrimaryKey() {
+        return getObject().getUniqueId();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
         preparedStatement.setBoolean(1, getObject().isSapling());
         preparedStatement.setInt(2, getObject().getSize());
         preparedStatement.setInt(3, getObject().getUniqueId());
-        return preparedStatement;
     }
 }
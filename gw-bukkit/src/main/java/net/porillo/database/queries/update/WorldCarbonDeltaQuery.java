@@ -0,0 +1,20 @@
+package net.porillo.database.queries.update;
+
+import net.porillo.database.api.DeltaQuery;
+
+public class WorldCarbonDeltaQuery extends DeltaQuery {
+
+    public WorldCarbonDeltaQuery(int uniqueId, long delta) {
+        super("worlds", uniqueId, delta);
+    }
+
+    @Override
+    protected DeltaQuery withDelta(long delta) {
+        return new WorldCarbonDeltaQuery(getUniqueId(), delta);
+    }
+
+    @Override
+    public String getSQL() {
+        return "UPDATE worlds SET carbonValue = carbonValue + ? WHERE uniqueId = ?";
+    }
+}
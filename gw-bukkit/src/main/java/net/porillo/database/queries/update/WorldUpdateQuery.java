@@ -0,0 +1,46 @@
+package net.porillo.database.queries.update;
+
+import lombok.ToString;
+import net.porillo.database.api.UpdateQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.GWorld;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+@ToString
+public class WorldUpdateQuery extends UpdateQuery<GWorld> {
+
+    public WorldUpdateQuery(GWorld world) {
+        super("worlds", world);
+    }
+
+    /**
+     * In delta mode the carbon value is only written by WorldCarbonDeltaQuery
+     */
+    @Override
+    public String getSQL() {
+        if (AsyncDBQueue.getInstance().isDeltaMode()) {
+            return "UPDATE worlds SET seaLevel = ?, size = ? WHERE uniqueId = ?";
+        }
+
+        return "UPDATE worlds SET carbonValue = ?, seaLevel = ?, size = ? WHERE uniqueId = ?";
+    }
+
+    @Override
+    public Object getPrimaryKey() {
+        return getObject().getUniqueID();
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+        int index = 1;
+        if (!AsyncDBQueue.getInstance().isDeltaMode()) {
+            preparedStatement.setInt(index++, getObject().getCarbonValue());
+        }
+
+        preparedStatement.setInt(index++, getObject().getSeaLevel());
+        preparedStatement.setInt(index++, getObject().getSize());
+        preparedStatement.setInt(index, getObject().getUniqueID());
+    }
+}
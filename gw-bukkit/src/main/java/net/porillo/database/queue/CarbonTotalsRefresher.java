@@ -0,0 +1,146 @@
+package net.porillo.database.queue;
+
+import net.porillo.GlobalWarming;
+import net.porillo.database.tables.PlayerTable;
+import net.porillo.engine.ClimateEngine;
+import net.porillo.objects.GPlayer;
+import net.porillo.objects.GWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta mode: re-reads carbon totals that other servers sharing the database may have changed
+ * <p>
+ * Totals are read off the main thread, while no flush is running, along
+ * with how much of each counter this server had flushed at that point.
+ * Back on the main thread, each world's carbon value and each online
+ * player's score is set to the stored total plus the changes this server
+ * queued since, so the in-memory values converge without losing writes.
+ */
+public class CarbonTotalsRefresher extends BukkitRunnable {
+
+    /**
+     * Main thread: pick the rows to refresh, then read them asynchronously
+     */
+    @Override
+    public void run() {
+        GlobalWarming gw = GlobalWarming.getInstance();
+        Map<Integer, GWorld> worlds = new HashMap<>();
+        for (GWorld gWorld : gw.getTableManager().getWorldTable().getWorlds()) {
+            worlds.put(gWorld.getUniqueID(), gWorld);
+        }
+
+        Map<Integer, GPlayer> players = new HashMap<>();
+        PlayerTable playerTable = gw.getTableManager().getPlayerTable();
+        for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
+            GPlayer gPlayer = playerTable.getPlayers().get(onlinePlayer.getUniqueId());
+            if (gPlayer != null) {
+                players.put(gPlayer.getUniqueId(), gPlayer);
+            }
+        }
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                refresh(worlds, players);
+            }
+        }.runTaskAsynchronously(gw);
+    }
+
+    /**
+     * Async: read the stored totals, then apply them on the main thread
+     */
+    private void refresh(Map<Integer, GWorld> worlds, Map<Integer, GPlayer> players) {
+        AsyncDBQueue queue = AsyncDBQueue.getInstance();
+        List<Total> worldTotals;
+        List<Total> playerTotals;
+        try (Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection()) {
+            synchronized (queue.getFlushLock()) {
+                worldTotals = readTotals(connection, "worlds", "carbonValue", "SELECT uniqueId, carbonValue FROM worlds");
+                playerTotals = players.isEmpty() ? new ArrayList<>() : readTotals(connection, "players", "carbonScore",
+                        String.format("SELECT uniqueId, carbonScore FROM players WHERE uniqueId IN (%s)",
+                                String.join(",", Collections.nCopies(players.size(), "?"))),
+                        players.keySet().toArray());
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (Total total : worldTotals) {
+                    GWorld gWorld = worlds.get(total.uniqueId);
+                    int carbonValue = (int) total.getValue(queue);
+                    if (gWorld != null && gWorld.getCarbonValue() != carbonValue) {
+                        gWorld.setCarbonValue(carbonValue);
+                        ClimateEngine.getInstance().updateCarbonValue(gWorld.getWorldId(), carbonValue);
+                    }
+                }
+
+                for (Total total : playerTotals) {
+                    GPlayer gPlayer = players.get(total.uniqueId);
+                    if (gPlayer != null) {
+                        gPlayer.setCarbonScore((int) total.getValue(queue));
+                    }
+                }
+            }
+        }.runTask(GlobalWarming.getInstance());
+    }
+
+    private List<Total> readTotals(Connection connection, String table, String column, String sql, Object... parameters) throws SQLException {
+        List<Total> totals = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            AsyncDBQueue queue = AsyncDBQueue.getInstance();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    int uniqueId = rs.getInt("uniqueId");
+                    totals.add(new Total(table, uniqueId, rs.getLong(column), queue.getFlushedDelta(table, uniqueId)));
+                }
+            }
+        }
+
+        return totals;
+    }
+
+    /**
+     * A stored total, and how much of it this server had flushed when it was read
+     */
+    private static class Total {
+
+        private final String table;
+        private final int uniqueId;
+        private final long stored;
+        private final long flushed;
+
+        private Total(String table, int uniqueId, long stored, long flushed) {
+            this.table = table;
+            this.uniqueId = uniqueId;
+            this.stored = stored;
+            this.flushed = flushed;
+        }
+
+        /**
+         * Main thread: the stored total plus this server's changes that it did not include
+         */
+        private long getValue(AsyncDBQueue queue) {
+            return stored + queue.getUnwrittenDelta(table, uniqueId, flushed);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package net.porillo.database.queue;
+
+import lombok.Getter;
+import net.porillo.GlobalWarming;
+import net.porillo.database.api.SelectQuery;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the queued select queries at startup without stalling the server
+ * <p>
+ * Rows are read through a driver cursor and decoded on an async thread,
+ * then handed to the main thread in bounded chunks. The main thread
+ * applies chunks until its per-tick time budget is spent, and the decoder
+ * blocks while the hand-off queue is full, so only a few chunks are ever
+ * held in memory regardless of table size.
+ * <p>
+ * Tables the startup logic depends on can be loaded immediately instead.
+ * Work that needs a streamed table, e.g., a listener looking up known
+ * furnaces, is deferred with whenReady() until the table has loaded.
+ */
+public class TableLoader {
+
+    private static final int MAX_PENDING_CHUNKS = 8;
+
+    private final int fetchSize;
+    private final int chunkSize;
+    private final long tickBudgetNanos;
+
+    private final BlockingQueue<Chunk<?>> chunks = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+    private final Set<String> readyTables = ConcurrentHashMap.newKeySet();
+    private final List<Deferred> deferred = new ArrayList<>();
+    private volatile boolean cancelled;
+    @Getter private volatile boolean complete;
+    private BukkitTask decoder, applier;
+
+    public TableLoader(int fetchSize, int chunkSize, long tickBudgetMillis) {
+        this.fetchSize = fetchSize;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickBudgetMillis));
+    }
+
+    /**
+     * Load the named tables right away, on the calling thread
+     * - Rows are still decoded in chunks, without building the full list
+     */
+    public void load(Connection connection, String... tables) {
+        List<String> names = Arrays.asList(tables);
+        Iterator<SelectQuery<?, ?>> iterator = AsyncDBQueue.getInstance().getSelectQueue().iterator();
+        while (iterator.hasNext()) {
+            SelectQuery<?, ?> query = iterator.next();
+            if (names.contains(query.getTable())) {
+                iterator.remove();
+                try {
+                    long started = System.currentTimeMillis();
+                    int rows = loadNow(query, connection);
+                    markReady(query.getTable(), rows, System.currentTimeMillis() - started);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream every remaining select query in the background
+     */
+    public void start() {
+        //Claim the queries now, so the periodic queue flush doesn't load them in one piece:
+        List<SelectQuery<?, ?>> queries = new ArrayList<>();
+        for (SelectQuery<?, ?> query = AsyncDBQueue.getInstance().getSelectQueue().poll(); query != null; query = AsyncDBQueue.getInstance().getSelectQueue().poll()) {
+            queries.add(query);
+        }
+
+        this.decoder = new BukkitRunnable() {
+            @Override
+            public void run() {
+                decode(queries);
+            }
+        }.runTaskAsynchronously(GlobalWarming.getInstance());
+
+        this.applier = new BukkitRunnable() {
+            @Override
+            public void run() {
+                apply();
+            }
+        }.runTaskTimer(GlobalWarming.getInstance(), 1L, 1L);
+    }
+
+    /**
+     * Stop loading, e.g., when the plugin is disabled mid-load
+     */
+    public void cancel() {
+        this.cancelled = true;
+        if (decoder != null) {
+            decoder.cancel();
+        }
+
+        if (applier != null) {
+            applier.cancel();
+        }
+
+        chunks.clear();
+        deferred.clear();
+    }
+
+    /**
+     * @return true once every row of the table has been applied
+     */
+    public boolean isReady(String table) {
+        return readyTables.contains(table);
+    }
+
+    /**
+     * Main thread: run the task once every named table is ready, right away if they are
+     * - Deferred tasks run in the order they were deferred
+     * - Runs right away when nothing is streaming, e.g., the database was unavailable at startup
+     */
+    public void whenReady(Runnable task, String... tables) {
+        if (applier == null || complete || readyTables.containsAll(Arrays.asList(tables))) {
+            task.run();
+        } else {
+            deferred.add(new Deferred(task, tables));
+        }
+    }
+
+    public Set<String> getReadyTables() {
+        return Collections.unmodifiableSet(readyTables);
+    }
+
+    /**
+     * Async: decode rows into chunks until every query has been read
+     */
+    private void decode(List<SelectQuery<?, ?>> queries) {
+        try (Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection()) {
+            for (SelectQuery<?, ?> query : queries) {
+                if (cancelled) {
+                    return;
+                }
+
+                try {
+                    decode(query, connection);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                } catch (LoadCancelledException e) {
+                    return;
+                }
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+
+        try {
+            hand(new Chunk<>(null, Collections.emptyList(), -1, 0L));
+        } catch (LoadCancelledException ignored) {
+            // Nothing is waiting for the end marker once cancelled
+        }
+    }
+
+    private <T> void decode(SelectQuery<T, ?> query, Connection connection) throws SQLException {
+        long started = System.currentTimeMillis();
+        int rows = query.stream(connection, fetchSize, chunkSize, chunk -> hand(new Chunk<>(query, chunk, 0, 0L)));
+        hand(new Chunk<>(query, Collections.emptyList(), rows, started));
+    }
+
+    /**
+     * Block the decoder until the main thread has room for the chunk
+     */
+    private void hand(Chunk<?> chunk) {
+        try {
+            while (!chunks.offer(chunk, 50L, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    throw new LoadCancelledException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadCancelledException();
+        }
+    }
+
+    /**
+     * Main thread: apply chunks until the tick budget is spent
+     */
+    private void apply() {
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        for (Chunk<?> chunk = chunks.poll(); chunk != null; chunk = chunks.poll()) {
+            if (chunk.query == null) {
+                this.complete = true;
+                applier.cancel();
+
+                //Tables that failed to load never become ready, don't hold their work forever:
+                runDeferred();
+                return;
+            } else if (chunk.rows.isEmpty()) {
+                chunk.query.getCallback().onSelectionReady(chunk.total);
+                markReady(chunk.query.getTable(), chunk.total, System.currentTimeMillis() - chunk.started);
+            } else {
+                chunk.apply();
+            }
+
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+    }
+
+    private <T> int loadNow(SelectQuery<T, ?> query, Connection connection) throws SQLException {
+        int rows = query.stream(connection, fetchSize, chunkSize, query.getCallback()::onSelectionChunk);
+        query.getCallback().onSelectionReady(rows);
+        return rows;
+    }
+
+    private void markReady(String table, int rows, long millis) {
+        readyTables.add(table);
+        GlobalWarming.getInstance().getLogger().info(String.format(
+                "Loaded [%s]: [%d] rows in [%d] ms", table, rows, millis));
+        runDeferred();
+    }
+
+    /**
+     * Main thread: run the deferred tasks whose tables are now ready, in order
+     */
+    private void runDeferred() {
+        List<Deferred> ready = new ArrayList<>();
+        for (Iterator<Deferred> iterator = deferred.iterator(); iterator.hasNext(); ) {
+            Deferred task = iterator.next();
+            if (complete || readyTables.containsAll(task.tables)) {
+                iterator.remove();
+                ready.add(task);
+            }
+        }
+
+        for (Deferred task : ready) {
+            try {
+                task.task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Rows of one table, or an end-of-table marker when rows is empty
+     */
+    private static class Chunk<T> {
+
+        private final SelectQuery<T, ?> query;
+        private final List<T> rows;
+        private final int total;
+        private final long started;
+
+        private Chunk(SelectQuery<T, ?> query, List<T> rows, int total, long started) {
+            this.query = query;
+            this.rows = rows;
+            this.total = total;
+            this.started = started;
+        }
+
+        private void apply() {
+            query.getCallback().onSelectionChunk(rows);
+        }
+    }
+
+    private static class Deferred {
+
+        private final Runnable task;
+        private final List<String> tables;
+
+        private Deferred(Runnable task, String[] tables) {
+            this.task = task;
+            this.tables = Arrays.asList(tables);
+        }
+    }
+
+    private static class LoadCancelledException extends RuntimeException {
+    }
+}
@@ -0,0 +1,26 @@
+package net.porillo.database.tables;
+
+import net.porillo.GlobalWarming;
+import net.porillo.database.queries.insert.ContributionInsertQuery;
+import net.porillo.database.queries.insert.ContributionRollupQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.Contribution;
+
+public class ContributionRollupTable extends Table {
+
+    public ContributionRollupTable() {
+        super("contribution_rollups");
+        createIfNotExists();
+    }
+
+    /**
+     * Add a contribution to its per-minute rollup
+     * - Raw per-event rows are only written in debug mode (database.rollups.raw-events)
+     */
+    public void record(Contribution contribution) {
+        AsyncDBQueue.getInstance().queueRollupQuery(new ContributionRollupQuery(contribution, System.currentTimeMillis()));
+        if (GlobalWarming.getInstance().getConf().isDatabaseRawEvents()) {
+            AsyncDBQueue.getInstance().queueInsertQuery(new ContributionInsertQuery(contribution));
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package net.porillo.database.tables;
 
 import lombok.Getter;
-import net.porillo.GlobalWarming;
 import net.porillo.database.api.SelectCallback;
 import net.porillo.database.queries.delete.EntityDeleteQuery;
 import net.porillo.database.queries.select.EntitySelectQuery;
 import net.porillo.database.queries.update.EntityUpdateQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.TrackedEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 
@@ -35,18 +33,9 @@ public class EntityTable extends Table implements SelectCallback<TrackedEntity>
     }
 
     @Override
-    public void onSelectionCompletion(List<TrackedEntity> returnList) {
-        if (GlobalWarming.getInstance() != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (TrackedEntity entity : returnList) {
-                        updateCollections(entity);
-                    }
-                }
-            }.runTask(GlobalWarming.getInstance());
-        } else {
-            System.out.printf("Selection returned %d furnaces.%n", returnList.size());
+    public void onSelectionChunk(List<TrackedEntity> chunk) {
+        for (TrackedEntity entity : chunk) {
+            updateCollections(entity);
         }
     }
 
@@ -7,9 +7,10 @@ import net.porillo.database.queries.select.FurnaceSelectQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.Furnace;
 import org.bukkit.Location;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class FurnaceTable extends TrackedBlockTable implements SelectCallback<Furnace> {
 
@@ -22,19 +23,15 @@ public class FurnaceTable extends TrackedBlockTable implements SelectCallback<Fu
     }
 
     @Override
-    public void onSelectionCompletion(List<Furnace> returnList) {
-        if (GlobalWarming.getInstance() != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (Furnace furnace : returnList) {
-                        updateCollections(furnace);
-                    }
-                }
-            }.runTask(GlobalWarming.getInstance());
-        } else {
-            System.out.printf("Selection returned %d furnaces.%n", returnList.size());
+    public void onSelectionChunk(List<Furnace> chunk) {
+        Set<Integer> owners = new HashSet<>();
+        for (Furnace furnace : chunk) {
+            updateCollections(furnace);
+            owners.add(furnace.getOwnerId());
         }
+
+        //Keep the owners of every furnace loaded, requested as their rows arrive:
+        GlobalWarming.getInstance().getTableManager().getPlayerTable().require(owners);
     }
 
     @Override
@@ -9,7 +9,6 @@ import net.porillo.database.queries.update.OffsetUpdateQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.GPlayer;
 import net.porillo.objects.OffsetBounty;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -178,17 +177,20 @@ public class OffsetTable extends Table implements SelectCallback<OffsetBounty> {
     }
 
     @Override
-    public void onSelectionCompletion(List<OffsetBounty> returnList) {
-        if (GlobalWarming.getInstance() != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    offsetList.addAll(returnList);
-                }
-            }.runTask(GlobalWarming.getInstance());
-        } else {
-            System.out.printf("Selection returned %d offsets.%n", returnList.size());
+    public void onSelectionChunk(List<OffsetBounty> chunk) {
+        offsetList.addAll(chunk);
+    }
+
+    @Override
+    public void onSelectionReady(int rows) {
+        //Keep the creators and hunters of active bounties loaded:
+        List<Integer> playerIds = new ArrayList<>();
+        for (OffsetBounty bounty : offsetList) {
+            playerIds.add(bounty.getCreatorId());
+            playerIds.add(bounty.getHunterId());
         }
+
+        GlobalWarming.getInstance().getTableManager().getPlayerTable().require(playerIds);
     }
 
     /**
@@ -0,0 +1,499 @@
+package net.porillo.database.tables;
+
+import lombok.Getter;
+import net.porillo.GlobalWarming;
+import net.porillo.database.TableManager;
+import net.porillo.database.api.SelectCallback;
+import net.porillo.database.queries.insert.PlayerInsertQuery;
+import net.porillo.database.queries.select.PlayerLookupQuery;
+import net.porillo.database.queries.select.PlayerSelectQuery;
+import net.porillo.database.queries.update.PlayerCarbonDeltaQuery;
+import net.porillo.database.queries.update.PlayerUpdateQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.GPlayer;
+import net.porillo.objects.OffsetBounty;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Players known to the plugin
+ * <p>
+ * By default every player is loaded at startup. In lazy mode, rows are
+ * loaded on demand instead: online players are loaded during pre-login,
+ * the untracked player at startup, and lookups that miss the cache queue
+ * an async load and return NULL until it lands; the main thread never
+ * waits on the database. Online players, the untracked player and owners of
+ * furnaces, trees or active bounties are pinned; everyone else is kept in a
+ * bounded LRU cache. Evicted players with pending writes are written
+ * back and held until a flush commits them, so a reload never races
+ * its own write. The cache maps are confined to the main thread; other
+ * threads, e.g., PlaceholderAPI, read a concurrent copy.
+ * <p>
+ * A lookup that fails is not a lookup that found nothing: online players
+ * whose lookup failed stay unresolved, and are only created once a retried
+ * lookup confirms they have no row.
+ */
+@Getter
+public class PlayerTable extends Table implements SelectCallback<GPlayer> {
+
+    private static final UUID untrackedUUID = UUID.fromString("1-1-1-1-1");
+
+    private Map<UUID, GPlayer> players;
+    private Map<Integer, UUID> uuidMap;
+
+    //Lazy mode:
+    private final boolean lazy;
+    private final int cacheSize;
+    private final Map<UUID, GPlayer> preloaded = new ConcurrentHashMap<>();
+    private final Set<UUID> unresolved = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Eviction> evicted = new HashMap<>();
+    private final Set<Object> requested = ConcurrentHashMap.newKeySet();
+    private final Queue<PlayerLookupQuery> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    public PlayerTable() {
+        super("players");
+        createIfNotExists();
+
+        GlobalWarming gw = GlobalWarming.getInstance();
+        this.lazy = gw != null && gw.getConf().isDatabasePlayersLazy();
+        this.cacheSize = gw == null ? 0 : Math.max(1, gw.getConf().getDatabasePlayersCacheSize());
+        if (lazy) {
+            this.players = new LoadingMap<>(this::onPlayerMiss);
+            this.uuidMap = new LoadingMap<>(this::onUniqueIdMiss);
+        } else {
+            this.players = new HashMap<>();
+            this.uuidMap = new HashMap<>();
+
+            PlayerSelectQuery selectQuery = new PlayerSelectQuery(this);
+            AsyncDBQueue.getInstance().queueSelectQuery(selectQuery);
+        }
+    }
+
+    /**
+     * Main thread: find the player's record, creating it for new players
+     *
+     * @return NULL for a NULL UUID, and in lazy mode for an offline player
+     * that is not cached, or an online player whose lookup failed: an async
+     * load is queued, attribute nothing until it lands
+     */
+    public GPlayer getOrCreatePlayer(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+
+        GPlayer gPlayer;
+        if (players.containsKey(uuid)) {
+            //Existing players:
+            gPlayer = players.get(uuid);
+        } else if (lazy && (gPlayer = findStoredPlayer(uuid)) != null) {
+            //Existing players, not cached:
+            cache(gPlayer);
+        } else if (lazy && !untrackedUUID.equals(uuid) && Bukkit.getPlayer(uuid) == null) {
+            //Offline players, not cached:
+            request(uuid, new PlayerLookupQuery(this, uuid));
+            return null;
+        } else if (lazy && unresolved.contains(uuid)) {
+            //Online players whose lookup failed, they may have a row:
+            request(uuid, new PlayerLookupQuery(this, uuid));
+            return null;
+        } else {
+            //New players:
+            // - Get the player's world when known
+            // - Note: the player record is NULL when using the untracked UUID
+            UUID worldId = null;
+            Player onlinePlayer = Bukkit.getPlayer(uuid);
+            if (onlinePlayer != null) {
+                worldId = onlinePlayer.getWorld().getUID();
+            }
+
+            //Or use the default world:
+            if (worldId == null) {
+                worldId = Bukkit.getWorlds().get(0).getUID();
+            }
+
+            //GW identifier:
+            Integer uniqueId =
+                    onlinePlayer == null
+                            ? 0
+                            : GlobalWarming.getInstance().getRandom().nextId();
+
+            //New player:
+            gPlayer = new GPlayer(
+                    uniqueId,
+                    uuid,
+                    System.currentTimeMillis(),
+                    0,
+                    worldId);
+
+            //Local storage:
+            cache(gPlayer);
+
+            //Database update:
+            PlayerInsertQuery insertQuery = new PlayerInsertQuery(gPlayer);
+            AsyncDBQueue.getInstance().queueInsertQuery(insertQuery);
+        }
+
+        return gPlayer;
+    }
+
+    /**
+     * Add to a player's carbon score and queue the database update
+     * - Delta mode adds the change to the stored score, which other servers may also be changing
+     */
+    public void updatePlayerCarbonScore(GPlayer gPlayer, int value) {
+        gPlayer.setCarbonScore(gPlayer.getCarbonScore() + value);
+        if (AsyncDBQueue.getInstance().isDeltaMode()) {
+            PlayerCarbonDeltaQuery deltaQuery = new PlayerCarbonDeltaQuery(gPlayer.getUniqueId(), value);
+            AsyncDBQueue.getInstance().queueDeltaQuery(deltaQuery);
+        } else {
+            PlayerUpdateQuery updateQuery = new PlayerUpdateQuery(gPlayer);
+            AsyncDBQueue.getInstance().queueUpdateQuery(updateQuery);
+        }
+    }
+
+    /**
+     * Async: load a player's row before they join
+     * - Called from the pre-login event, the row is claimed by getOrCreatePlayer on join
+     * - A failed lookup leaves the player unresolved, getOrCreatePlayer retries it
+     */
+    public void preload(UUID uuid) {
+        if (lazy) {
+            try {
+                GPlayer gPlayer = lookup(new PlayerLookupQuery(this, uuid));
+                unresolved.remove(uuid);
+                if (gPlayer != null) {
+                    preloaded.put(uuid, gPlayer);
+                }
+            } catch (SQLException | ClassNotFoundException e) {
+                unresolved.add(uuid);
+                GlobalWarming.getInstance().getLogger().warning(String.format(
+                        "Unable to load player %s, retrying after they join: %s", uuid, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Startup: load the players that are attributed to before they could be loaded on demand
+     * - The untracked player, and players already online, e.g., after a reload
+     * - Blocks, like the rest of the startup load
+     */
+    public void loadResident(Connection connection) throws SQLException {
+        if (!lazy) {
+            return;
+        }
+
+        List<UUID> resident = new ArrayList<>();
+        resident.add(untrackedUUID);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            resident.add(player.getUniqueId());
+        }
+
+        for (UUID uuid : resident) {
+            for (GPlayer gPlayer : new PlayerLookupQuery(this, uuid).queryDatabase(connection)) {
+                cache(gPlayer);
+            }
+        }
+    }
+
+    /**
+     * Queue async loads for players that must stay resident, e.g., furnace owners
+     */
+    public void require(Collection<Integer> uniqueIds) {
+        if (lazy) {
+            for (Integer uniqueId : uniqueIds) {
+                if (uniqueId != null && !uuidMap.containsKey(uniqueId)) {
+                    request(uniqueId, new PlayerLookupQuery(this, uniqueId));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onSelectionChunk(List<GPlayer> chunk) {
+        for (GPlayer gPlayer : chunk) {
+            if (!uuidMap.containsKey(gPlayer.getUniqueId())) {
+                uuidMap.put(gPlayer.getUniqueId(), gPlayer.getUuid());
+            }
+
+            if (!players.containsKey(gPlayer.getUuid())) {
+                players.put(gPlayer.getUuid(), gPlayer);
+            }
+        }
+    }
+
+    private void cache(GPlayer gPlayer) {
+        players.put(gPlayer.getUuid(), gPlayer);
+        uuidMap.put(gPlayer.getUniqueId(), gPlayer.getUuid());
+        requested.remove(gPlayer.getUuid());
+        requested.remove(gPlayer.getUniqueId());
+        unresolved.remove(gPlayer.getUuid());
+
+        //Evict in batches, down to the cache size:
+        if (lazy && players.size() > cacheSize + cacheSize / 4) {
+            evict();
+        }
+    }
+
+    /**
+     * Evict the least-recently-used players that are not pinned
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Set<Integer> pinned = getPinnedIds();
+        List<GPlayer> evictable = new ArrayList<>();
+        int excess = players.size() - cacheSize;
+        for (Iterator<GPlayer> iterator = players.values().iterator(); evictable.size() < excess && iterator.hasNext(); ) {
+            GPlayer gPlayer = iterator.next();
+            if (!pinned.contains(gPlayer.getUniqueId())
+                    && !untrackedUUID.equals(gPlayer.getUuid())
+                    && Bukkit.getPlayer(gPlayer.getUuid()) == null) {
+                evictable.add(gPlayer);
+            }
+        }
+
+        //Removed through the maps, so their concurrent copies follow:
+        for (GPlayer gPlayer : evictable) {
+            players.remove(gPlayer.getUuid());
+            uuidMap.remove(gPlayer.getUniqueId());
+            writeBack(gPlayer);
+            evicted.put(gPlayer.getUuid(), new Eviction(gPlayer, now));
+        }
+
+        //Forget evictions that a completed flush has written:
+        long flushed = AsyncDBQueue.getInstance().getLastFlushStarted();
+        evicted.values().removeIf(eviction -> eviction.time < flushed);
+        preloaded.keySet().removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+        unresolved.removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+    }
+
+    /**
+     * Re-queue a pending write with the evicted instance, so its latest state is flushed
+     */
+    private void writeBack(GPlayer gPlayer) {
+        AsyncDBQueue queue = AsyncDBQueue.getInstance();
+        PlayerUpdateQuery updateQuery = new PlayerUpdateQuery(gPlayer);
+        if (queue.getInsertQueue().contains(updateQuery) || queue.getUpdateQueue().contains(updateQuery)) {
+            queue.queueUpdateQuery(updateQuery);
+        }
+    }
+
+    /**
+     * @return owners of furnaces and trees, creators and hunters of active bounties
+     */
+    private Set<Integer> getPinnedIds() {
+        Set<Integer> pinned = new HashSet<>();
+        TableManager tableManager = GlobalWarming.getInstance().getTableManager();
+        if (tableManager != null) {
+            pinned.addAll(tableManager.getFurnaceTable().getPlayerMap().keySet());
+            pinned.addAll(tableManager.getTreeTable().getPlayerMap().keySet());
+            for (OffsetBounty bounty : tableManager.getOffsetTable().getOffsetList()) {
+                if (bounty.getTimeCompleted() == 0) {
+                    pinned.add(bounty.getCreatorId());
+                    pinned.add(bounty.getHunterId());
+                }
+            }
+        }
+
+        return pinned;
+    }
+
+    /**
+     * Main thread: find a stored player that is not cached, without querying the database
+     * - Recently evicted players, and online players loaded during pre-login
+     */
+    private GPlayer findStoredPlayer(UUID uuid) {
+        Eviction eviction = evicted.remove(uuid);
+        if (eviction != null) {
+            return eviction.gPlayer;
+        }
+
+        return preloaded.remove(uuid);
+    }
+
+    private GPlayer onPlayerMiss(Object key) {
+        if (!(key instanceof UUID)) {
+            return null;
+        }
+
+        Eviction eviction = evicted.remove(key);
+        if (eviction != null) {
+            cache(eviction.gPlayer);
+            return eviction.gPlayer;
+        }
+
+        request(key, new PlayerLookupQuery(this, (UUID) key));
+        return null;
+    }
+
+    private UUID onUniqueIdMiss(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+
+        for (Eviction eviction : evicted.values()) {
+            if (key.equals(eviction.gPlayer.getUniqueId())) {
+                evicted.remove(eviction.gPlayer.getUuid());
+                cache(eviction.gPlayer);
+                return eviction.gPlayer.getUuid();
+            }
+        }
+
+        request(key, new PlayerLookupQuery(this, (Integer) key));
+        return null;
+    }
+
+    /**
+     * Queue an async load
+     * - Each key is requested once until it is cached, keys that are not found are not retried
+     * - Keys whose lookup failed are released, so the next miss requests them again
+     */
+    private void request(Object key, PlayerLookupQuery query) {
+        if (GlobalWarming.getInstance() == null || !requested.add(key)) {
+            return;
+        }
+
+        requests.offer(query);
+        if (loading.compareAndSet(false, true)) {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    drainRequests();
+                }
+            }.runTaskAsynchronously(GlobalWarming.getInstance());
+        }
+    }
+
+    /**
+     * Async: load every queued request over one connection, then cache the rows on the main thread
+     * - UUIDs confirmed to have no row are resolved, so online players among them are created
+     */
+    private void drainRequests() {
+        do {
+            List<GPlayer> loaded = new ArrayList<>();
+            List<UUID> missing = new ArrayList<>();
+            PlayerLookupQuery query = null;
+            try (Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection()) {
+                for (query = requests.poll(); query != null; query = requests.poll()) {
+                    List<GPlayer> rows = query.queryDatabase(connection);
+                    if (rows.isEmpty() && query.getKey() instanceof UUID) {
+                        missing.add((UUID) query.getKey());
+                    }
+
+                    loaded.addAll(rows);
+                }
+            } catch (SQLException | ClassNotFoundException e) {
+                //Release the failed request and the rest of the queue:
+                // - The database is likely unavailable, the next miss retries them
+                int failed = 0;
+                for (query = query != null ? query : requests.poll(); query != null; query = requests.poll()) {
+                    requested.remove(query.getKey());
+                    failed++;
+                }
+
+                GlobalWarming.getInstance().getLogger().warning(String.format(
+                        "Unable to load %d player(s), retrying on the next lookup: %s", failed, e.getMessage()));
+            }
+
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    for (GPlayer gPlayer : loaded) {
+                        if (!players.containsKey(gPlayer.getUuid()) && !evicted.containsKey(gPlayer.getUuid())) {
+                            cache(gPlayer);
+                        }
+                    }
+
+                    unresolved.removeAll(missing);
+                }
+            }.runTask(GlobalWarming.getInstance());
+
+            loading.set(false);
+        } while (!requests.isEmpty() && loading.compareAndSet(false, true));
+    }
+
+    /**
+     * @return the player's row, NULL when there is none
+     * @throws SQLException when the lookup failed, which says nothing about the row
+     */
+    private GPlayer lookup(PlayerLookupQuery query) throws SQLException, ClassNotFoundException {
+        try (Connection connection = GlobalWarming.getInstance().getConnectionManager().openConnection()) {
+            List<GPlayer> rows = query.queryDatabase(connection);
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+    }
+
+    private static class Eviction {
+
+        private final GPlayer gPlayer;
+        private final long time;
+
+        private Eviction(GPlayer gPlayer, long time) {
+            this.gPlayer = gPlayer;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Access-ordered map that asks a loader for values it does not hold
+     * - Access order makes get() a write, so the map itself is main thread only
+     * - Other threads read a concurrent copy, which never loads; remove entries
+     * with remove(), not through the views, to keep the copy in step
+     */
+    private static class LoadingMap<K, V> extends LinkedHashMap<K, V> {
+
+        private final transient Function<Object, V> loader;
+        private final transient Map<Object, V> concurrent = new ConcurrentHashMap<>();
+
+        private LoadingMap(Function<Object, V> loader) {
+            super(16, 0.75f, true);
+            this.loader = loader;
+        }
+
+        @Override
+        public V get(Object key) {
+            if (!Bukkit.isPrimaryThread()) {
+                return key == null ? null : concurrent.get(key);
+            }
+
+            V value = super.get(key);
+            return value != null || key == null ? value : loader.apply(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (!Bukkit.isPrimaryThread()) {
+                return key != null && concurrent.containsKey(key);
+            }
+
+            return super.containsKey(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (key != null && value != null) {
+                concurrent.put(key, value);
+            }
+
+            return super.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            if (key != null) {
+                concurrent.remove(key);
+            }
+
+            return super.remove(key);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package net.porillo.database.tables;
+
+import net.porillo.GlobalWarming;
+import net.porillo.database.queries.insert.ReductionInsertQuery;
+import net.porillo.database.queries.insert.ReductionRollupQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.objects.Reduction;
+
+public class ReductionRollupTable extends Table {
+
+    public ReductionRollupTable() {
+        super("reduction_rollups");
+        createIfNotExists();
+    }
+
+    /**
+     * Add a reduction to its per-minute rollup
+     * - Raw per-event rows are only written in debug mode (database.rollups.raw-events)
+     */
+    public void record(Reduction reduction) {
+        AsyncDBQueue.getInstance().queueRollupQuery(new ReductionRollupQuery(reduction, System.currentTimeMillis()));
+        if (GlobalWarming.getInstance().getConf().isDatabaseRawEvents()) {
+            AsyncDBQueue.getInstance().queueInsertQuery(new ReductionInsertQuery(reduction));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package net.porillo.database.tables;
+
+import net.porillo.database.queries.other.SchemaMigrationQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks which schema migrations have been applied
+ * - Constructed after every other table, so migrations run against existing tables
+ */
+public class SchemaVersionTable extends Table {
+
+    //Every migration, in the order it must be applied:
+    // - Never edit a released migration, add a new version instead
+    // - One statement per migration: MySQL commits DDL implicitly, so a migration
+    //   that failed after its first statement could never be retried
+    // - Raw contributions / reductions are debug-only, history is read from the rollups,
+    //   whose primary keys already lead with the player
+    private static final List<SchemaMigrationQuery> MIGRATIONS = Arrays.asList(
+            new SchemaMigrationQuery(1, "contribution_rollups_world_index"),
+            new SchemaMigrationQuery(2, "reduction_rollups_world_index"),
+            new SchemaMigrationQuery(3, "offsets_hunter_index"),
+            new SchemaMigrationQuery(4, "offsets_creator_index"),
+            new SchemaMigrationQuery(5, "furnaces_location_index"),
+            new SchemaMigrationQuery(6, "trees_location_index"));
+
+    public SchemaVersionTable() {
+        super("schema_version");
+        createIfNotExists();
+
+        for (SchemaMigrationQuery migration : MIGRATIONS) {
+            AsyncDBQueue.getInstance().queueCreateQuery(migration);
+        }
+    }
+
+    public static List<SchemaMigrationQuery> getMigrations() {
+        return MIGRATIONS;
+    }
+}
@@ -7,9 +7,10 @@ import net.porillo.database.queries.select.TreeSelectQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.objects.Tree;
 import org.bukkit.Location;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class TreeTable extends TrackedBlockTable implements SelectCallback<Tree> {
     public TreeTable() {
@@ -20,19 +21,15 @@ public class TreeTable extends TrackedBlockTable implements SelectCallback<Tree>
     }
 
     @Override
-    public void onSelectionCompletion(List<Tree> returnList) {
-        if (GlobalWarming.getInstance() != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (Tree tree : returnList) {
-                        updateCollections(tree);
-                    }
-                }
-            }.runTask(GlobalWarming.getInstance());
-        } else {
-            System.out.printf("Selection returned %d trees%n", returnList.size());
+    public void onSelectionChunk(List<Tree> chunk) {
+        Set<Integer> owners = new HashSet<>();
+        for (Tree tree : chunk) {
+            updateCollections(tree);
+            owners.add(tree.getOwnerId());
         }
+
+        //Keep the planters of every tree loaded, like furnace owners:
+        GlobalWarming.getInstance().getTableManager().getPlayerTable().require(owners);
     }
 
     @Override
@@ -5,11 +5,13 @@ import net.porillo.config.WorldConfig;
 import net.porillo.database.api.SelectCallback;
 import net.porillo.database.queries.insert.WorldInsertQuery;
 import net.porillo.database.queries.select.WorldSelectQuery;
+import net.porillo.database.queries.update.WorldCarbonDeltaQuery;
 import net.porillo.database.queries.update.WorldUpdateQuery;
 import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.engine.ClimateEngine;
 import net.porillo.objects.GWorld;
-import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,13 +37,18 @@ public class WorldTable extends Table implements SelectCallback<GWorld> {
         return insertNewWorld(worldId);
     }
 
+    public Collection<GWorld> getWorlds() {
+        return worldMap.values();
+    }
+
     private void updateWorld(GWorld gWorld) {
         worldMap.put(gWorld.getWorldId(), gWorld);
+        ClimateEngine.getInstance().updateCarbonValue(gWorld.getWorldId(), gWorld.getCarbonValue());
     }
 
     public GWorld insertNewWorld(UUID worldId) {
         GWorld gWorld = new GWorld();
-        gWorld.setUniqueID(GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE));
+        gWorld.setUniqueID(GlobalWarming.getInstance().getRandom().nextId());
         gWorld.setWorldId(worldId);
         gWorld.setFirstSeen(System.currentTimeMillis());
         gWorld.setCarbonValue(0);
@@ -64,26 +71,24 @@ public class WorldTable extends Table implements SelectCallback<GWorld> {
         if (affectedWorld != null) {
             int carbon = affectedWorld.getCarbonValue();
             affectedWorld.setCarbonValue(carbon + value);
+            ClimateEngine.getInstance().updateCarbonValue(worldId, affectedWorld.getCarbonValue());
 
             //Queue an update to the world table:
-            WorldUpdateQuery worldUpdateQuery = new WorldUpdateQuery(affectedWorld);
-            AsyncDBQueue.getInstance().queueUpdateQuery(worldUpdateQuery);
+            // - Delta mode adds the change to the stored value, which other servers may also be changing
+            if (AsyncDBQueue.getInstance().isDeltaMode()) {
+                WorldCarbonDeltaQuery deltaQuery = new WorldCarbonDeltaQuery(affectedWorld.getUniqueID(), value);
+                AsyncDBQueue.getInstance().queueDeltaQuery(deltaQuery);
+            } else {
+                WorldUpdateQuery worldUpdateQuery = new WorldUpdateQuery(affectedWorld);
+                AsyncDBQueue.getInstance().queueUpdateQuery(worldUpdateQuery);
+            }
         }
     }
 
     @Override
-    public void onSelectionCompletion(List<GWorld> returnList) {
-        if (GlobalWarming.getInstance() != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (GWorld world : returnList) {
-                        updateWorld(world);
-                    }
-                }
-            }.runTask(GlobalWarming.getInstance());
-        } else {
-            System.out.printf("Selection returned %d worlds.%n", returnList.size());
+    public void onSelectionChunk(List<GWorld> chunk) {
+        for (GWorld world : chunk) {
+            updateWorld(world);
         }
     }
 }
@@ -14,6 +14,7 @@ import net.porillo.effect.negative.formation.SnowForm;
 import net.porillo.effect.neutral.FarmYield;
 import net.porillo.effect.neutral.MobSpawningRate;
 import net.porillo.effect.neutral.Weather;
+import net.porillo.engine.ClimateEngine;
 import org.bukkit.Bukkit;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
@@ -73,6 +74,9 @@ public class EffectEngine {
                 effect.onPluginEnable();
             }
         }
+
+        //Climate states hold values computed from the effect models:
+        ClimateEngine.getInstance().invalidateClimateStates();
     }
 
     public void unloadEffects() {
@@ -99,6 +103,7 @@ public class EffectEngine {
 
         effectClasses.remove(effectType);
         effects.remove(effectType);
+        ClimateEngine.getInstance().invalidateClimateStates();
     }
 
     public <T extends ClimateEffect> T getEffect(Class<T> clazz, ClimateEffectType effectType) {
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
 import net.porillo.GlobalWarming;
+import net.porillo.RandomService.Stream;
 import net.porillo.effect.ClimateData;
 import net.porillo.effect.api.ClimateEffectType;
 import net.porillo.effect.api.ScheduleClimateEffect;
@@ -18,6 +19,8 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.event.Listener;
 
+import java.util.SplittableRandom;
+
 @ClimateData(type = ClimateEffectType.FIRE)
 public class Fire extends ScheduleClimateEffect implements Listener {
 
@@ -30,11 +33,12 @@ public class Fire extends ScheduleClimateEffect implements Listener {
     private void setFire(World world, int blocks) {
         if (world != null) {
             int count = world.getLoadedChunks().length;
+            SplittableRandom random = GlobalWarming.getInstance().getRandom().get(Stream.FIRE);
             for (int i = 0; i < blocks; i++) {
-                int chunkIndex = GlobalWarming.getInstance().getRandom().nextInt(count);
+                int chunkIndex = random.nextInt(count);
                 Chunk chunk = world.getLoadedChunks()[chunkIndex];
-                int x = (chunk.getX() * BLOCKS_PER_CHUNK) + GlobalWarming.getInstance().getRandom().nextInt(BLOCKS_PER_CHUNK);
-                int z = (chunk.getZ() * BLOCKS_PER_CHUNK) + GlobalWarming.getInstance().getRandom().nextInt(BLOCKS_PER_CHUNK);
+                int x = (chunk.getX() * BLOCKS_PER_CHUNK) + random.nextInt(BLOCKS_PER_CHUNK);
+                int z = (chunk.getZ() * BLOCKS_PER_CHUNK) + random.nextInt(BLOCKS_PER_CHUNK);
                 Block topBlock = world.getHighestBlockAt(x, z);
                 topBlock.getRelative(BlockFace.UP).setType(Material.FIRE);
             }
@@ -50,7 +54,7 @@ public class Fire extends ScheduleClimateEffect implements Listener {
             WorldClimateEngine climateEngine = ClimateEngine.getInstance().getClimateEngine(world.getUID());
             if (climateEngine != null &&
                     climateEngine.isEffectEnabled(ClimateEffectType.FIRE)) {
-                double random = GlobalWarming.getInstance().getRandom().nextDouble();
+                double random = GlobalWarming.getInstance().getRandom().get(Stream.FIRE).nextDouble();
                 double chance = fireMap.getValue(climateEngine.getTemperature());
                 if (random <= chance / 100.f) {
                     int blocks = (int) fireMap.getBlocks(climateEngine.getTemperature());
@@ -0,0 +1,413 @@
+package net.porillo.effect.negative;
+
+import lombok.Getter;
+import net.porillo.GlobalWarming;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import static net.porillo.effect.storage.ChunkRegionData.chunkKey;
+import static net.porillo.effect.storage.ChunkRegionData.chunkX;
+import static net.porillo.effect.storage.ChunkRegionData.chunkZ;
+
+/**
+ * Sea level each chunk of one world last converged to, and the loaded chunks still to be scanned
+ * - One short per chunk, 32x32 chunks per file: effects/[world]/seaLevelChunks/r.[x].[z].dat
+ * - A region is read when its first chunk loads, written and released when its last chunk unloads
+ * - Region reads and writes run on the I/O executor, a read is merged on the main executor
+ * - effects/[world]/seaLevelChunks.dat holds the repair mode and an epoch, region files
+ * of an older epoch read as not converged
+ * - Chunks are queued as they load and when the sea level changes, never by polling the loaded chunks,
+ * so a converged chunk is not scanned again, even after a restart
+ * - Main thread only
+ */
+class SeaLevelChunks {
+
+    static final String FILE_NAME = "seaLevelChunks.dat";
+    static final String REGION_DIRECTORY = "seaLevelChunks";
+
+    private static final int MAGIC = 0x4757534C;
+    private static final int VERSION = 2;
+    private static final int REGION_MAGIC = 0x47575352;
+    private static final int CHUNKS = 32 * 32;
+    private static final short UNKNOWN = Short.MIN_VALUE;
+
+    private final Path path;
+    private final Path directory;
+    private final Executor io;
+    private final Executor main;
+    private final Map<Long, Region> regions = new HashMap<>();
+    @Getter private final Set<Long> pending = new LinkedHashSet<>();
+    @Getter private int seaLevel = Integer.MIN_VALUE;
+    private boolean isOverride;
+    private int epoch;
+
+    SeaLevelChunks(String worldId, Executor io, Executor main) {
+        this(GlobalWarming.getInstance().getDataFolder().toPath().resolve("effects").resolve(worldId).resolve(FILE_NAME),
+                io, main);
+    }
+
+    SeaLevelChunks(Path path) {
+        this(path, Runnable::run, Runnable::run);
+    }
+
+    SeaLevelChunks(Path path, Executor io, Executor main) {
+        this.path = path;
+        this.directory = path.resolveSibling(REGION_DIRECTORY);
+        this.io = io;
+        this.main = main;
+    }
+
+    /**
+     * Track the world's sea level
+     * - Starting or stopping a repair forgets every converged chunk, as the rules differ
+     *
+     * @return true if it changed since the last call: queue the loaded chunks again
+     */
+    boolean update(int seaLevel, boolean isOverride) {
+        if (isOverride != this.isOverride) {
+            this.isOverride = isOverride;
+            epoch++;
+            for (Region region : regions.values()) {
+                Arrays.fill(region.levels, UNKNOWN);
+            }
+
+            saveState();
+        } else if (seaLevel == this.seaLevel) {
+            return false;
+        }
+
+        this.seaLevel = seaLevel;
+        pending.clear();
+        return true;
+    }
+
+    /**
+     * A chunk loaded: read its region unless it is already held, and queue the chunk
+     */
+    void load(int chunkX, int chunkZ) {
+        Region region = region(chunkX, chunkZ);
+        int index = index(chunkX, chunkZ);
+        region.loaded[index >> 6] |= 1L << index;
+        queue(chunkX, chunkZ);
+    }
+
+    /**
+     * A chunk unloaded: unqueue it, and write and release its region if it was the last loaded
+     */
+    void unload(int chunkX, int chunkZ) {
+        unqueue(chunkX, chunkZ);
+        long regionKey = chunkKey(chunkX >> 5, chunkZ >> 5);
+        Region region = regions.get(regionKey);
+        if (region == null) {
+            return;
+        }
+
+        int index = index(chunkX, chunkZ);
+        region.loaded[index >> 6] &= ~(1L << index);
+        if (!region.isLoaded()) {
+            write(chunkX >> 5, chunkZ >> 5, region);
+            regions.remove(regionKey);
+        }
+    }
+
+    /**
+     * Queue a loaded chunk, unless it already converged to the sea level
+     */
+    void queue(int chunkX, int chunkZ) {
+        if (!isConverged(chunkX, chunkZ, seaLevel)) {
+            pending.add(chunkKey(chunkX, chunkZ));
+        }
+    }
+
+    void unqueue(int chunkX, int chunkZ) {
+        pending.remove(chunkKey(chunkX, chunkZ));
+    }
+
+    boolean isConverged(int chunkX, int chunkZ, int seaLevel) {
+        short level = region(chunkX, chunkZ).levels[index(chunkX, chunkZ)];
+        return level != UNKNOWN && level == seaLevel;
+    }
+
+    /**
+     * Record the sea level a chunk's changes were applied for
+     */
+    void converge(int chunkX, int chunkZ, int seaLevel) {
+        Region region = region(chunkX, chunkZ);
+        int index = index(chunkX, chunkZ);
+        if (region.levels[index] != (short) seaLevel) {
+            region.levels[index] = (short) seaLevel;
+            region.dirty = true;
+        }
+    }
+
+    /**
+     * @return the number of regions held in memory
+     */
+    int size() {
+        return regions.size();
+    }
+
+    /**
+     * Read the repair mode and epoch, moving a version 1 file's chunks into region files
+     */
+    void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version == 1) {
+                isOverride = in.readBoolean();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long key = in.readLong();
+                    converge(chunkX(key), chunkZ(key), in.readInt());
+                }
+
+                save();
+                saveState();
+            } else if (version == VERSION) {
+                isOverride = in.readBoolean();
+                epoch = in.readInt();
+            } else {
+                throw new IOException(String.format("Unsupported file: [%s]", path));
+            }
+        } catch (IOException e) {
+            //Without the epoch, no region file can be trusted:
+            regions.clear();
+            deleteRegions();
+            saveState();
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to read [%s], all chunks will be scanned: %s", FILE_NAME, e));
+        }
+    }
+
+    /**
+     * Queue the changed regions' writes, and release those without loaded chunks
+     *
+     * @return the number of regions queued, 0 if nothing changed
+     */
+    int save() {
+        int saved = 0;
+        for (Iterator<Map.Entry<Long, Region>> it = regions.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Region> entry = it.next();
+            Region region = entry.getValue();
+            if (write(chunkX(entry.getKey()), chunkZ(entry.getKey()), region)) {
+                saved++;
+            }
+
+            if (!region.isLoaded()) {
+                it.remove();
+            }
+        }
+
+        return saved;
+    }
+
+    /**
+     * @return the region's levels, with its read queued if it is not held: not converged until it is merged
+     */
+    private Region region(int chunkX, int chunkZ) {
+        final int regionX = chunkX >> 5;
+        final int regionZ = chunkZ >> 5;
+        long regionKey = chunkKey(regionX, regionZ);
+        Region region = regions.get(regionKey);
+        if (region == null) {
+            Region loading = region = new Region();
+            final int readEpoch = epoch;
+            regions.put(regionKey, loading);
+            io.execute(() -> {
+                short[] levels = read(regionX, regionZ, readEpoch);
+                main.execute(() -> merge(regionX, regionZ, loading, levels, readEpoch));
+            });
+        }
+
+        return region;
+    }
+
+    /**
+     * Main executor: fill in the levels read for a region, keeping those converged while it was loading
+     * - Loaded chunks that turn out converged are unqueued
+     */
+    private void merge(int regionX, int regionZ, Region region, short[] levels, int readEpoch) {
+        region.loading = false;
+        if (levels == null || readEpoch != epoch) {
+            return;
+        }
+
+        for (int i = 0; i < CHUNKS; i++) {
+            if (region.levels[i] == UNKNOWN) {
+                region.levels[i] = levels[i];
+            }
+
+            if ((region.loaded[i >> 6] & (1L << i)) != 0 && region.levels[i] == seaLevel) {
+                pending.remove(chunkKey((regionX << 5) + (i & 31), (regionZ << 5) + (i >> 5)));
+            }
+        }
+    }
+
+    /**
+     * I/O executor: the region's levels, NULL if it has none of the given epoch
+     */
+    private short[] read(int regionX, int regionZ, int readEpoch) {
+        Path file = regionFile(regionX, regionZ);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != REGION_MAGIC) {
+                throw new IOException(String.format("Unsupported region file: [%s]", file));
+            }
+
+            //Written before a repair started or stopped:
+            if (in.readInt() != readEpoch) {
+                return null;
+            }
+
+            short[] levels = new short[CHUNKS];
+            for (int i = 0; i < CHUNKS; i++) {
+                levels[i] = in.readShort();
+            }
+
+            return levels;
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to read [%s], its chunks will be scanned: %s", file.getFileName(), e));
+            return null;
+        }
+    }
+
+    /**
+     * Queue the region's write if it changed
+     * - A region still loading is merged with its file on the I/O executor, after its read
+     */
+    private boolean write(int regionX, int regionZ, Region region) {
+        if (!region.dirty) {
+            return false;
+        }
+
+        region.dirty = false;
+        final short[] levels = region.levels.clone();
+        final boolean loading = region.loading;
+        final int writeEpoch = epoch;
+        io.execute(() -> {
+            short[] stored = loading ? read(regionX, regionZ, writeEpoch) : null;
+            for (int i = 0; stored != null && i < CHUNKS; i++) {
+                if (levels[i] == UNKNOWN) {
+                    levels[i] = stored[i];
+                }
+            }
+
+            write(regionX, regionZ, levels, writeEpoch);
+        });
+
+        return true;
+    }
+
+    /**
+     * I/O executor: replace the region's file
+     */
+    private void write(int regionX, int regionZ, short[] levels, int writeEpoch) {
+        Path file = regionFile(regionX, regionZ);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(REGION_MAGIC);
+                out.writeInt(writeEpoch);
+                for (short level : levels) {
+                    out.writeShort(level);
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to write [%s]: %s", file.getFileName(), e));
+        }
+    }
+
+    /**
+     * Queue the write of the repair mode and epoch
+     */
+    private void saveState() {
+        final boolean isOverride = this.isOverride;
+        final int epoch = this.epoch;
+        io.execute(() -> writeState(isOverride, epoch));
+    }
+
+    /**
+     * I/O executor: replace the world's file
+     */
+    private void writeState(boolean isOverride, int epoch) {
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeBoolean(isOverride);
+                out.writeInt(epoch);
+            }
+
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to write [%s]: %s", FILE_NAME, e));
+        }
+    }
+
+    private void deleteRegions() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to delete [%s]: %s", REGION_DIRECTORY, e));
+        }
+    }
+
+    private Path regionFile(int regionX, int regionZ) {
+        return directory.resolve(String.format("r.%d.%d.dat", regionX, regionZ));
+    }
+
+    private static int index(int chunkX, int chunkZ) {
+        return (chunkX & 31) + (chunkZ & 31) * 32;
+    }
+
+    /**
+     * Converged sea levels of 32x32 chunks, and which of them are loaded
+     */
+    private static final class Region {
+
+        private final short[] levels = new short[CHUNKS];
+        private final long[] loaded = new long[CHUNKS / 64];
+        private boolean dirty;
+        private boolean loading = true;
+
+        private Region() {
+            Arrays.fill(levels, UNKNOWN);
+        }
+
+        private boolean isLoaded() {
+            for (long word : loaded) {
+                if (word != 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
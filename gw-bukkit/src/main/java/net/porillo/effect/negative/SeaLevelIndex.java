@@ -0,0 +1,331 @@
+package net.porillo.effect.negative;
+
+import net.porillo.GlobalWarming;
+import net.porillo.effect.storage.ChunkRegionData;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static net.porillo.effect.storage.ChunkRegionData.chunkKey;
+
+/**
+ * Index of one world's tagged sea-level blocks
+ * - One sparse bitset per loaded chunk, keyed by the packed chunk coordinates
+ * - A chunk's bitset holds a 256-bit layer per y, allocated on the first tag in that layer
+ * - isTagged() is O(1), without Bukkit's string-keyed metadata store
+ * - A chunk's bits are read when it loads, written back if they changed, and released when it unloads
+ * - Reads and writes run on the I/O executor, the region data is confined to it; a read is merged
+ * into the chunk's bits on the main executor, keeping the tags changed while it was loading
+ * - Main thread only, planners get a copy of a chunk's bits, see copy()
+ */
+class SeaLevelIndex {
+
+    static final String FILE_NAME = "seaLevelBlocks";
+
+    private final ChunkRegionData data;
+    private final int maxHeight;
+    private final Executor io;
+    private final Executor main;
+    private final Map<Long, ChunkBits> chunks = new HashMap<>();
+
+    SeaLevelIndex(String worldId, int maxHeight, Executor io, Executor main) {
+        this(new ChunkRegionData(worldId, FILE_NAME), maxHeight, io, main);
+    }
+
+    SeaLevelIndex(ChunkRegionData data, int maxHeight) {
+        this(data, maxHeight, Runnable::run, Runnable::run);
+    }
+
+    SeaLevelIndex(ChunkRegionData data, int maxHeight, Executor io, Executor main) {
+        this.data = data;
+        this.maxHeight = maxHeight;
+        this.io = io;
+        this.main = main;
+    }
+
+    /**
+     * Read the chunk's tagged blocks, unless they are already indexed
+     */
+    void load(int chunkX, int chunkZ) {
+        chunk(chunkX, chunkZ);
+    }
+
+    /**
+     * @return true while the chunk's read has not been merged, its tags are incomplete
+     */
+    boolean isLoading(int chunkX, int chunkZ) {
+        ChunkBits bits = chunks.get(chunkKey(chunkX, chunkZ));
+        return bits != null && bits.removed != null;
+    }
+
+    boolean isTagged(int x, int y, int z) {
+        ChunkBits bits = chunks.get(chunkKey(x >> 4, z >> 4));
+        return bits != null && y >= 0 && y < maxHeight && bits.get(x & 0xF, y, z & 0xF);
+    }
+
+    void tag(int x, int y, int z) {
+        if (y >= 0 && y < maxHeight) {
+            chunk(x >> 4, z >> 4).set(x & 0xF, y, z & 0xF);
+        }
+    }
+
+    void untag(int x, int y, int z) {
+        ChunkBits bits = chunks.get(chunkKey(x >> 4, z >> 4));
+        if (bits != null && y >= 0 && y < maxHeight) {
+            bits.clear(x & 0xF, y, z & 0xF);
+        }
+    }
+
+    /**
+     * @return a copy of an indexed chunk's tagged blocks, safe to read off the main thread, or NULL if not indexed
+     */
+    ChunkBits copy(int chunkX, int chunkZ) {
+        ChunkBits bits = chunks.get(chunkKey(chunkX, chunkZ));
+        return bits == null ? null : bits.copy();
+    }
+
+    /**
+     * Add blocks to a chunk's record on disk without indexing it, e.g., when migrating
+     * - Reads and writes on the calling thread, before any chunk is loaded
+     */
+    void merge(int chunkX, int chunkZ, Set<Integer> blocks) throws IOException {
+        Set<Integer> merged = new HashSet<>(blocks);
+        for (int block : data.read(chunkX, chunkZ)) {
+            merged.add(block);
+        }
+
+        int[] record = new int[merged.size()];
+        int i = 0;
+        for (int block : merged) {
+            record[i++] = block;
+        }
+
+        data.write(chunkX, chunkZ, record);
+    }
+
+    /**
+     * Write the chunk if it changed, then release it
+     */
+    void unload(int chunkX, int chunkZ) {
+        ChunkBits bits = chunks.remove(chunkKey(chunkX, chunkZ));
+        if (bits != null) {
+            write(chunkX, chunkZ, bits);
+        }
+    }
+
+    /**
+     * Queue the changed chunks' writes
+     *
+     * @return the number of chunks queued
+     */
+    int save() {
+        int saved = 0;
+        for (Map.Entry<Long, ChunkBits> entry : chunks.entrySet()) {
+            if (write(ChunkRegionData.chunkX(entry.getKey()), ChunkRegionData.chunkZ(entry.getKey()), entry.getValue())) {
+                saved++;
+            }
+        }
+
+        return saved;
+    }
+
+    /**
+     * @return the number of chunks indexed, i.e., loaded
+     */
+    int size() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the chunk's bits, indexing it with its read queued if it is not indexed
+     */
+    private ChunkBits chunk(int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        ChunkBits bits = chunks.get(key);
+        if (bits == null) {
+            ChunkBits loading = bits = new ChunkBits(maxHeight);
+            loading.removed = new ChunkBits(maxHeight);
+            chunks.put(key, loading);
+            io.execute(() -> {
+                int[] record = read(chunkX, chunkZ);
+                main.execute(() -> loading.merge(record));
+            });
+        }
+
+        return bits;
+    }
+
+    /**
+     * Queue the chunk's write if it changed
+     * - A chunk still loading is merged with its record on the I/O executor, after its read
+     */
+    private boolean write(int chunkX, int chunkZ, ChunkBits bits) {
+        if (!bits.dirty) {
+            return false;
+        }
+
+        bits.dirty = false;
+        if (bits.removed == null) {
+            int[] record = bits.toRecord();
+            io.execute(() -> write(chunkX, chunkZ, record));
+        } else {
+            ChunkBits copy = bits.copy();
+            io.execute(() -> {
+                copy.merge(read(chunkX, chunkZ));
+                write(chunkX, chunkZ, copy.toRecord());
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * I/O executor: the chunk's record, empty if it could not be read
+     */
+    private int[] read(int chunkX, int chunkZ) {
+        try {
+            return data.read(chunkX, chunkZ);
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to read chunk [%d, %d] from [%s]: %s", chunkX, chunkZ, data.getName(), e));
+            return new int[0];
+        }
+    }
+
+    /**
+     * I/O executor: replace the chunk's record
+     */
+    private void write(int chunkX, int chunkZ, int[] record) {
+        try {
+            data.write(chunkX, chunkZ, record);
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to write chunk [%d, %d] to [%s]: %s", chunkX, chunkZ, data.getName(), e));
+        }
+    }
+
+    /**
+     * Tagged blocks of one chunk, a 16x16 layer of bits per y
+     */
+    static final class ChunkBits {
+
+        private final long[][] layers;
+        private int count;
+        private boolean dirty;
+
+        //Until the chunk's read is merged: blocks untagged meanwhile, which the read must not restore
+        private ChunkBits removed;
+
+        private ChunkBits(int height) {
+            this.layers = new long[height][];
+        }
+
+        /**
+         * @param x chunk-local
+         * @param z chunk-local
+         */
+        boolean isTagged(int x, int y, int z) {
+            return y >= 0 && y < layers.length && get(x, y, z);
+        }
+
+        private ChunkBits copy() {
+            ChunkBits copy = new ChunkBits(layers.length);
+            for (int y = 0; y < layers.length; y++) {
+                if (layers[y] != null) {
+                    copy.layers[y] = layers[y].clone();
+                }
+            }
+
+            copy.count = count;
+            copy.dirty = dirty;
+            copy.removed = removed == null ? null : removed.copy();
+            return copy;
+        }
+
+        /**
+         * Add the blocks read for the chunk, except those untagged while it was loading
+         */
+        private void merge(int[] record) {
+            if (removed == null) {
+                return;
+            }
+
+            boolean changed = dirty;
+            for (int block : record) {
+                int y = SeaLevelPlan.y(block);
+                if (y >= 0 && y < layers.length && !removed.get(SeaLevelPlan.x(block), y, SeaLevelPlan.z(block))) {
+                    set(SeaLevelPlan.x(block), y, SeaLevelPlan.z(block));
+                }
+            }
+
+            dirty = changed;
+            removed = null;
+        }
+
+        private boolean get(int x, int y, int z) {
+            long[] layer = layers[y];
+            int bit = (z << 4) | x;
+            return layer != null && (layer[bit >> 6] & (1L << bit)) != 0;
+        }
+
+        private void set(int x, int y, int z) {
+            if (removed != null) {
+                removed.clear(x, y, z);
+            }
+
+            long[] layer = layers[y];
+            if (layer == null) {
+                layer = layers[y] = new long[4];
+            }
+
+            int bit = (z << 4) | x;
+            if ((layer[bit >> 6] & (1L << bit)) == 0) {
+                layer[bit >> 6] |= 1L << bit;
+                count++;
+                dirty = true;
+            }
+        }
+
+        private void clear(int x, int y, int z) {
+            //Stored blocks are not known yet, so the untag is kept for the merge:
+            if (removed != null) {
+                removed.set(x, y, z);
+                dirty = true;
+            }
+
+            long[] layer = layers[y];
+            int bit = (z << 4) | x;
+            if (layer != null && (layer[bit >> 6] & (1L << bit)) != 0) {
+                layer[bit >> 6] &= ~(1L << bit);
+                count--;
+                dirty = true;
+            }
+        }
+
+        private int[] toRecord() {
+            int[] record = new int[count];
+            int i = 0;
+            for (int y = 0; y < layers.length; y++) {
+                long[] layer = layers[y];
+                if (layer == null) {
+                    continue;
+                }
+
+                for (int word = 0; word < layer.length; word++) {
+                    long bits = layer[word];
+                    while (bits != 0) {
+                        int bit = (word << 6) | Long.numberOfTrailingZeros(bits);
+                        record[i++] = SeaLevelPlan.pack(bit & 0xF, y, bit >> 4);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+
+            return record;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.porillo.effect.negative;
+
+import lombok.Getter;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.bukkit.Material.*;
+
+/**
+ * Sea-level block changes for one chunk, planned from a ChunkSnapshot
+ * - Safe to build off the main thread: only the snapshot is read
+ * - Changes are packed chunk-local positions, see pack()
+ * - RISE: an air-like block at or below the sea level becomes water
+ * - DRAIN: a water-like block becomes air; unless repairing, only when it is
+ * a tagged sea-level block, in the copy of the chunk's tags and again when the change is applied
+ * - Untagged (natural) water is left out of the plan, it costs no main-thread block lookup
+ * - The world may change between snapshot and apply, so the live block type
+ * is checked again when each change is applied
+ */
+public class SeaLevelPlan {
+
+    static final Set<Material> replaceOnRise = EnumSet.noneOf(Material.class);
+    static final Set<Material> replaceOnFall = EnumSet.noneOf(Material.class);
+
+    private static final int DRAIN = 1 << 8;
+    private static final int TAGGED_ONLY = 1 << 9;
+
+    @Getter private final String worldName;
+    @Getter private final int chunkX, chunkZ;
+    @Getter private final int seaLevel;
+    private int[] changes = new int[64];
+    private int size;
+    private int cursor;
+
+    static {
+        replaceOnRise.add(AIR);
+        replaceOnRise.add(TALL_GRASS);
+        replaceOnRise.add(GRASS);
+        replaceOnRise.add(LILY_PAD);
+        replaceOnRise.add(LILAC);
+        replaceOnRise.add(SUGAR_CANE);
+        replaceOnRise.add(FERN);
+        replaceOnRise.add(ALLIUM);
+        replaceOnRise.add(VINE);
+        replaceOnRise.add(DEAD_BUSH);
+
+        for (Material material : values()) {
+            String mat = material.name().toLowerCase();
+            if (mat.contains("flower") || mat.contains("sapling") || mat.contains("seed")) {
+                replaceOnRise.add(material);
+            }
+        }
+
+        replaceOnFall.add(WATER);
+        replaceOnFall.add(SEAGRASS);
+        replaceOnFall.add(TALL_SEAGRASS);
+        replaceOnFall.add(KELP_PLANT);
+        replaceOnFall.add(KELP);
+    }
+
+    private SeaLevelPlan(String worldName, int chunkX, int chunkZ, int seaLevel) {
+        this.worldName = worldName;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.seaLevel = seaLevel;
+    }
+
+    /**
+     * Scan the snapshot's blocks within the sea-level's range, [baseSeaLevel, maxHeight)
+     *
+     * @param seaLevel   the sea level to converge to
+     * @param isOverride repairing: drain everything above the base sea level
+     * @param tagged     copy of the chunk's tagged blocks, see SeaLevelIndex.copy(), or NULL to check them all when applied
+     */
+    public static SeaLevelPlan scan(ChunkSnapshot snapshot, int baseSeaLevel, int maxHeight, int seaLevel, boolean isOverride,
+                                    SeaLevelIndex.ChunkBits tagged) {
+        SeaLevelPlan plan = new SeaLevelPlan(snapshot.getWorldName(), snapshot.getX(), snapshot.getZ(), seaLevel);
+        final int deltaSeaLevel = seaLevel - baseSeaLevel;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = baseSeaLevel; y < maxHeight; y++) {
+                    //--------------------------------------------------------------------------------------------------
+                    //  TYPE  |  SEALEVEL  |  REPAIR  | TASK
+                    //--------------------------------------------------------------------------------------------------
+                    //    W   |   (ABOVE)  |     T    | [1] Set to AIR, clear tag
+                    //    W   |   (ABOVE)  |     F    | [2] If owner, set to air, clear tag
+                    //    W   |   [BELOW]  |     T    | [3] If not base-sea-level, set to air, clear tag
+                    //    W   |   [BELOW]  |     F    | [4] If owner and sea-level == 0, set to air, clear tag
+                    //    A   |   (ABOVE)  |     T    | Ignore
+                    //    A   |   (ABOVE)  |     F    | Ignore
+                    //    A   |   [BELOW]  |     T    | Ignore
+                    //    A   |   [BELOW]  |     F    | [5] If sea-level > 0, set to water, add tag
+                    //--------------------------------------------------------------------------------------------------
+                    Material type = snapshot.getBlockType(x, y, z);
+                    if (replaceOnRise.contains(type)) {
+                        if (deltaSeaLevel > 0 && y <= seaLevel && !isOverride) {
+                            //Set any air-blocks below-and-at sea-level to water
+                            //as long as the sea-level is above normal [5]
+                            plan.add(pack(x, y, z));
+                        }
+                    } else if (replaceOnFall.contains(type)) {
+                        if (isOverride && y > baseSeaLevel) {
+                            //Repairing, except the base-sea-level [1, 3]
+                            plan.add(pack(x, y, z) | DRAIN);
+                        } else if ((y > seaLevel || deltaSeaLevel == 0) && (tagged == null || tagged.isTagged(x, y, z))) {
+                            //Owner of block above sea-level [2]
+                            //Owner of block below sea-level when sea-level is normal [4]
+                            plan.add(pack(x, y, z) | DRAIN | TAGGED_ONLY);
+                        }
+                    }
+                }
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Pack a chunk-local position: 4 bits each for x and z, 2 flag bits, the rest for y
+     */
+    static int pack(int x, int y, int z) {
+        return (y << 10) | (z << 4) | x;
+    }
+
+    public static int x(int change) {
+        return change & 0xF;
+    }
+
+    public static int y(int change) {
+        return change >> 10;
+    }
+
+    public static int z(int change) {
+        return (change >> 4) & 0xF;
+    }
+
+    /**
+     * @return true to set the block to air, false to set it to water
+     */
+    public static boolean isDrain(int change) {
+        return (change & DRAIN) != 0;
+    }
+
+    /**
+     * @return true if the drain only applies to a tagged sea-level block
+     */
+    public static boolean isTaggedOnly(int change) {
+        return (change & TAGGED_ONLY) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasNext() {
+        return cursor < size;
+    }
+
+    /**
+     * @return the next change to apply; plans are applied across ticks, so this resumes where the last tick stopped
+     */
+    public int next() {
+        return changes[cursor++];
+    }
+
+    private void add(int change) {
+        if (size == changes.length) {
+            changes = Arrays.copyOf(changes, size * 2);
+        }
+
+        changes[size++] = change;
+    }
+}
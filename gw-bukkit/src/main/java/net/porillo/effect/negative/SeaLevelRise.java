@@ -0,0 +1,517 @@
+package net.porillo.effect.negative;
+
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import lombok.Getter;
+import lombok.Setter;
+import net.porillo.GlobalWarming;
+import net.porillo.effect.ClimateData;
+import net.porillo.effect.api.ClimateEffectType;
+import net.porillo.effect.api.ListenerClimateEffect;
+import net.porillo.effect.storage.ChunkRegionData;
+import net.porillo.effect.storage.EffectData;
+import net.porillo.engine.ClimateEngine;
+import net.porillo.engine.api.Distribution;
+import net.porillo.engine.api.WorldClimateEngine;
+import net.porillo.util.ChunkSorter;
+import org.bukkit.*;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Integer.parseInt;
+import static org.bukkit.Material.*;
+
+/**
+ * Sea-level rise
+ * - Three repeating tasks, a planner thread and an I/O thread for the chunk data
+ * 1) Add jobs to the stack: chunks that loaded, or all loaded chunks once the sea level changes
+ * 2) Plan the required changes from chunk snapshots, off the main thread
+ * 3) Apply the planned changes, within a per-tick block budget
+ * <p>
+ * - Sea level will rise with the temperature
+ * - Raised blocks are tagged in a per-chunk index, see SeaLevelIndex
+ * - Tagged blocks are stored per chunk, read on chunk load and written when changed, off the main thread
+ * - The sea level each chunk converged to is stored, so converged chunks are not scanned again
+ * - When sea levels lower, the tagged blocks are reset
+ * - Will not dry out lakes, rivers, irrigation, machines, etc.
+ * - Considerations made for growing kelp, player changes, and
+ * other events: blocks that drop, etc.
+ */
+@ClimateData(type = ClimateEffectType.SEA_LEVEL_RISE)
+public class SeaLevelRise extends ListenerClimateEffect {
+
+    private final Map<UUID, SeaLevelIndex> taggedBlocks = new HashMap<>();
+    private final Map<UUID, SeaLevelChunks> seaLevelChunks = new HashMap<>();
+
+    private final ConcurrentLinkedQueue<ChunkSnapshot> requestQueue;
+    private final ConcurrentLinkedQueue<SeaLevelPlan> planQueue;
+    private ExecutorService planner;
+    private ExecutorService io;
+    @Getter private Distribution seaMap;
+    @Getter @Setter private boolean isOverride;
+    private int baseSeaLevel, blocksPerTick, chunkTicks, chunksPerPeriod, queueTicks, maxTemperature;
+
+    public SeaLevelRise() {
+        isOverride = false;
+        requestQueue = new ConcurrentLinkedQueue<>();
+        planQueue = new ConcurrentLinkedQueue<>();
+    }
+
+    private Set<World> getSeaLevelEnabledWorlds() {
+        Set<World> worlds = new HashSet<>();
+
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getEnvironment() != World.Environment.NORMAL) {
+                continue;
+            }
+
+            final WorldClimateEngine wce = ClimateEngine.getInstance().getClimateEngine(world.getUID());
+            if (wce != null && wce.isEffectEnabled(ClimateEffectType.SEA_LEVEL_RISE)) {
+                worlds.add(world);
+            }
+        }
+
+        return worlds;
+    }
+
+    private boolean isTaggedBlock(Block block) {
+        SeaLevelIndex index = taggedBlocks.get(block.getWorld().getUID());
+        return index != null && index.isTagged(block.getX(), block.getY(), block.getZ());
+    }
+
+    private void addTaggedBlock(Block block) {
+        SeaLevelIndex index = taggedBlocks.get(block.getWorld().getUID());
+        if (index != null) {
+            index.tag(block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    private void removeTaggedBlock(Block block) {
+        SeaLevelIndex index = taggedBlocks.get(block.getWorld().getUID());
+        if (index != null) {
+            index.untag(block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    @Override
+    public void onPluginEnable() {
+        GlobalWarming.getInstance().getLogger().info("Loading Climate Effect " + super.getName());
+        if (io == null) {
+            io = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "GlobalWarming-Sea-Level-IO");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        //Reads land on the main thread, unless the plugin is being disabled:
+        Executor main = task -> {
+            if (GlobalWarming.getInstance().isEnabled()) {
+                Bukkit.getScheduler().runTask(GlobalWarming.getInstance(), task);
+            }
+        };
+
+        for (World world : getSeaLevelEnabledWorlds()) {
+            SeaLevelIndex index = new SeaLevelIndex(world.getUID().toString(), world.getMaxHeight(), io, main);
+            taggedBlocks.put(world.getUID(), index);
+            migrate(world, index);
+
+            SeaLevelChunks chunks = new SeaLevelChunks(world.getUID().toString(), io, main);
+            chunks.load();
+            seaLevelChunks.put(world.getUID(), chunks);
+
+            //Chunks loaded before the plugin, the rest load with ChunkLoadEvent:
+            //(they are queued by the first sea-level update)
+            for (Chunk chunk : world.getLoadedChunks()) {
+                index.load(chunk.getX(), chunk.getZ());
+                chunks.load(chunk.getX(), chunk.getZ());
+            }
+        }
+    }
+
+    /**
+     * Move the blocks of the former "x,y,z|x,y,z|..." text file into the region files, once
+     */
+    private void migrate(World world, SeaLevelIndex index) {
+        EffectData effectData = new EffectData(world.getUID().toString(), "seaLevelBlocks.db");
+        Path legacy = effectData.getPath();
+        if (!Files.exists(legacy)) {
+            return;
+        }
+
+        long now = -System.currentTimeMillis();
+        String contents = effectData.getContents();
+        Map<Long, Set<Integer>> chunks = new HashMap<>();
+        int migrateCount = 0;
+        if (!contents.isEmpty()) {
+            for (String locString : contents.split("\\|")) {
+                String[] coords = locString.split(",");
+                int x = parseInt(coords[0]);
+                int y = parseInt(coords[1]);
+                int z = parseInt(coords[2]);
+                chunks.computeIfAbsent(ChunkRegionData.chunkKey(x >> 4, z >> 4), k -> new HashSet<>())
+                        .add(SeaLevelPlan.pack(x & 0xF, y, z & 0xF));
+                migrateCount++;
+            }
+        }
+
+        try {
+            for (Map.Entry<Long, Set<Integer>> entry : chunks.entrySet()) {
+                index.merge(ChunkRegionData.chunkX(entry.getKey()), ChunkRegionData.chunkZ(entry.getKey()), entry.getValue());
+            }
+
+            Files.move(legacy, legacy.resolveSibling(legacy.getFileName() + ".migrated"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    "Failed to migrate [%s] for world [%s], will retry on the next start: %s",
+                    effectData.getEffectName(), world.getName(), e));
+            return;
+        }
+
+        now += System.currentTimeMillis();
+        GlobalWarming.getInstance().getLogger().info(
+                String.format("Migrated [%d] blocks in [%d] chunks from [%s] for world [%s], took %d ms.",
+                        migrateCount, chunks.size(), effectData.getEffectName(), world.getName(), now));
+    }
+
+    @Override
+    public void onPluginDisable() {
+        GlobalWarming.getInstance().getLogger().info("Unloading Climate Effect " + super.getName());
+        if (planner != null) {
+            planner.shutdownNow();
+        }
+
+        long now = -System.currentTimeMillis();
+        int saveCount = 0;
+        for (World world : getSeaLevelEnabledWorlds()) {
+            SeaLevelIndex index = taggedBlocks.get(world.getUID());
+            if (index != null) {
+                saveCount += index.save();
+            }
+
+            SeaLevelChunks chunks = seaLevelChunks.get(world.getUID());
+            if (chunks != null) {
+                chunks.save();
+            }
+        }
+
+        //Wait for the queued writes:
+        if (io != null) {
+            io.shutdown();
+            try {
+                if (!io.awaitTermination(30, TimeUnit.SECONDS)) {
+                    GlobalWarming.getInstance().getLogger().warning(String.format(
+                            "Timed out saving [%s], some changed chunks may be lost.", SeaLevelIndex.FILE_NAME));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            io = null;
+        }
+
+        now += System.currentTimeMillis();
+        GlobalWarming.getInstance().getLogger().info(
+                String.format("Saved [%d] changed chunks to [%s], took %d ms.",
+                        saveCount, SeaLevelIndex.FILE_NAME, now));
+    }
+
+    /**
+     * Index the chunk's sea-level blocks as it loads, and queue it unless it converged
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        SeaLevelIndex index = taggedBlocks.get(event.getWorld().getUID());
+        if (index != null && !event.isNewChunk()) {
+            index.load(event.getChunk().getX(), event.getChunk().getZ());
+        }
+
+        SeaLevelChunks chunks = seaLevelChunks.get(event.getWorld().getUID());
+        if (chunks != null) {
+            chunks.load(event.getChunk().getX(), event.getChunk().getZ());
+        }
+    }
+
+    /**
+     * Write the chunk's sea-level blocks if they changed, and release them
+     * - The converged sea levels are written and released with the region's last chunk
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        SeaLevelIndex index = taggedBlocks.get(event.getWorld().getUID());
+        if (index != null) {
+            index.unload(event.getChunk().getX(), event.getChunk().getZ());
+        }
+
+        SeaLevelChunks chunks = seaLevelChunks.get(event.getWorld().getUID());
+        if (chunks != null) {
+            chunks.unload(event.getChunk().getX(), event.getChunk().getZ());
+        }
+    }
+
+    /**
+     * Update the queue with the pending chunks nearest the players
+     * - Chunks are pending once they load, or for all loaded chunks when the sea level changes
+     * - Converged chunks are never pending, so a stable sea level costs nothing per period
+     */
+    private void startQueueLoader() {
+        Bukkit.getServer().getScheduler().scheduleSyncRepeatingTask(
+                GlobalWarming.getInstance(),
+                () -> {
+                    for (World world : Bukkit.getWorlds()) {
+                        if (world.getEnvironment() != World.Environment.NORMAL) {
+                            continue;
+                        }
+                        final WorldClimateEngine wce = ClimateEngine.getInstance().getClimateEngine(world.getUID());
+                        final SeaLevelChunks chunks = seaLevelChunks.get(world.getUID());
+
+                        if (chunks != null && wce != null && wce.isEffectEnabled(ClimateEffectType.SEA_LEVEL_RISE)) {
+                            final int deltaSeaLevel = wce.getClimateState().getSeaLevelDelta();
+                            final int customSeaLevel = baseSeaLevel + deltaSeaLevel;
+                            if (chunks.update(customSeaLevel, isOverride)) {
+                                for (Chunk chunk : world.getLoadedChunks()) {
+                                    chunks.queue(chunk.getX(), chunk.getZ());
+                                }
+                            }
+
+                            if (chunks.getPending().isEmpty()) {
+                                continue;
+                            }
+
+                            List<Chunk> pending = new ArrayList<>(chunks.getPending().size());
+                            for (Iterator<Long> it = chunks.getPending().iterator(); it.hasNext(); ) {
+                                long key = it.next();
+                                int chunkX = ChunkRegionData.chunkX(key);
+                                int chunkZ = ChunkRegionData.chunkZ(key);
+                                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                                    pending.add(world.getChunkAt(chunkX, chunkZ));
+                                } else {
+                                    it.remove();
+                                }
+                            }
+
+                            for (Chunk chunk : ChunkSorter.sortByDistance(pending.toArray(new Chunk[0]),
+                                    world.getPlayers(), chunksPerPeriod * 2)) {
+                                chunks.unqueue(chunk.getX(), chunk.getZ());
+                                requestQueue.add(chunk.getChunkSnapshot(false, true, false));
+                            }
+                        }
+                    }
+
+                }, 0L, queueTicks);
+    }
+
+    /**
+     * Plan the chunks when requests are available
+     */
+    private void debounceChunkUpdates() {
+        Bukkit.getServer().getScheduler().scheduleSyncRepeatingTask(
+                GlobalWarming.getInstance(),
+                () -> {
+                    int chunks = 0;
+                    while (chunks < chunksPerPeriod && !requestQueue.isEmpty()) {
+                        updateChunk(requestQueue.poll());
+                        chunks++;
+                    }
+                }, 0L, chunkTicks);
+    }
+
+    /**
+     * Apply the planned block changes, at most blocks-per-tick each tick
+     * - Main-thread time scales with the changed blocks, not the scanned volume
+     * - A plan cut off by the budget resumes on the next tick
+     */
+    private void applyPlannedChanges() {
+        Bukkit.getServer().getScheduler().scheduleSyncRepeatingTask(
+                GlobalWarming.getInstance(),
+                () -> {
+                    int budget = blocksPerTick;
+                    while (budget > 0 && !planQueue.isEmpty()) {
+                        SeaLevelPlan plan = planQueue.peek();
+                        World world = Bukkit.getWorld(plan.getWorldName());
+                        if (world == null || !world.isChunkLoaded(plan.getChunkX(), plan.getChunkZ())) {
+                            //Unloaded before its turn, it is queued again once it loads:
+                            planQueue.poll();
+                            continue;
+                        }
+
+                        Chunk chunk = world.getChunkAt(plan.getChunkX(), plan.getChunkZ());
+                        while (budget > 0 && plan.hasNext()) {
+                            applyChange(chunk, plan.next());
+                            budget--;
+                        }
+
+                        if (!plan.hasNext()) {
+                            planQueue.poll();
+                            SeaLevelChunks chunks = seaLevelChunks.get(world.getUID());
+                            if (chunks != null) {
+                                chunks.converge(plan.getChunkX(), plan.getChunkZ(), plan.getSeaLevel());
+                            }
+                        }
+                    }
+                }, 0L, 1L);
+    }
+
+    /**
+     * Updates the sea level for the given chunk (up or down)
+     * - The snapshot is scanned on the planner thread, the changes are applied on the main thread
+     * - BlockFromToEvent is the key to making this work:
+     * - RISING SEAS: helps identify which blocks were created and which were pre-existing lakes, rivers, irrigation, etc.
+     * - EBBING SEAS: prevents pending chunks from spilling into cleared chunks
+     */
+    private void updateChunk(ChunkSnapshot snapshot) {
+        //Setup:
+        World world = Bukkit.getWorld(snapshot.getWorldName());
+        WorldClimateEngine climateEngine = ClimateEngine.getInstance().getClimateEngine(world.getUID());
+        final int deltaSeaLevel = climateEngine.getClimateState().getSeaLevelDelta();
+        final int customSeaLevel = baseSeaLevel + deltaSeaLevel;
+        final int maxHeight = baseSeaLevel + (int) seaMap.getValue(maxTemperature);
+        final boolean repair = isOverride;
+
+        SeaLevelChunks chunks = seaLevelChunks.get(world.getUID());
+        if (chunks == null || chunks.isConverged(snapshot.getX(), snapshot.getZ(), customSeaLevel)) {
+            return;
+        }
+
+        //Tags still being read would be planned as untagged, queue the chunk again:
+        SeaLevelIndex index = taggedBlocks.get(world.getUID());
+        if (index != null && index.isLoading(snapshot.getX(), snapshot.getZ())) {
+            chunks.queue(snapshot.getX(), snapshot.getZ());
+            return;
+        }
+
+        //The planner reads a copy of the chunk's tags, the index stays on the main thread:
+        SeaLevelIndex.ChunkBits tagged = index == null ? null : index.copy(snapshot.getX(), snapshot.getZ());
+
+        //Plans without changes are queued too, so the chunk is recorded as converged:
+        planner.execute(() -> {
+            try {
+                planQueue.add(SeaLevelPlan.scan(snapshot, baseSeaLevel, maxHeight, customSeaLevel, repair, tagged));
+            } catch (RuntimeException e) {
+                GlobalWarming.getInstance().getLogger().warning(String.format(
+                        "Sea-level plan failed for chunk [%d, %d] in world [%s]: %s",
+                        snapshot.getX(), snapshot.getZ(), snapshot.getWorldName(), e));
+            }
+        });
+    }
+
+    private void applyChange(Chunk chunk, int change) {
+        Block block = chunk.getBlock(SeaLevelPlan.x(change), SeaLevelPlan.y(change), SeaLevelPlan.z(change));
+        if (SeaLevelPlan.isDrain(change)) {
+            if (SeaLevelPlan.replaceOnFall.contains(block.getType())
+                    && (!SeaLevelPlan.isTaggedOnly(change) || isTaggedBlock(block))) {
+                block.setType(AIR, true);
+                removeTaggedBlock(block);
+            }
+        } else if (SeaLevelPlan.replaceOnRise.contains(block.getType())) {
+            block.setType(WATER, true);
+            addTaggedBlock(block);
+        }
+    }
+
+    /**
+     * Replacing sea-level-blocks will remove them from the tracked set
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        removeTaggedBlock(event.getBlock());
+    }
+
+    /**
+     * Emptying a bucket (water or lava) will remove the adjacent block
+     * from the tracked set
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+    public void onPlayerBucketEmpty(PlayerBucketEmptyEvent event) {
+        Block adjacent = event.getBlockClicked().getRelative(event.getBlockFace());
+        removeTaggedBlock(adjacent);
+    }
+
+    /**
+     * Only allow sea-level blocks to flow if they are below the custom sea-level
+     * - Track any new blocks originating from sea-level blocks
+     */
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
+    public void onBlockFromToEvent(BlockFromToEvent event) {
+        if (isTaggedBlock(event.getBlock())) {
+            boolean isWaterFixed = isOverride;
+            if (!isWaterFixed) {
+                final World world = event.getBlock().getWorld();
+                final WorldClimateEngine climateEngine = ClimateEngine.getInstance().getClimateEngine(world.getUID());
+                final int deltaSeaLevel = climateEngine.getClimateState().getSeaLevelDelta();
+                final int customSeaLevel = baseSeaLevel + deltaSeaLevel;
+                isWaterFixed = event.getBlock().getY() == event.getToBlock().getY() &&
+                        event.getBlock().getY() > customSeaLevel;
+            }
+
+            if (!isWaterFixed) {
+                isWaterFixed = !isSameChunk(event.getBlock(), event.getToBlock());
+            }
+
+            if (isWaterFixed) {
+                event.setCancelled(true);
+            } else {
+                addTaggedBlock(event.getToBlock());
+            }
+        }
+    }
+
+    private boolean isSameChunk(Block one, Block two) {
+        return one.getX() >> 4 == two.getX() >> 4 && one.getZ() >> 4 == two.getZ() >> 4;
+    }
+
+    /**
+     * Load the sea-level distribution model
+     */
+    @Override
+    public void setJsonModel(JsonObject jsonModel) {
+        super.setJsonModel(jsonModel);
+        seaMap = GlobalWarming.getInstance().getGson().fromJson(
+                jsonModel.get("distribution"),
+                new TypeToken<Distribution>() {
+                }.getType());
+        // Compatibility
+        try {
+            seaMap = new Distribution(seaMap.temp, seaMap.fitness);
+            maxTemperature = Collections.max(seaMap.getX()).intValue();
+            chunkTicks = jsonModel.get("chunk-ticks").getAsInt();
+            chunksPerPeriod = jsonModel.get("chunks-per-period").getAsInt();
+            queueTicks = jsonModel.get("queue-ticks").getAsInt();
+            blocksPerTick = jsonModel.has("blocks-per-tick") ? jsonModel.get("blocks-per-tick").getAsInt() : 1024;
+
+            if (jsonModel.has("base-sea-level")) {
+                baseSeaLevel = jsonModel.get("base-sea-level").getAsInt();
+            }
+            if (planner == null) {
+                planner = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "GlobalWarming-Sea-Level");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+
+            startQueueLoader();
+            debounceChunkUpdates();
+            applyPlannedChanges();
+        } catch (Exception ex) {
+            unregister();
+        }
+    }
+}
@@ -24,7 +24,7 @@ public class IceForm extends ListenerClimateEffect {
         if (event.getNewState().getType() == Material.ICE) {
             WorldClimateEngine climateEngine = ClimateEngine.getInstance().getClimateEngine(event.getBlock().getWorld().getUID());
             if (climateEngine != null && climateEngine.isEffectEnabled(ClimateEffectType.ICE_FORMATION)) {
-                if (event.getBlock().getY() < heightMap.getValue(climateEngine.getTemperature())) {
+                if (event.getBlock().getY() < climateEngine.getClimateState().getIceHeight()) {
                     event.setCancelled(true);
                 }
             }
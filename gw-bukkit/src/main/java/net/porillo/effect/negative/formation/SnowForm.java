@@ -24,8 +24,7 @@ public class SnowForm extends ListenerClimateEffect {
         if (event.getNewState().getType() == Material.SNOW) {
             WorldClimateEngine climateEngine = ClimateEngine.getInstance().getClimateEngine(event.getBlock().getWorld().getUID());
             if (climateEngine != null && climateEngine.isEffectEnabled(ClimateEffectType.SNOW_FORMATION)) {
-                double temperature = climateEngine.getTemperature();
-                if (event.getBlock().getY() < heightMap.getValue(temperature)) {
+                if (event.getBlock().getY() < climateEngine.getClimateState().getSnowHeight()) {
                     event.setCancelled(true);
                 }
             }
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
 import net.porillo.GlobalWarming;
+import net.porillo.RandomService.Stream;
 import net.porillo.effect.ClimateData;
 import net.porillo.effect.api.ClimateEffectType;
 import net.porillo.effect.api.ListenerClimateEffect;
@@ -26,10 +27,9 @@ public class FarmYield extends ListenerClimateEffect {
     public void onCropGrow(BlockGrowEvent event) {
         WorldClimateEngine worldEngine = ClimateEngine.getInstance().getClimateEngine(event.getBlock().getWorld().getUID());
         if (worldEngine != null && worldEngine.isEffectEnabled(ClimateEffectType.FARM_YIELD)) {
-            Distribution distribution = cropDistribution.get(event.getBlock().getType());
-            if (distribution != null) {
-                double random = GlobalWarming.getInstance().getRandom().nextDouble();
-                double chance = distribution.getValue(worldEngine.getTemperature());
+            Double chance = worldEngine.getClimateState().getCropChance(event.getBlock().getType());
+            if (chance != null) {
+                double random = GlobalWarming.getInstance().getRandom().get(Stream.FARM_YIELD).nextDouble();
                 if (chance / 100.f <= random) {
                     event.setCancelled(true);
                 }
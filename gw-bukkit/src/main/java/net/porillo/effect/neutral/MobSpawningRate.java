@@ -1,6 +1,7 @@
 package net.porillo.effect.neutral;
 
 import net.porillo.GlobalWarming;
+import net.porillo.RandomService.Stream;
 import net.porillo.effect.ClimateData;
 import net.porillo.effect.api.ClimateEffectType;
 import net.porillo.effect.api.ListenerClimateEffect;
@@ -18,15 +19,15 @@ public class MobSpawningRate extends ListenerClimateEffect {
     public void onMobSpawn(EntitySpawnEvent event) {
         WorldClimateEngine worldEngine = ClimateEngine.getInstance().getClimateEngine(event.getLocation().getWorld().getUID());
         if (worldEngine != null && worldEngine.isEffectEnabled(ClimateEffectType.MOB_SPAWN_RATE)) {
-            MobDistribution distribution = worldEngine.getEntityFitnessModel().getEntityFitnessMap().get(event.getEntityType());
-            if (distribution != null) {
-                double chance = distribution.getValue(worldEngine.getTemperature());
-                double random = GlobalWarming.getInstance().getRandom().nextDouble();
+            Double chance = worldEngine.getClimateState().getSpawnChance(event.getEntityType());
+            if (chance != null) {
+                double random = GlobalWarming.getInstance().getRandom().get(Stream.MOB_SPAWNING).nextDouble();
                 if (chance / 100.f <= random) {
                     //Cancel the mob:
                     event.setCancelled(true);
 
                     //Spawn an alternative, if available:
+                    MobDistribution distribution = worldEngine.getEntityFitnessModel().getEntityFitnessMap().get(event.getEntityType());
                     String alternative = distribution.getAlternate();
                     if (alternative != null && !alternative.isEmpty()) {
                         try {
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
 import net.porillo.GlobalWarming;
+import net.porillo.RandomService.Stream;
 import net.porillo.effect.ClimateData;
 import net.porillo.effect.api.ClimateEffectType;
 import net.porillo.effect.api.ScheduleClimateEffect;
@@ -34,7 +35,7 @@ public class Weather extends ScheduleClimateEffect {
         boolean isAllowed = false;
         Distribution distribution = weatherDistribution.get(data);
         if (distribution != null && worldEngine != null && worldEngine.isEffectEnabled(ClimateEffectType.WEATHER)) {
-            final double random = GlobalWarming.getInstance().getRandom().nextDouble();
+            final double random = GlobalWarming.getInstance().getRandom().get(Stream.WEATHER).nextDouble();
             final double chance = distribution.getValue(worldEngine.getTemperature());
             isAllowed = random <= (chance / 100.f);
         }
@@ -0,0 +1,220 @@
+package net.porillo.effect.storage;
+
+import net.porillo.GlobalWarming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Region-style binary storage of per-chunk int records, e.g., packed block positions
+ * - One file per 32x32 chunks: effects/[world]/[name]/r.[x].[z].dat
+ * - A file starts with a header of 1024 (offset, length) entries, one per chunk
+ * - Chunks are read on demand and written one at a time: a record that still fits
+ * is overwritten in place, a larger one is appended to the file
+ * - A file that is mostly unused space is compacted on the next write
+ * - Headers of recently used regions are cached; not thread-safe, confine it to one thread,
+ * e.g., an I/O executor
+ */
+public class ChunkRegionData {
+
+    private static final int MAGIC = 0x4757524E;
+    private static final int VERSION = 1;
+    private static final int CHUNKS = 32 * 32;
+    private static final int HEADER_BYTES = 8 + CHUNKS * 8;
+    private static final int CACHED_HEADERS = 256;
+
+    private final String name;
+    private final Path directory;
+    private final Map<Long, int[]> headers = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CACHED_HEADERS;
+        }
+    };
+
+    public ChunkRegionData(String worldName, String name) {
+        this(GlobalWarming.getInstance().getDataFolder().toPath()
+                .resolve("effects")
+                .resolve(worldName)
+                .resolve(name));
+    }
+
+    public ChunkRegionData(Path directory) {
+        this.name = directory.getFileName().toString();
+        this.directory = directory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Pack chunk coordinates into a long, x in the high and z in the low 32 bits
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int chunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    public static int chunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+
+    /**
+     * @return the chunk's record, empty if nothing was written for it
+     */
+    public int[] read(int chunkX, int chunkZ) throws IOException {
+        int[] header = header(chunkX >> 5, chunkZ >> 5);
+        int index = index(chunkX, chunkZ);
+        int length = header[index * 2 + 1];
+        if (length == 0) {
+            return new int[0];
+        }
+
+        byte[] bytes = new byte[length * 4];
+        try (RandomAccessFile file = new RandomAccessFile(regionFile(chunkX >> 5, chunkZ >> 5).toFile(), "r")) {
+            file.seek(header[index * 2]);
+            file.readFully(bytes);
+        }
+
+        int[] record = new int[length];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(record);
+        return record;
+    }
+
+    /**
+     * Replace the chunk's record, an empty record removes it
+     */
+    public void write(int chunkX, int chunkZ, int[] record) throws IOException {
+        final int regionX = chunkX >> 5;
+        final int regionZ = chunkZ >> 5;
+        int[] header = header(regionX, regionZ);
+        int index = index(chunkX, chunkZ);
+        if (record.length == 0 && header[index * 2 + 1] == 0) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        Path path = regionFile(regionX, regionZ);
+        long fileLength;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < HEADER_BYTES) {
+                file.seek(0);
+                file.write(toBytes(header, true));
+            }
+
+            //Overwrite in place when the record still fits, append otherwise:
+            int offset = header[index * 2];
+            if (record.length == 0) {
+                offset = 0;
+            } else if (offset == 0 || record.length > header[index * 2 + 1]) {
+                offset = (int) file.length();
+            }
+
+            if (record.length > 0) {
+                file.seek(offset);
+                file.write(toBytes(record, false));
+            }
+
+            header[index * 2] = offset;
+            header[index * 2 + 1] = record.length;
+            file.seek(8 + index * 8);
+            file.writeInt(offset);
+            file.writeInt(record.length);
+            fileLength = file.length();
+        }
+
+        long liveBytes = HEADER_BYTES;
+        for (int i = 0; i < CHUNKS; i++) {
+            liveBytes += header[i * 2 + 1] * 4L;
+        }
+
+        if (fileLength > liveBytes * 2 + 4096) {
+            compact(regionX, regionZ, header);
+        }
+    }
+
+    /**
+     * Rewrite the region with its records back to back, then swap it in
+     */
+    private void compact(int regionX, int regionZ, int[] header) throws IOException {
+        Path path = regionFile(regionX, regionZ);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int[] compacted = new int[CHUNKS * 2];
+        int[][] records = new int[CHUNKS][];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < CHUNKS; i++) {
+            if (header[i * 2 + 1] > 0) {
+                records[i] = read((regionX << 5) + (i & 31), (regionZ << 5) + (i >> 5));
+                compacted[i * 2] = offset;
+                compacted[i * 2 + 1] = records[i].length;
+                offset += records[i].length * 4;
+            }
+        }
+
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            out.write(toBytes(compacted, true));
+            for (int[] record : records) {
+                if (record != null) {
+                    out.write(toBytes(record, false));
+                }
+            }
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.arraycopy(compacted, 0, header, 0, compacted.length);
+    }
+
+    private int[] header(int regionX, int regionZ) throws IOException {
+        long key = chunkKey(regionX, regionZ);
+        int[] header = headers.get(key);
+        if (header != null) {
+            return header;
+        }
+
+        header = new int[CHUNKS * 2];
+        Path path = regionFile(regionX, regionZ);
+        if (Files.exists(path) && Files.size(path) >= HEADER_BYTES) {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+                if (file.readInt() != MAGIC || file.readInt() != VERSION) {
+                    throw new IOException(String.format("Unsupported region file: [%s]", path));
+                }
+
+                byte[] bytes = new byte[CHUNKS * 8];
+                file.readFully(bytes);
+                ByteBuffer.wrap(bytes).asIntBuffer().get(header);
+            }
+        }
+
+        headers.put(key, header);
+        return header;
+    }
+
+    private Path regionFile(int regionX, int regionZ) {
+        return directory.resolve(String.format("r.%d.%d.dat", regionX, regionZ));
+    }
+
+    private static int index(int chunkX, int chunkZ) {
+        return (chunkX & 31) + (chunkZ & 31) * 32;
+    }
+
+    private static byte[] toBytes(int[] ints, boolean isHeader) {
+        ByteBuffer buffer = ByteBuffer.allocate(ints.length * 4 + (isHeader ? 8 : 0));
+        if (isHeader) {
+            buffer.putInt(MAGIC).putInt(VERSION);
+        }
+
+        buffer.asIntBuffer().put(ints);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,220 @@
+package net.porillo.engine;
+
+import net.porillo.GlobalWarming;
+import net.porillo.config.Lang;
+import net.porillo.config.WorldConfig;
+import net.porillo.database.tables.WorldTable;
+import net.porillo.engine.api.Model;
+import net.porillo.engine.api.WorldClimateEngine;
+import net.porillo.objects.GWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+public class ClimateEngine {
+
+    private static ClimateEngine climateEngine;
+    private Map<UUID, WorldClimateEngine> worldClimateEngines;
+
+    public ClimateEngine() {
+        this.worldClimateEngines = new ConcurrentHashMap<>();
+    }
+
+    public void loadWorldClimateEngine(World world) {
+        if (world == null) return;
+        UUID worldId = world.getUID();
+        if (!worldClimateEngines.containsKey(worldId)) {
+            WorldConfig worldConfig = new WorldConfig(worldId);
+            addWorldClimateEngine(world, worldConfig, new WorldClimateEngine(worldConfig));
+        }
+    }
+
+    /**
+     * Load every world's climate engine, parsing their models in parallel
+     * - Worlds with identical model files share one parse, see ModelRegistry
+     */
+    public void loadWorldClimateEngines() {
+        long started = System.currentTimeMillis();
+        ModelRegistry registry = ModelRegistry.getInstance();
+        int requested = registry.getRequested();
+        int parsed = registry.getParsed();
+
+        //World configs, names and the format are read here, only the models are loaded on the pool:
+        String temperatureFormat = GlobalWarming.getInstance().getConf().getTemperatureFormat();
+        Map<UUID, WorldConfig> worldConfigs = new LinkedHashMap<>();
+        Map<UUID, CompletableFuture<WorldClimateEngine>> engines = new HashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (World world : Bukkit.getWorlds()) {
+                UUID worldId = world.getUID();
+                if (!worldClimateEngines.containsKey(worldId)) {
+                    WorldConfig worldConfig = new WorldConfig(worldId);
+                    String worldName = world.getName();
+                    worldConfigs.put(worldId, worldConfig);
+                    engines.put(worldId, CompletableFuture.supplyAsync(
+                            () -> new WorldClimateEngine(worldConfig, worldName, temperatureFormat), pool));
+                }
+            }
+
+            for (Map.Entry<UUID, WorldConfig> entry : worldConfigs.entrySet()) {
+                UUID worldId = entry.getKey();
+                addWorldClimateEngine(Bukkit.getWorld(worldId), entry.getValue(), engines.get(worldId).join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        GlobalWarming.getInstance().getLogger().info(String.format(
+                "Loaded models for [%d] worlds in [%d ms]: [%d] requested, [%d] parsed, ~[%d ms] saved by sharing",
+                worldConfigs.size(),
+                System.currentTimeMillis() - started,
+                registry.getRequested() - requested,
+                registry.getParsed() - parsed,
+                registry.getSavedMillis()));
+    }
+
+    private void addWorldClimateEngine(World world, WorldConfig worldConfig, WorldClimateEngine worldClimateEngine) {
+        UUID worldId = world.getUID();
+        if (!worldConfig.isEnabled()) {
+            GlobalWarming.getInstance().getLogger().info(String.format("World: [%s] found, but is disabled", world.getName()));
+        } else {
+            GlobalWarming.getInstance().getLogger().info(String.format("Loading climate engine for: [%s]", world.getName()));
+        }
+
+        //Add the climate engine:
+        WorldTable worldTable = GlobalWarming.getInstance().getTableManager().getWorldTable();
+        GWorld gWorld = worldTable.getWorld(worldId);
+        if (gWorld != null) {
+            worldClimateEngine.setCarbonValue(gWorld.getCarbonValue());
+        }
+
+        worldClimateEngines.put(worldId, worldClimateEngine);
+
+        //Delayed attempt create the world object if it doesn't currently exist:
+        if (gWorld == null) {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    GWorld gw = worldTable.getWorld(worldId);
+                    if (gw == null) {
+                        worldTable.insertNewWorld(worldId);
+                    }
+                }
+            }.runTaskLater(GlobalWarming.getInstance(), 40L);
+        }
+    }
+
+    /**
+     * Reload changed model files without a restart
+     * - Files are read, parsed and validated off the main thread
+     * - Changed models are swapped in on the main thread, and only those worlds recompute their climate
+     * - Invalid files are rejected and the previous model is kept
+     *
+     * @param worldNames worlds to check, or NULL for all of them
+     * @param callback   receives the number of worlds updated, on the main thread
+     */
+    public void reloadModels(Set<String> worldNames, Consumer<Integer> callback) {
+        Map<WorldClimateEngine, CompletableFuture<List<Model>>> reloads = new HashMap<>();
+        for (Map.Entry<UUID, WorldClimateEngine> entry : worldClimateEngines.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world != null && (worldNames == null || worldNames.contains(world.getName()))) {
+                reloads.put(entry.getValue(), entry.getValue().reloadModels(ForkJoinPool.commonPool()));
+            }
+        }
+
+        CompletableFuture.allOf(reloads.values().toArray(new CompletableFuture[0])).thenRun(() -> {
+            GlobalWarming plugin = GlobalWarming.getInstance();
+            if (!plugin.isEnabled()) {
+                return;
+            }
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                int updated = 0;
+                for (Map.Entry<WorldClimateEngine, CompletableFuture<List<Model>>> entry : reloads.entrySet()) {
+                    List<Model> models = entry.getValue().join();
+                    if (!models.isEmpty()) {
+                        entry.getKey().setModels(models);
+                        updated++;
+                    }
+                }
+
+                if (callback != null) {
+                    callback.accept(updated);
+                }
+            });
+        });
+    }
+
+    public WorldClimateEngine getClimateEngine(UUID worldId) {
+        WorldClimateEngine climateEngine = getLoadedEngine(worldId);
+
+        if (climateEngine == null) {
+            GlobalWarming.getInstance().getLogger().warning(String.format(
+                    Lang.ENGINE_NOTFOUND.get(),
+                    WorldConfig.getDisplayName(worldId)));
+        }
+
+        return climateEngine;
+    }
+
+    /**
+     * Pass a world's new carbon value to the climate simulation
+     */
+    public void updateCarbonValue(UUID worldId, int carbonValue) {
+        WorldClimateEngine worldClimateEngine = getLoadedEngine(worldId);
+        if (worldClimateEngine != null) {
+            worldClimateEngine.setCarbonValue(carbonValue);
+        }
+    }
+
+    /**
+     * @return the loaded climate engines, for the climate simulation thread
+     */
+    public Collection<WorldClimateEngine> getWorldClimateEngines() {
+        return worldClimateEngines.values();
+    }
+
+    /**
+     * Recompute every world's climate state on the next tick, e.g., after effect models change
+     */
+    public void invalidateClimateStates() {
+        for (WorldClimateEngine worldClimateEngine : worldClimateEngines.values()) {
+            worldClimateEngine.invalidateClimateState();
+        }
+    }
+
+    public boolean isClimateEngineEnabled(UUID worldId) {
+        WorldClimateEngine worldClimateEngine = getClimateEngine(worldId);
+        return worldClimateEngine != null && worldClimateEngine.isEnabled();
+    }
+
+    /**
+     * @return the world's engine, or NULL for an unknown (or NULL) world id
+     * - The map is concurrent and rejects NULL keys, callers may not know the world, e.g., uncached players
+     */
+    private WorldClimateEngine getLoadedEngine(UUID worldId) {
+        return worldId == null ? null : worldClimateEngines.get(worldId);
+    }
+
+    public static ClimateEngine getInstance() {
+        if (climateEngine == null) {
+            climateEngine = new ClimateEngine();
+        }
+
+        return climateEngine;
+    }
+}
@@ -0,0 +1,79 @@
+package net.porillo.engine;
+
+import lombok.Getter;
+import net.porillo.GlobalWarming;
+import net.porillo.engine.api.WorldClimateEngine;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated thread that advances every world's climate at a fixed cadence
+ * <p>
+ * Each tick reads the worlds' latest carbon values, integrates them into
+ * an effective carbon with the configured lag and decay, and publishes an
+ * immutable ClimateState per world. Effects, commands and the scoreboard
+ * read the last published state, so the main thread does no model math,
+ * and a tick costs the same however many carbon events happened since
+ * the last one.
+ */
+public class ClimateSimulation implements Runnable {
+
+    @Getter private final long intervalMillis;
+    @Getter private final double lag;
+    @Getter private final double decay;
+
+    private ScheduledExecutorService scheduler;
+    private long lastTick;
+
+    /**
+     * @param lag   seconds for the temperature to respond to a carbon change (~63%), 0 for an instant response
+     * @param decay fraction of the effective carbon absorbed per second
+     */
+    public ClimateSimulation(long intervalMillis, double lag, double decay) {
+        this.intervalMillis = Math.max(50L, intervalMillis);
+        this.lag = Math.max(0, lag);
+        this.decay = Math.max(0, decay);
+    }
+
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GlobalWarming-Climate");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleAtFixedRate(this, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        double seconds = lastTick == 0 ? 0 : (now - lastTick) / 1e9;
+        lastTick = now;
+
+        //An exception would cancel the schedule, so report it and carry on:
+        for (WorldClimateEngine worldClimateEngine : ClimateEngine.getInstance().getWorldClimateEngines()) {
+            try {
+                worldClimateEngine.tick(seconds, lag, decay);
+            } catch (RuntimeException e) {
+                GlobalWarming.getInstance().getLogger().warning(String.format(
+                        "Climate tick failed for world id [%s]: %s",
+                        worldClimateEngine.getConfig().getWorldId(),
+                        e));
+            }
+        }
+    }
+}
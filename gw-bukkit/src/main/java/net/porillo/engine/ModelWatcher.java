@@ -0,0 +1,122 @@
+package net.porillo.engine;
+
+import net.porillo.GlobalWarming;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Dedicated thread that reloads model files when they change on disk
+ * <p>
+ * Watches the models directory and each world's folder in it. Editors
+ * often write a file in several steps, so changes are collected until the
+ * folder has been quiet for DEBOUNCE_MILLIS, then the affected worlds are
+ * reloaded through ClimateEngine.reloadModels().
+ */
+public class ModelWatcher implements Runnable {
+
+    private static final long DEBOUNCE_MILLIS = 500L;
+
+    private final Path modelsPath;
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ModelWatcher(Path modelsPath) {
+        this.modelsPath = modelsPath;
+    }
+
+    public void start() {
+        try {
+            this.watchService = modelsPath.getFileSystem().newWatchService();
+            modelsPath.register(watchService, ENTRY_CREATE);
+            try (DirectoryStream<Path> worlds = Files.newDirectoryStream(modelsPath, Files::isDirectory)) {
+                for (Path world : worlds) {
+                    world.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+                }
+            }
+        } catch (IOException e) {
+            GlobalWarming.getInstance().getLogger().warning(String.format("Unable to watch the model files: %s", e.getMessage()));
+            return;
+        }
+
+        this.running = true;
+        this.thread = new Thread(this, "GlobalWarming-Model-Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void stop() {
+        this.running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                Set<String> worldNames = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collect(key, worldNames);
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if (!worldNames.isEmpty() && running) {
+                    GlobalWarming plugin = GlobalWarming.getInstance();
+                    Bukkit.getScheduler().runTask(plugin, () -> ClimateEngine.getInstance().reloadModels(worldNames, updated -> {
+                        if (updated > 0) {
+                            plugin.getLogger().info(String.format("Reloaded models for [%d] of: %s", updated, worldNames));
+                        }
+                    }));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            //Stopped
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> worldNames) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (directory.equals(modelsPath)) {
+                //A new world folder, watch it too:
+                if (Files.isDirectory(path)) {
+                    try {
+                        path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+                    } catch (IOException e) {
+                        GlobalWarming.getInstance().getLogger().warning(String.format("Unable to watch: [%s]", path));
+                    }
+                }
+            } else if (path.toString().endsWith(".json")) {
+                worldNames.add(directory.getFileName().toString());
+            }
+        }
+
+        key.reset();
+    }
+}
@@ -0,0 +1,419 @@
+package net.porillo.engine.api;
+
+import com.google.gson.Gson;
+import lombok.Getter;
+import net.porillo.GlobalWarming;
+import net.porillo.Platform;
+import net.porillo.config.Lang;
+import net.porillo.config.WorldConfig;
+import net.porillo.effect.EffectEngine;
+import net.porillo.effect.api.ClimateEffectType;
+import net.porillo.effect.negative.SeaLevelRise;
+import net.porillo.effect.negative.formation.IceForm;
+import net.porillo.effect.negative.formation.SnowForm;
+import net.porillo.effect.neutral.FarmYield;
+import net.porillo.engine.ModelRegistry;
+import net.porillo.engine.models.*;
+import net.porillo.engine.models.ScoreTempModel.CarbonSensitivity;
+import net.porillo.objects.*;
+import net.porillo.util.Colorizer;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+
+import java.text.DecimalFormat;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Getter
+public class WorldClimateEngine {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    //Scratch space for treeGrow(), reused across events:
+    private static final ThreadLocal<PackedBlockMap> TREE_BLOCKS = ThreadLocal.withInitial(() -> new PackedBlockMap(256));
+    private static final String DEFAULT_FORMAT = "#.##";
+
+    private WorldConfig config;
+
+    //Swapped as a whole when a model file is reloaded:
+    private volatile ScoreTempModel scoreTempModel;
+    private volatile FuelModel fuelModel;
+    private volatile EntityMethaneModel methaneModel;
+    private volatile ReductionModel reductionModel;
+    private volatile EntityFitnessModel entityFitnessModel;
+    private volatile CarbonIndexModel carbonIndexModel;
+
+    //DecimalFormat is not thread-safe, formatTemp() runs on the climate and main threads:
+    private final ThreadLocal<DecimalFormat> format;
+
+    //Climate snapshot, see getClimateState():
+    private final AtomicInteger climateVersion = new AtomicInteger();
+    private volatile ClimateState climateState;
+
+    //Simulation input (main thread) and state (climate thread), see tick():
+    private volatile int carbonValue;
+    private double effectiveCarbon;
+    private boolean simulated;
+
+    public WorldClimateEngine(WorldConfig config) {
+        this(config, getWorldName(config), GlobalWarming.getInstance().getConf().getTemperatureFormat());
+    }
+
+    /**
+     * Engine for a world resolved by the caller, safe to build off the main thread
+     * - Only the world's model files are read here, see ClimateEngine.loadWorldClimateEngines()
+     *
+     * @param worldName NULL when the world is not loaded, the engine then has no models
+     */
+    public WorldClimateEngine(WorldConfig config, String worldName, String temperatureFormat) {
+        this.config = config;
+        this.format = withFormat(temperatureFormat);
+
+        // Worlds load their own model file, identical files share one instance
+        if (worldName != null) {
+            for (CompletableFuture<? extends Model> model : loadModels(worldName, Runnable::run, false).values()) {
+                setModel(ModelRegistry.join(model));
+            }
+        } else {
+            GlobalWarming.getInstance().getLogger().warning(
+                    String.format("Could not load climate engine for world id [%s]", config.getWorldId()));
+        }
+    }
+
+    /**
+     * Engine over models that are already loaded, e.g., for benchmarks
+     */
+    public WorldClimateEngine(WorldConfig config, Collection<? extends Model> models) {
+        this.config = config;
+        this.format = withFormat(DEFAULT_FORMAT);
+        for (Model model : models) {
+            setModel(model);
+        }
+    }
+
+    /**
+     * Re-read this world's model files on the executor
+     * - Invalid files are logged and left out, the current model stays in place
+     *
+     * @return the changed models, to be swapped in with setModels()
+     */
+    public CompletableFuture<List<Model>> reloadModels(Executor executor) {
+        World world = Bukkit.getWorld(config.getWorldId());
+        if (world == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        List<CompletableFuture<Model>> reloads = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<? extends Model>> entry : loadModels(world.getName(), executor, true).entrySet()) {
+            reloads.add(entry.getValue().handle((model, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    GlobalWarming.getInstance().getLogger().severe(String.format(
+                            "Rejected model: [%s] for: [%s], keeping the previous one (%s)",
+                            entry.getKey(),
+                            world.getName(),
+                            cause));
+                }
+
+                return model;
+            }));
+        }
+
+        return CompletableFuture.allOf(reloads.toArray(new CompletableFuture[0])).thenApply(done -> reloads.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Swap in reloaded models and recompute the climate state if any changed
+     */
+    public void setModels(List<Model> models) {
+        for (Model model : models) {
+            setModel(model);
+        }
+
+        if (!models.isEmpty()) {
+            invalidateClimateState();
+        }
+    }
+
+    private void setModel(Model model) {
+        if (model instanceof ScoreTempModel) {
+            this.scoreTempModel = (ScoreTempModel) model;
+        } else if (model instanceof FuelModel) {
+            this.fuelModel = (FuelModel) model;
+        } else if (model instanceof EntityMethaneModel) {
+            this.methaneModel = (EntityMethaneModel) model;
+        } else if (model instanceof ReductionModel) {
+            this.reductionModel = (ReductionModel) model;
+        } else if (model instanceof EntityFitnessModel) {
+            this.entityFitnessModel = (EntityFitnessModel) model;
+        } else if (model instanceof CarbonIndexModel) {
+            this.carbonIndexModel = (CarbonIndexModel) model;
+        }
+    }
+
+    /**
+     * @return each model's (shared) instance by file name, loaded or reloaded through the registry
+     */
+    private Map<String, CompletableFuture<? extends Model>> loadModels(String worldName, Executor executor, boolean reload) {
+        CarbonSensitivity sensitivity = config.getSensitivity();
+        Gson gson = Platform.getInstance().getGson();
+        Map<String, CompletableFuture<? extends Model>> models = new LinkedHashMap<>();
+        loadModel(models, ScoreTempModel.class, worldName, "scoreTempModel.json", sensitivity,
+                () -> new ScoreTempModel(worldName, sensitivity), executor, reload);
+        loadModel(models, FuelModel.class, worldName, "fuelModel.json", null,
+                () -> new FuelModel(gson, worldName), executor, reload);
+        loadModel(models, EntityMethaneModel.class, worldName, "entityMethaneModel.json", null,
+                () -> new EntityMethaneModel(worldName), executor, reload);
+        loadModel(models, ReductionModel.class, worldName, "reductionModel.json", null,
+                () -> new ReductionModel(gson, worldName), executor, reload);
+        loadModel(models, EntityFitnessModel.class, worldName, "entityFitnessModel.json", null,
+                () -> new EntityFitnessModel(worldName), executor, reload);
+        loadModel(models, CarbonIndexModel.class, worldName, "carbonIndexModel.json", null,
+                () -> new CarbonIndexModel(worldName), executor, reload);
+        return models;
+    }
+
+    private static <T extends Model> void loadModel(Map<String, CompletableFuture<? extends Model>> models, Class<T> type,
+                                                    String worldName, String modelName, Object variant, Supplier<T> factory,
+                                                    Executor executor, boolean reload) {
+        ModelRegistry registry = ModelRegistry.getInstance();
+        models.put(modelName, reload
+                ? registry.reload(type, worldName, modelName, variant, factory, executor)
+                : registry.load(type, worldName, modelName, variant, factory, executor));
+    }
+
+    public Reduction treeGrow(Tree tree, List<BlockState> blocks, boolean bonemealUsed) {
+        //Remove duplicate block states, the last state at a position wins:
+        // - Positions are packed into longs, no Location or map entry per block
+        PackedBlockMap blockMap = TREE_BLOCKS.get();
+        blockMap.clear();
+        for (int i = 0; i < blocks.size(); i++) {
+            BlockState block = blocks.get(i);
+            blockMap.put(PackedBlockMap.pack(block.getX(), block.getY(), block.getZ()), block.getType().ordinal());
+        }
+
+        //Compensated (Neumaier) sum, so the total does not depend on the order of the blocks:
+        double reductionValue = 0;
+        double compensation = 0;
+        int numBlocks = blockMap.size();
+
+        for (int i = 0; i < numBlocks; i++) {
+            double reduction = reductionModel.getReduction(MATERIALS[blockMap.valueAt(i)]);
+            double sum = reductionValue + reduction;
+            if (Math.abs(reductionValue) >= Math.abs(reduction)) {
+                compensation += (reductionValue - sum) + reduction;
+            } else {
+                compensation += (reduction - sum) + reductionValue;
+            }
+
+            reductionValue = sum;
+        }
+
+        reductionValue += compensation;
+
+        if (bonemealUsed && !config.isBonemealReductionAllowed()) {
+            return null;
+        } else if (bonemealUsed) {
+            reductionValue = (reductionValue * config.getBonemealReductionModifier());
+        }
+
+        Integer uniqueId = Platform.getInstance().getRandom().nextId();
+        Reduction reduction = new Reduction();
+        reduction.setUniqueID(uniqueId);
+        reduction.setWorldId(config.getWorldId());
+        reduction.setReductioner(tree.getOwnerId());
+        reduction.setReductionKey(tree.getUniqueId());
+        reduction.setReductionValue((int) reductionValue);
+        reduction.setNumBlocks(numBlocks);
+        return reduction;
+    }
+
+    public Contribution furnaceBurn(Furnace furnace, Material furnaceType, ItemStack fuel) {
+        Contribution contribution = null;
+        if (furnace == null) {
+            GlobalWarming.getInstance().getLogger().severe("Furnace null");
+        } else if (fuel == null) {
+            GlobalWarming.getInstance().getLogger().severe("Fuel null");
+        } else {
+            Integer uniqueId = Platform.getInstance().getRandom().nextId();
+            contribution = new Contribution();
+            contribution.setUniqueID(uniqueId);
+            contribution.setWorldId(config.getWorldId());
+            contribution.setContributer(furnace.getOwnerId());
+            contribution.setContributionKey(furnace.getUniqueId());
+            double contribValue = fuelModel.getContribution(fuel.getType());
+            contribution.setContributionValue((int) contribValue);
+        }
+
+        return contribution;
+    }
+
+    public Contribution methaneRelease(TrackedEntity entity) {
+        Contribution contribution = null;
+        if (entity == null) {
+            GlobalWarming.getInstance().getLogger().severe("Entity null!");
+        } else {
+            Integer uniqueId = Platform.getInstance().getRandom().nextId();
+            contribution = new Contribution();
+            contribution.setUniqueID(uniqueId);
+            contribution.setWorldId(config.getWorldId());
+            contribution.setContributer(entity.getBreederId());
+            contribution.setContributionKey(entity.getUniqueId());
+
+            double contribValue = methaneModel.getContribution(entity.getEntityType());
+            double modifier = config.getMethaneTicksLivedModifier();
+            contribValue += (int) (entity.getTicksLived() / 20 / 60 * modifier);
+            contribution.setContributionValue((int) contribValue);
+        }
+        return contribution;
+    }
+
+    public double getTemperature() {
+        return getClimateState().getTemperature();
+    }
+
+    /**
+     * @return the climate last published by the simulation, see ClimateSimulation
+     * - Computed here only until the first tick, from the current carbon value
+     */
+    public ClimateState getClimateState() {
+        ClimateState state = climateState;
+        if (state == null) {
+            int carbon = carbonValue;
+            state = computeClimateState(climateVersion.get(), carbon, carbon);
+            climateState = state;
+        }
+
+        return state;
+    }
+
+    /**
+     * Set the world's carbon value, the simulation responds on its next tick
+     */
+    public void setCarbonValue(int carbonValue) {
+        this.carbonValue = carbonValue;
+        invalidateClimateState();
+    }
+
+    /**
+     * Mark the climate state stale, e.g., when the world's carbon value or an effect model changes
+     */
+    public void invalidateClimateState() {
+        climateVersion.incrementAndGet();
+    }
+
+    /**
+     * Advance the simulation and publish a new climate state if anything changed
+     * - Called from the climate thread only, see ClimateSimulation
+     * - The effective carbon follows the carbon value with a time constant of [lag] seconds,
+     *   while [decay] absorbs a fraction of it per second: dC/dt = (carbon - C) / lag - decay * C
+     * - With no lag the effective carbon is the carbon value, i.e., an instant response
+     *
+     * @param seconds time since the last tick
+     */
+    public void tick(double seconds, double lag, double decay) {
+        int version = climateVersion.get();
+        double carbon = carbonValue;
+        if (lag <= 0) {
+            effectiveCarbon = carbon;
+        } else {
+            double target = carbon / (1 + decay * lag);
+            if (!simulated) {
+                effectiveCarbon = target;
+            } else {
+                double rate = 1 / lag + decay;
+                effectiveCarbon = target + (effectiveCarbon - target) * Math.exp(-rate * seconds);
+            }
+        }
+
+        //Carbon scores are whole numbers, smaller steps of the response are not published:
+        ClimateState state = climateState;
+        if (!simulated || state == null || state.getVersion() != version
+                || Math.round(effectiveCarbon) != Math.round(state.getEffectiveCarbon())) {
+            climateState = computeClimateState(version, (int) carbon, effectiveCarbon);
+        }
+
+        simulated = true;
+    }
+
+    private ClimateState computeClimateState(int version, int carbonValue, double effectiveCarbon) {
+        ScoreTempModel scoreTempModel = this.scoreTempModel;
+        double temperature = scoreTempModel == null ? 14.0 : scoreTempModel.getTemperature(effectiveCarbon);
+
+        //Effects are shared by all worlds, any of them may be disabled:
+        EffectEngine effectEngine = EffectEngine.getInstance();
+        SeaLevelRise seaLevelRise = effectEngine.getEffect(SeaLevelRise.class, ClimateEffectType.SEA_LEVEL_RISE);
+        SnowForm snowForm = effectEngine.getEffect(SnowForm.class, ClimateEffectType.SNOW_FORMATION);
+        IceForm iceForm = effectEngine.getEffect(IceForm.class, ClimateEffectType.ICE_FORMATION);
+        FarmYield farmYield = effectEngine.getEffect(FarmYield.class, ClimateEffectType.FARM_YIELD);
+
+        int seaLevelDelta = seaLevelRise == null || seaLevelRise.getSeaMap() == null
+                ? 0 : (int) seaLevelRise.getSeaMap().getValue(temperature);
+        double snowHeight = snowForm == null || snowForm.getHeightMap() == null
+                ? Double.NaN : snowForm.getHeightMap().getValue(temperature);
+        double iceHeight = iceForm == null || iceForm.getHeightMap() == null
+                ? Double.NaN : iceForm.getHeightMap().getValue(temperature);
+
+        Map<Material, Double> cropChances = new EnumMap<>(Material.class);
+        if (farmYield != null && farmYield.getCropDistribution() != null) {
+            for (Map.Entry<Material, Distribution> entry : farmYield.getCropDistribution().entrySet()) {
+                cropChances.put(entry.getKey(), entry.getValue().getValue(temperature));
+            }
+        }
+
+        Map<EntityType, Double> spawnChances = new EnumMap<>(EntityType.class);
+        if (entityFitnessModel != null && entityFitnessModel.getEntityFitnessMap() != null) {
+            for (Map.Entry<EntityType, MobDistribution> entry : entityFitnessModel.getEntityFitnessMap().entrySet()) {
+                spawnChances.put(entry.getKey(), entry.getValue().getValue(temperature));
+            }
+        }
+
+        return new ClimateState(
+                version,
+                carbonValue,
+                effectiveCarbon,
+                temperature,
+                formatTemp(temperature),
+                seaLevelDelta,
+                snowHeight,
+                iceHeight,
+                Collections.unmodifiableMap(cropChances),
+                Collections.unmodifiableMap(spawnChances));
+    }
+
+    public String formatTemp(double temp) {
+        return String.format(
+                Lang.SCORE_TEMPERATURE.get(),
+                Colorizer.getTemperatureColor(temp),
+                format.get().format(temp));
+    }
+
+    private static String getWorldName(WorldConfig config) {
+        World world = Bukkit.getWorld(config.getWorldId());
+        return world == null ? null : world.getName();
+    }
+
+    private static ThreadLocal<DecimalFormat> withFormat(String pattern) {
+        return ThreadLocal.withInitial(() -> new DecimalFormat(pattern));
+    }
+
+    public boolean isEffectEnabled(ClimateEffectType type) {
+        return isEnabled() && config.getEnabledEffects().contains(type);
+    }
+
+    public boolean isEnabled() {
+        return this.config.isEnabled();
+    }
+}
@@ -18,6 +18,8 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 
+import java.util.UUID;
+
 public class AttributionListener implements Listener {
 
     private GlobalWarming gw;
@@ -45,14 +47,25 @@ public class AttributionListener implements Listener {
             return;
         }
 
-        //Setup:
+        //Known furnaces and trees stream in at startup, wait for them:
+        // - Otherwise the record loaded for this location would replace the new one
         Location location = event.getBlockPlaced().getLocation();
+        UUID playerId = event.getPlayer().getUniqueId();
+        gw.getTableLoader().whenReady(() -> blockPlaced(bType, location, playerId), isFurnace(bType) ? "furnaces" : "trees");
+    }
+
+    private void blockPlaced(Material bType, Location location, UUID playerId) {
+        //Setup:
         PlayerTable playerTable = gw.getTableManager().getPlayerTable();
-        GPlayer player = playerTable.getOrCreatePlayer(event.getPlayer().getUniqueId());
-        Integer uniqueId = GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE);
+        GPlayer player = playerTable.getOrCreatePlayer(playerId);
+        if (player == null) {
+            return;
+        }
+
+        Integer uniqueId = GlobalWarming.getInstance().getRandom().nextId();
 
         //Block handlers:
-        if (bType == Material.FURNACE || bType == Material.BLAST_FURNACE || bType == Material.SMOKER) {
+        if (isFurnace(bType)) {
             //Furnaces:
             FurnaceTable furnaceTable = gw.getTableManager().getFurnaceTable();
             Furnace furnace = new Furnace(uniqueId, player.getUniqueId(), location, true);
@@ -113,9 +126,15 @@ public class AttributionListener implements Listener {
             return;
         }
 
-        //Delete tracked records:
+        //Known furnaces and trees stream in at startup, wait for them:
+        // - Otherwise the record loaded for this location would bring the broken block back
         Location location = event.getBlock().getLocation();
-        if (bType == Material.FURNACE || bType == Material.BLAST_FURNACE || bType == Material.SMOKER) {
+        gw.getTableLoader().whenReady(() -> blockBroken(bType, location), isFurnace(bType) ? "furnaces" : "trees");
+    }
+
+    private void blockBroken(Material bType, Location location) {
+        //Delete tracked records:
+        if (isFurnace(bType)) {
             //Furnace destroyed:
             // - Any "contribution" records based on a deleted furnace will
             //   no longer be able to look it up (this is OK, just be aware)
@@ -123,7 +142,7 @@ public class AttributionListener implements Listener {
             if (furnaceTable.deleteLocation(location) == null) {
                 gw.getLogger().info(String.format("Untracked furnace destroyed @ %s", location.toString()));
             }
-        } else if (event.getBlock().getType().name().endsWith("SAPLING")) {
+        } else if (bType.name().endsWith("SAPLING")) {
             //Sapling destroyed:
             // - Any "reduction" records based on a deleted sapling will
             //   no longer be able to look it up (this is OK, just be aware)
@@ -133,4 +152,8 @@ public class AttributionListener implements Listener {
             }
         }
     }
+
+    private static boolean isFurnace(Material type) {
+        return type == Material.FURNACE || type == Material.BLAST_FURNACE || type == Material.SMOKER;
+    }
 }
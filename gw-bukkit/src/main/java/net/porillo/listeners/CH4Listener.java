@@ -2,9 +2,7 @@ package net.porillo.listeners;
 
 import net.porillo.GlobalWarming;
 import net.porillo.config.Lang;
-import net.porillo.database.queries.insert.ContributionInsertQuery;
 import net.porillo.database.queries.insert.EntityInsertQuery;
-import net.porillo.database.queries.update.PlayerUpdateQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.database.tables.EntityTable;
 import net.porillo.database.tables.PlayerTable;
@@ -46,10 +44,17 @@ public class CH4Listener implements Listener {
         if (breeder instanceof Player) {
             Player player = (Player) breeder;
             GPlayer gPlayer = playerTable.getOrCreatePlayer(player.getUniqueId());
+            if (gPlayer == null) {
+                return;
+            }
+
             // Track mother, father, and child. Associate the player breeder to them.
-            trackEntity(event.getMother(), gPlayer);
-            trackEntity(event.getFather(), gPlayer);
-            trackEntity(event.getEntity(), gPlayer);
+            // - Known entities stream in at startup, wait for them so none is tracked twice
+            gw.getTableLoader().whenReady(() -> {
+                trackEntity(event.getMother(), gPlayer);
+                trackEntity(event.getFather(), gPlayer);
+                trackEntity(event.getEntity(), gPlayer);
+            }, "entities");
         }
     }
 
@@ -57,7 +62,7 @@ public class CH4Listener implements Listener {
         EntityTable entityTable = gw.getTableManager().getEntityTable();
 
         if (!entityTable.getEntityMap().containsKey(entity.getUniqueId())) {
-            int uniqueId = GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE);
+            int uniqueId = GlobalWarming.getInstance().getRandom().nextId();
             TrackedEntity trackedEntity = new TrackedEntity();
             trackedEntity.setUniqueId(uniqueId);
             trackedEntity.setUuid(entity.getUniqueId());
@@ -75,6 +80,11 @@ public class CH4Listener implements Listener {
 
     @EventHandler
     public void onEntityDeath(EntityDeathEvent event) {
+        //Known entities stream in at startup, a death is attributed once they have loaded:
+        gw.getTableLoader().whenReady(() -> entityDeath(event), "entities");
+    }
+
+    private void entityDeath(EntityDeathEvent event) {
         //Ignore if the entities world-climate is disabled:
         UUID worldId = event.getEntity().getWorld().getUID();
         WorldClimateEngine eventClimateEngine = ClimateEngine.getInstance().getClimateEngine(worldId);
@@ -90,14 +100,15 @@ public class CH4Listener implements Listener {
             entity.setAlive(false);
             int breederID = entity.getBreederId();
             PlayerTable playerTable = gw.getTableManager().getPlayerTable();
-            GPlayer polluter = playerTable.getOrCreatePlayer(playerTable.getUuidMap().get(breederID));
+            //Offline breeders may not be cached in lazy mode, attribute to nobody until they load:
+            UUID breederUUID = playerTable.getUuidMap().get(breederID);
+            GPlayer polluter = breederUUID == null ? null : playerTable.getOrCreatePlayer(breederUUID);
 
             int contributionValue = 0;
             Contribution contribution = eventClimateEngine.methaneRelease(entity);
             if (contribution != null) {
-                //Queue an insert into the contributions table:
-                ContributionInsertQuery insertQuery = new ContributionInsertQuery(contribution);
-                AsyncDBQueue.getInstance().queueInsertQuery(insertQuery);
+                //Add to the contribution rollups:
+                gw.getTableManager().getContributionRollupTable().record(contribution);
                 contributionValue = contribution.getContributionValue();
 
                 // Execute real time player notification if they're subscribed with /gw score alerts
@@ -109,12 +120,7 @@ public class CH4Listener implements Listener {
             //Polluter carbon scores:
             if (polluter != null) {
                 //Increment the polluter's carbon score:
-                int carbonScore = polluter.getCarbonScore();
-                polluter.setCarbonScore(carbonScore + contributionValue);
-
-                //Queue an update to the player table:
-                PlayerUpdateQuery updateQuery = new PlayerUpdateQuery(polluter);
-                AsyncDBQueue.getInstance().queueUpdateQuery(updateQuery);
+                playerTable.updatePlayerCarbonScore(polluter, contributionValue);
             }
 
             //Update the affected world's carbon levels:
@@ -2,11 +2,8 @@ package net.porillo.listeners;
 
 import net.porillo.GlobalWarming;
 import net.porillo.config.Lang;
-import net.porillo.database.queries.insert.ContributionInsertQuery;
 import net.porillo.database.queries.insert.FurnaceInsertQuery;
-import net.porillo.database.queries.insert.ReductionInsertQuery;
 import net.porillo.database.queries.insert.TreeInsertQuery;
-import net.porillo.database.queries.update.PlayerUpdateQuery;
 import net.porillo.database.queries.update.TreeUpdateQuery;
 import net.porillo.database.queue.AsyncDBQueue;
 import net.porillo.database.tables.FurnaceTable;
@@ -43,6 +40,12 @@ public class CO2Listener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onFurnaceSmelt(FurnaceBurnEvent event) {
+        //Known furnaces stream in at startup, until they have loaded every furnace would look untracked:
+        Material furnaceType = event.getBlock().getType();
+        gw.getTableLoader().whenReady(() -> furnaceSmelt(event, furnaceType), "furnaces");
+    }
+
+    private void furnaceSmelt(FurnaceBurnEvent event, Material furnaceType) {
         //Ignore if the block's world-climate is disabled:
         UUID worldId = event.getBlock().getWorld().getUID();
         WorldClimateEngine eventClimateEngine = ClimateEngine.getInstance().getClimateEngine(worldId);
@@ -52,7 +55,6 @@ public class CO2Listener implements Listener {
 
         //Setup:
         Location location = event.getBlock().getLocation();
-        Material furnaceType = event.getBlock().getType();
         FurnaceTable furnaceTable = GlobalWarming.getInstance().getTableManager().getFurnaceTable();
         PlayerTable playerTable = GlobalWarming.getInstance().getTableManager().getPlayerTable();
         Furnace furnace = null;
@@ -68,6 +70,9 @@ public class CO2Listener implements Listener {
             polluter = playerTable.getPlayers().get(uuid);
             if (polluter != null) {
                 affectedWorldId = polluter.getAssociatedWorldId();
+            } else {
+                //Owner not loaded yet (lazy mode), the world's carbon does not wait for the player cache:
+                affectedWorldId = eventClimateEngine.getConfig().getAssociatedWorldId();
             }
         }
 
@@ -82,7 +87,7 @@ public class CO2Listener implements Listener {
             affectedWorldId = eventClimateEngine.getConfig().getAssociatedWorldId();
 
             //Create a new furnace object:
-            int uniqueId = GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE);
+            int uniqueId = GlobalWarming.getInstance().getRandom().nextId();
             furnace = new Furnace(uniqueId, polluter.getUniqueId(), location, true);
 
             //Update all furnace collections:
@@ -107,9 +112,8 @@ public class CO2Listener implements Listener {
             int contributionValue = 0;
             Contribution contribution = eventClimateEngine.furnaceBurn(furnace, furnaceType, event.getFuel());
             if (contribution != null) {
-                //Queue an insert into the contributions table:
-                ContributionInsertQuery insertQuery = new ContributionInsertQuery(contribution);
-                AsyncDBQueue.getInstance().queueInsertQuery(insertQuery);
+                //Add to the contribution rollups:
+                gw.getTableManager().getContributionRollupTable().record(contribution);
                 contributionValue = contribution.getContributionValue();
 
                 // Execute real time player notification if they're subscribed with /gw score alerts
@@ -121,12 +125,7 @@ public class CO2Listener implements Listener {
             //Polluter carbon scores:
             if (polluter != null) {
                 //Increment the polluter's carbon score:
-                int carbonScore = polluter.getCarbonScore();
-                polluter.setCarbonScore(carbonScore + contributionValue);
-
-                //Queue an update to the player table:
-                PlayerUpdateQuery updateQuery = new PlayerUpdateQuery(polluter);
-                AsyncDBQueue.getInstance().queueUpdateQuery(updateQuery);
+                playerTable.updatePlayerCarbonScore(polluter, contributionValue);
             }
 
             //Update the affected world's carbon levels:
@@ -143,6 +142,11 @@ public class CO2Listener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onStructureGrow(StructureGrowEvent event) {
+        //Known trees and bounties stream in at startup, wait for them:
+        gw.getTableLoader().whenReady(() -> structureGrow(event), "trees", "offsets");
+    }
+
+    private void structureGrow(StructureGrowEvent event) {
         //Ignore if the location's world-climate is disabled:
         UUID worldId = event.getLocation().getWorld().getUID();
         WorldClimateEngine eventClimateEngine = ClimateEngine.getInstance().getClimateEngine(worldId);
@@ -177,13 +181,16 @@ public class CO2Listener implements Listener {
             planter = playerTable.getPlayers().get(uuid);
             if (planter != null) {
                 affectedWorldId = planter.getWorldId();
+            } else {
+                //Planter not loaded yet (lazy mode), the world's carbon does not wait for the player cache:
+                affectedWorldId = eventClimateEngine.getConfig().getAssociatedWorldId();
             }
         } else {
             planter = playerTable.getOrCreatePlayer(untrackedUUID);
             affectedWorldId = eventClimateEngine.getConfig().getAssociatedWorldId();
 
             //Create a new tree object:
-            Integer uniqueId = GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE);
+            Integer uniqueId = GlobalWarming.getInstance().getRandom().nextId();
             tree = new Tree(uniqueId, planter.getUniqueId(), location, false, event.getBlocks().size());
 
             //Update all tree collections:
@@ -209,16 +216,16 @@ public class CO2Listener implements Listener {
             if (reduction == null) {
                 return;
             }
-            //Queue an insert into the contributions table:
-            ReductionInsertQuery insertQuery = new ReductionInsertQuery(reduction);
-            AsyncDBQueue.getInstance().queueInsertQuery(insertQuery);
+            //Add to the reduction rollups:
+            gw.getTableManager().getReductionRollupTable().record(reduction);
             int reductionValue = reduction.getReductionValue();
 
             //Carbon scores:
             // - When player's are bounty-hunting the affected player is the bounty-owner,
             //   not the tree-planter
             GPlayer affectedPlayer = planter;
-            OffsetBounty updatedBounty = OffsetBounty.update(planter, event.getBlocks().size());
+            // - Hunters of active bounties are pinned, an unloaded planter is not hunting
+            OffsetBounty updatedBounty = planter == null ? null : OffsetBounty.update(planter, event.getBlocks().size());
             if (updatedBounty != null) {
                 UUID bountyCreator = playerTable.getUuidMap().get(updatedBounty.getCreatorId());
                 affectedPlayer = playerTable.getPlayers().get(bountyCreator);
@@ -226,12 +233,7 @@ public class CO2Listener implements Listener {
 
             if (affectedPlayer != null) {
                 //Increment the planter's carbon score:
-                int carbonScore = affectedPlayer.getCarbonScore();
-                affectedPlayer.setCarbonScore(carbonScore - reductionValue);
-
-                //Queue an update to the player table:
-                PlayerUpdateQuery updateQuery = new PlayerUpdateQuery(affectedPlayer);
-                AsyncDBQueue.getInstance().queueUpdateQuery(updateQuery);
+                playerTable.updatePlayerCarbonScore(affectedPlayer, -reductionValue);
             }
 
             // Execute real time player notification if they're subscribed with /gw score alerts
@@ -12,21 +12,51 @@ import net.porillo.objects.GPlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitRunnable;
 
 @AllArgsConstructor
 public class PlayerListener implements Listener {
 
+    private static final long JOIN_RETRY_TICKS = 100L;
+
     private GlobalWarming gw;
 
+    /**
+     * Load the player's record off the main thread before they join
+     * - Only needed when players are loaded on demand
+     */
+    @EventHandler
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            gw.getTableManager().getPlayerTable().preload(event.getUniqueId());
+        }
+    }
+
     @EventHandler(ignoreCancelled = true)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        join(event.getPlayer());
+    }
+
+    private void join(Player player) {
         //Player lookup:
+        // - NULL when the player's lookup failed, retried until it resolves or they leave
         PlayerTable table = gw.getTableManager().getPlayerTable();
-        Player player = event.getPlayer();
         GPlayer gPlayer = table.getOrCreatePlayer(player.getUniqueId());
+        if (gPlayer == null) {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    if (player.isOnline()) {
+                        join(player);
+                    }
+                }
+            }.runTaskLater(gw, JOIN_RETRY_TICKS);
+            return;
+        }
 
         //First-time players will receive an instructional booklet:
         // - Note: adding it even if the climate-engine is disabled (in case it is enabled later)
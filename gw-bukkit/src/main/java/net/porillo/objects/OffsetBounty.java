@@ -124,7 +124,7 @@ public class OffsetBounty {
             if (isWithdrawn) {
                 //New bounty:
                 OffsetBounty bounty = new OffsetBounty(
-                        GlobalWarming.getInstance().getRandom().nextInt(Integer.MAX_VALUE),
+                        GlobalWarming.getInstance().getRandom().nextId(),
                         gPlayer.getUniqueId(),
                         null,
                         gPlayer.getAssociatedWorldId(),
@@ -158,10 +158,11 @@ public class OffsetBounty {
     public static void show(GPlayer gPlayer) {
         ChatTable chatTable = new ChatTable(Lang.BOUNTY_TITLE.get());
         chatTable.setGridColor(ChatColor.BLUE);
-        chatTable.addHeader(Lang.BOUNTY_PLAYER.get(), (int) (ChatTable.CHAT_WIDTH * 0.268));
-        chatTable.addHeader(Lang.BOUNTY_HUNTER.get(), (int) (ChatTable.CHAT_WIDTH * 0.268));
-        chatTable.addHeader(Lang.BOUNTY_BLOCKS.get(), (int) (ChatTable.CHAT_WIDTH * 0.232));
-        chatTable.addHeader(Lang.BOUNTY_REWARD.get(), (int) (ChatTable.CHAT_WIDTH * 0.232));
+        int width = ChatTable.getChatWidth();
+        chatTable.addHeader(Lang.BOUNTY_PLAYER.get(), (int) (width * 0.268));
+        chatTable.addHeader(Lang.BOUNTY_HUNTER.get(), (int) (width * 0.268));
+        chatTable.addHeader(Lang.BOUNTY_BLOCKS.get(), (int) (width * 0.232));
+        chatTable.addHeader(Lang.BOUNTY_REWARD.get(), (int) (width * 0.232));
 
         try {
             List<Integer> clickIds = new ArrayList<>();
@@ -2,6 +2,7 @@ package net.porillo.util;
 
 import lombok.Getter;
 import net.porillo.GlobalWarming;
+import net.porillo.RandomService.Stream;
 import net.porillo.config.Lang;
 import net.porillo.effect.EffectEngine;
 import net.porillo.effect.api.ClimateEffectType;
@@ -106,14 +107,14 @@ public class CO2Notifications {
 
         try {
             //Get a message based on current conditions:
-            final double random = GlobalWarming.getInstance().getRandom().nextDouble();
+            final double random = GlobalWarming.getInstance().getRandom().get(Stream.NOTIFICATIONS).nextDouble();
             final WorldClimateEngine worldClimateEngine = ClimateEngine.getInstance().getClimateEngine(worldId);
             if (worldClimateEngine != null) {
                 if (worldClimateEngine.isEffectEnabled(ClimateEffectType.FARM_YIELD) && random < 0.1) {
                     //Farm yields (with random materials):
                     final FarmYield farmYield = EffectEngine.getInstance().getEffect(FarmYield.class, ClimateEffectType.FARM_YIELD);
                     final List<Material> keys = new ArrayList<>(farmYield.getCropDistribution().keySet());
-                    final Material randomMaterial = keys.get(GlobalWarming.getInstance().getRandom().nextInt(keys.size()));
+                    final Material randomMaterial = keys.get(GlobalWarming.getInstance().getRandom().get(Stream.NOTIFICATIONS).nextInt(keys.size()));
                     final Distribution distribution = farmYield.getCropDistribution().get(randomMaterial);
                     final double farmYieldFitness = distribution.getValue(temperature);
                     final double normalFarmYieldFitness = distribution.getValue(14.0);
@@ -149,7 +150,7 @@ public class CO2Notifications {
                 } else if (worldClimateEngine.isEffectEnabled(ClimateEffectType.MOB_SPAWN_RATE) && random < 0.4) {
                     //Mob (with random entities):
                     final List<EntityType> keys = new ArrayList<>(worldClimateEngine.getEntityFitnessModel().getEntityFitnessMap().keySet());
-                    final EntityType randomEntity = keys.get(GlobalWarming.getInstance().getRandom().nextInt(keys.size()));
+                    final EntityType randomEntity = keys.get(GlobalWarming.getInstance().getRandom().get(Stream.NOTIFICATIONS).nextInt(keys.size()));
                     final Distribution distribution = worldClimateEngine.getEntityFitnessModel().getEntityFitnessMap().get(randomEntity);
                     final double mobFitness = distribution.getValue(temperature);
                     final double normalMobFitness = distribution.getValue(14.0);
@@ -38,7 +38,6 @@ public class ChatTable {
 
     private enum Alignment {LEFT, CENTER, RIGHT}
 
-    public static final int CHAT_WIDTH = GlobalWarming.getInstance().getConf().getChatTableWidth();
     private final Map<Character, Integer> CHAR_WIDTH;
     @Setter private String title;
     private List<String> headers;
@@ -184,6 +183,13 @@ public class ChatTable {
         CHAR_WIDTH.put(onePixelPad[Section.BODY.get()], 1);
     }
 
+    /**
+     * Table width in pixels, read on use so config reloads apply
+     */
+    public static int getChatWidth() {
+        return GlobalWarming.getInstance().getConf().getChatTableWidth();
+    }
+
     public void setTextColor(Section section, ChatColor color) {
         textColor[section.get()] = color;
     }
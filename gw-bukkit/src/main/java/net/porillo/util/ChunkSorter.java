@@ -0,0 +1,110 @@
+package net.porillo.util;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+
+/**
+ * Picks the loaded chunks nearest to the players
+ * - Distance is the squared horizontal distance from a chunk's center to the nearest player
+ * - Top-k selection with a bounded max-heap over primitive arrays, O(n log k)
+ * - Ties go to the chunk listed first
+ */
+public class ChunkSorter {
+
+    public static List<Chunk> sortByDistance(Chunk[] chunks, List<Player> players, int numChunks) {
+        if (players.size() == 0) {
+            return Arrays.asList(chunks).subList(0, Math.min(numChunks, chunks.length));
+        } else if (chunks.length == 0 || numChunks <= 0) {
+            return Collections.emptyList();
+        }
+
+        //Player positions, read once:
+        final int playerCount = players.size();
+        double[] playerX = new double[playerCount];
+        double[] playerZ = new double[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            Location location = players.get(i).getLocation();
+            playerX[i] = location.getX();
+            playerZ[i] = location.getZ();
+        }
+
+        double[] heapDistance = new double[numChunks];
+        int[] heapIndex = new int[numChunks];
+        int size = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            final double centerX = (chunks[i].getX() << 4) + 8;
+            final double centerZ = (chunks[i].getZ() << 4) + 8;
+            double nearest = Double.MAX_VALUE;
+            for (int p = 0; p < playerCount; p++) {
+                double dx = centerX - playerX[p];
+                double dz = centerZ - playerZ[p];
+                nearest = Math.min(nearest, dx * dx + dz * dz);
+            }
+
+            if (size < numChunks) {
+                //Fill the heap, sifting the new chunk up:
+                int child = size++;
+                while (child > 0) {
+                    int parent = (child - 1) >> 1;
+                    if (!isFarther(nearest, i, heapDistance[parent], heapIndex[parent])) {
+                        break;
+                    }
+
+                    heapDistance[child] = heapDistance[parent];
+                    heapIndex[child] = heapIndex[parent];
+                    child = parent;
+                }
+
+                heapDistance[child] = nearest;
+                heapIndex[child] = i;
+            } else if (isFarther(heapDistance[0], heapIndex[0], nearest, i)) {
+                //Nearer than the farthest kept chunk, replace it:
+                siftDown(heapDistance, heapIndex, size, nearest, i);
+            }
+        }
+
+        //Drain the heap farthest-first into a nearest-first list:
+        Chunk[] selected = new Chunk[size];
+        for (int n = size - 1; n >= 0; n--) {
+            selected[n] = chunks[heapIndex[0]];
+            siftDown(heapDistance, heapIndex, n, heapDistance[n], heapIndex[n]);
+        }
+
+        return Arrays.asList(selected);
+    }
+
+    /**
+     * Place the given entry at the root of the max-heap of the given size and restore the heap order
+     */
+    private static void siftDown(double[] heapDistance, int[] heapIndex, int size, double distance, int index) {
+        int parent = 0;
+        while (true) {
+            int child = (parent << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+
+            if (child + 1 < size && isFarther(heapDistance[child + 1], heapIndex[child + 1], heapDistance[child], heapIndex[child])) {
+                child++;
+            }
+
+            if (!isFarther(heapDistance[child], heapIndex[child], distance, index)) {
+                break;
+            }
+
+            heapDistance[parent] = heapDistance[child];
+            heapIndex[parent] = heapIndex[child];
+            parent = child;
+        }
+
+        heapDistance[parent] = distance;
+        heapIndex[parent] = index;
+    }
+
+    private static boolean isFarther(double distance, int index, double otherDistance, int otherIndex) {
+        return distance > otherDistance || (distance == otherDistance && index > otherIndex);
+    }
+}
@@ -198,8 +198,7 @@ public class GScoreboard {
 
                 //Update the title to show this world's temperature:
                 if (objective != null) {
-                    double temperature = climateEngine.getTemperature();
-                    objective.setDisplayName(climateEngine.formatTemp(temperature));
+                    objective.setDisplayName(climateEngine.getClimateState().getFormattedTemperature());
                 }
             }
         }
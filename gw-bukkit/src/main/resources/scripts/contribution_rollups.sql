@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS contribution_rollups (
+  contributerId INT NOT NULL,
+  contributionKey INT NOT NULL,
+  worldId VARCHAR(36) NOT NULL,
+  bucket BIGINT NOT NULL,
+  value BIGINT NOT NULL,
+  events INT NOT NULL,
+  PRIMARY KEY (contributerId, contributionKey, worldId, bucket)
+);
\ No newline at end of file
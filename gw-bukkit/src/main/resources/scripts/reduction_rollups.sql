@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS reduction_rollups (
+  reductionerId INT NOT NULL,
+  reductionKey INT NOT NULL,
+  worldId VARCHAR(36) NOT NULL,
+  bucket BIGINT NOT NULL,
+  value BIGINT NOT NULL,
+  events INT NOT NULL,
+  PRIMARY KEY (reductionerId, reductionKey, worldId, bucket)
+);
\ No newline at end of file
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS schema_version (
+  version INT PRIMARY KEY,
+  description VARCHAR(255) NOT NULL,
+  checksum BIGINT NOT NULL,
+  installedOn BIGINT NOT NULL
+);
\ No newline at end of file
@@ -0,0 +1,123 @@
+package net.porillo.database;
+
+import net.porillo.database.api.DeltaQuery;
+import net.porillo.database.queries.update.WorldCarbonDeltaQuery;
+import net.porillo.database.queue.WriteCoalescer;
+import org.h2.tools.Server;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Two servers sharing one H2 server-mode database, each flushing its own deltas
+ */
+public class CarbonDeltaTest {
+
+    private static final int WORLD_ID = 42;
+    private static final int FLUSHES = 50;
+    private static final int DELTAS_PER_FLUSH = 20;
+
+    private Server server;
+    private ConnectionManager first, second;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        first = new ConnectionManager("H2_SERVER", "localhost", server.getPort(), "mem:carbon_delta_test", "sa", "");
+        second = new ConnectionManager("H2_SERVER", "localhost", server.getPort(), "mem:carbon_delta_test", "sa", "");
+
+        try (Connection connection = first.openConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE worlds (uniqueId INT PRIMARY KEY, carbonValue INT)");
+            statement.execute(String.format("INSERT INTO worlds VALUES (%d, 100)", WORLD_ID));
+        }
+    }
+
+    @AfterClass
+    public void stopServer() {
+        first.close();
+        second.close();
+        server.stop();
+    }
+
+    @Test
+    public void testDeltasAreSummed() {
+        WriteCoalescer<DeltaQuery> coalescer = new WriteCoalescer<>();
+        for (int i = 0; i < 100; i++) {
+            coalescer.merge(new WorldCarbonDeltaQuery(i % 2, i % 2 == 0 ? 1 : -1), DeltaQuery::plus);
+        }
+
+        assertThat("deltas were not grouped by row", coalescer.size() == 2);
+        assertThat("delta is wrong", coalescer.poll().getDelta() == 50);
+        assertThat("negative delta is wrong", coalescer.poll().getDelta() == -50);
+    }
+
+    @Test
+    public void testConcurrentServersKeepEveryChange() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread[] servers = {
+                new Thread(() -> flush(first, 1, start, failure)),
+                new Thread(() -> flush(second, 2, start, failure))
+        };
+
+        for (Thread thread : servers) {
+            thread.start();
+        }
+
+        start.countDown();
+        for (Thread thread : servers) {
+            thread.join();
+        }
+
+        assertThat("a server failed to flush: " + failure.get(), failure.get() == null);
+
+        int expected = 100 + FLUSHES * DELTAS_PER_FLUSH * (1 + 2);
+        try (Connection connection = first.openConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT carbonValue FROM worlds WHERE uniqueId = ?")) {
+            statement.setInt(1, WORLD_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                assertThat("world row is missing", rs.next());
+                assertThat("a server overwrote the other's changes", rs.getInt(1) == expected);
+            }
+        }
+    }
+
+    /**
+     * One server: coalesce each flush's changes and commit them, as AsyncDBQueue does
+     */
+    private static void flush(ConnectionManager connectionManager, int value, CountDownLatch start, AtomicReference<Exception> failure) {
+        try {
+            start.await();
+            for (int i = 0; i < FLUSHES; i++) {
+                WriteCoalescer<DeltaQuery> pending = new WriteCoalescer<>();
+                for (int j = 0; j < DELTAS_PER_FLUSH; j++) {
+                    pending.merge(new WorldCarbonDeltaQuery(WORLD_ID, value), DeltaQuery::plus);
+                }
+
+                try (Connection connection = connectionManager.openConnection()) {
+                    connection.setAutoCommit(false);
+                    for (DeltaQuery query = pending.poll(); query != null; query = pending.poll()) {
+                        try (PreparedStatement statement = query.prepareStatement(connection)) {
+                            statement.executeUpdate();
+                        }
+                    }
+
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (InterruptedException | SQLException | ClassNotFoundException e) {
+            failure.set(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package net.porillo.database;
+
+import net.porillo.database.api.PreparedQuery;
+import net.porillo.database.queries.insert.PlayerInsertQuery;
+import net.porillo.database.queries.update.PlayerUpdateQuery;
+import net.porillo.database.queue.QueryJournal;
+import net.porillo.objects.GPlayer;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class QueryJournalTest {
+
+    @Test
+    public void testJournalSurvivesReopen() throws IOException {
+        File file = File.createTempFile("queue", ".journal");
+        file.deleteOnExit();
+
+        // A small initial capacity forces the mapping to grow
+        QueryJournal journal = new QueryJournal(file, 256);
+        for (int i = 0; i < 100; i++) {
+            journal.append(new PlayerInsertQuery(new GPlayer(i, UUID.randomUUID(), 0L, i, UUID.randomUUID())));
+        }
+
+        GPlayer gPlayer = new GPlayer(7, UUID.randomUUID(), 0L, 99, UUID.randomUUID());
+        journal.append(new PlayerUpdateQuery(gPlayer));
+
+        // Reopen without closing, as if the server had crashed
+        List<PreparedQuery> records = new QueryJournal(file, 256).readAll();
+        assertThat("records were lost", records.size() == 101);
+        assertThat("wrong table", records.get(100).getTable().equals("players"));
+        assertThat("wrong sql", records.get(100).getSQL().equals(new PlayerUpdateQuery(gPlayer).getSQL()));
+    }
+
+    @Test
+    public void testTruncateKeepsLaterRecords() throws IOException {
+        File file = File.createTempFile("queue", ".journal");
+        file.deleteOnExit();
+
+        QueryJournal journal = new QueryJournal(file, 256);
+        for (int i = 0; i < 10; i++) {
+            journal.append(new PlayerInsertQuery(new GPlayer(i, UUID.randomUUID(), 0L, i, UUID.randomUUID())));
+        }
+
+        long checkpoint = journal.checkpoint();
+        for (int i = 10; i < 15; i++) {
+            journal.append(new PlayerInsertQuery(new GPlayer(i, UUID.randomUUID(), 0L, i, UUID.randomUUID())));
+        }
+
+        journal.truncate(checkpoint);
+        assertThat("truncate kept flushed records", journal.readAll().size() == 5);
+
+        journal.truncate(journal.checkpoint());
+        assertThat("journal was not emptied", journal.getPendingBytes() == 0);
+        journal.close();
+    }
+
+    @Test
+    public void testCompactionKeepsPendingRecords() throws IOException {
+        File file = File.createTempFile("queue", ".journal");
+        file.deleteOnExit();
+
+        // Fill most of the mapping, then keep only the last two records
+        QueryJournal journal = new QueryJournal(file, 4096);
+        long checkpoint = 0;
+        while (journal.checkpoint() < 3072) {
+            checkpoint = journal.checkpoint();
+            append(journal, (int) journal.getSequence());
+        }
+
+        append(journal, (int) journal.getSequence());
+        journal.truncate(checkpoint);
+
+        // The two records fit before the start, so they are moved instead of the mapping growing
+        long before = header(file, END);
+        while (header(file, START) > HEADER_SIZE) {
+            before = header(file, END);
+            append(journal, (int) journal.getSequence());
+        }
+
+        int pending = journal.readAll().size();
+        assertThat("records were lost", pending > 2 && pending == new QueryJournal(file, 4096).readAll().size());
+        assertThat("mapping grew", file.length() == 4096);
+
+        // A crash after the start moved, before the end did
+        long end = header(file, END);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(end);
+            raf.writeInt(0);
+            raf.seek(END);
+            raf.writeLong(before);
+        }
+
+        QueryJournal restarted = new QueryJournal(file, 4096);
+        assertThat("stale records were read", restarted.readAll().size() == pending);
+        append(restarted, 1000);
+        assertThat("append after a crash was lost", restarted.readAll().size() == pending + 1);
+        restarted.close();
+    }
+
+    @Test
+    public void testOverlappingRecordsAreNotCompacted() throws IOException {
+        File file = File.createTempFile("queue", ".journal");
+        file.deleteOnExit();
+
+        QueryJournal journal = new QueryJournal(file, 4096);
+        append(journal, 0);
+        long checkpoint = journal.checkpoint();
+        append(journal, 1);
+        journal.truncate(checkpoint);
+
+        // Most records are pending, moving them would overwrite the ones the header points at
+        while (journal.checkpoint() < 4096) {
+            append(journal, (int) journal.getSequence());
+        }
+
+        assertThat("records were compacted", header(file, START) == checkpoint);
+        assertThat("mapping did not grow", file.length() > 4096);
+        assertThat("records were lost", journal.readAll().size() == journal.getSequence() - 1);
+        journal.close();
+    }
+
+    private static final int HEADER_SIZE = 36, START = 4, END = 12;
+
+    private static void append(QueryJournal journal, int id) {
+        journal.append(new PlayerInsertQuery(new GPlayer(id, UUID.randomUUID(), 0L, id, UUID.randomUUID())));
+    }
+
+    private static long header(File file, int offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(offset);
+            return raf.readLong();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.porillo.database;
+
+import net.porillo.database.queries.other.SchemaMigrationQuery;
+import net.porillo.database.tables.SchemaVersionTable;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SchemaMigrationTest {
+
+    private Connection connection;
+
+    @BeforeClass
+    public void setUp() throws SQLException, IOException, URISyntaxException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:migration_test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"contribution_rollups", "reduction_rollups", "furnaces", "trees", "offsets", "schema_version"}) {
+                statement.execute(new String(Files.readAllBytes(
+                        Paths.get(getClass().getResource(String.format("/scripts/%s.sql", table)).toURI()))));
+            }
+        }
+    }
+
+    @AfterClass
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testMigrationsHoldOneStatement() {
+        for (SchemaMigrationQuery migration : SchemaVersionTable.getMigrations()) {
+            assertThat(String.format("%s is not a single statement", migration.getName()), migration.getStatements().size() == 1);
+        }
+    }
+
+    @Test
+    public void testMigrationsApplyOnce() throws SQLException {
+        for (SchemaMigrationQuery migration : SchemaVersionTable.getMigrations()) {
+            assertThat(String.format("%s was not applied", migration.getName()), migration.migrate(connection));
+        }
+
+        for (SchemaMigrationQuery migration : SchemaVersionTable.getMigrations()) {
+            assertThat(String.format("%s was applied twice", migration.getName()), !migration.migrate(connection));
+        }
+
+        try (ResultSet rs = connection.createStatement().executeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_FURNACES_LOCATION'")) {
+            assertThat("location index is missing", rs.next() && rs.getInt(1) > 0);
+        }
+
+        try (ResultSet rs = connection.createStatement().executeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_CONTRIBUTION_ROLLUPS_WORLD'")) {
+            assertThat("rollup index is missing", rs.next() && rs.getInt(1) > 0);
+        }
+    }
+
+    @Test(dependsOnMethods = "testMigrationsApplyOnce", expectedExceptions = SQLException.class)
+    public void testChangedMigrationIsRejected() throws SQLException {
+        connection.createStatement().executeUpdate("UPDATE schema_version SET checksum = checksum + 1 WHERE version = 1");
+        SchemaVersionTable.getMigrations().get(0).migrate(connection);
+    }
+}
@@ -10,7 +10,8 @@ public class TableSelectTest {
 
     @Test
     public void testTableSelections() throws SQLException, ClassNotFoundException {
-        Connection connection = TestUtility.getInstance().getConnectionManager().openConnection();
-        AsyncDBQueue.getInstance().writeSelectQueue(connection);
+        try (Connection connection = TestUtility.getInstance().getConnectionManager().openConnection()) {
+            AsyncDBQueue.getInstance().writeSelectQueue(connection);
+        }
     }
 }
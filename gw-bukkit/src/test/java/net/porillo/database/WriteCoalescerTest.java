@@ -0,0 +1,73 @@
+package net.porillo.database;
+
+import net.porillo.database.api.RollupQuery;
+import net.porillo.database.api.UpdateQuery;
+import net.porillo.database.queries.delete.TreeDeleteQuery;
+import net.porillo.database.queries.insert.ContributionRollupQuery;
+import net.porillo.database.queries.insert.PlayerInsertQuery;
+import net.porillo.database.queries.insert.TreeInsertQuery;
+import net.porillo.database.queries.update.PlayerUpdateQuery;
+import net.porillo.database.queue.AsyncDBQueue;
+import net.porillo.database.queue.WriteCoalescer;
+import net.porillo.objects.Contribution;
+import net.porillo.objects.GPlayer;
+import net.porillo.objects.Tree;
+import org.testng.annotations.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WriteCoalescerTest {
+
+    @Test
+    public void testLastWriterWins() {
+        WriteCoalescer<UpdateQuery<?>> coalescer = new WriteCoalescer<>();
+        GPlayer first = new GPlayer(1, UUID.randomUUID(), 0L, 0, UUID.randomUUID());
+        GPlayer second = new GPlayer(2, UUID.randomUUID(), 0L, 0, UUID.randomUUID());
+
+        coalescer.offer(new PlayerUpdateQuery(first));
+        coalescer.offer(new PlayerUpdateQuery(second));
+        for (int i = 0; i < 10; i++) {
+            // Distinct objects with the same primary key are the same row
+            coalescer.offer(new PlayerUpdateQuery(new GPlayer(1, first.getUuid(), 0L, i, first.getWorldId())));
+        }
+
+        assertThat("rows were not coalesced", coalescer.size() == 2);
+        assertThat("first-write order was lost", ((GPlayer) coalescer.poll().getObject()).getCarbonScore() == 9);
+        assertThat("second row is missing", coalescer.poll().getObject() == second);
+        assertThat("coalescer is not empty", coalescer.poll() == null);
+    }
+
+    @Test
+    public void testRollupsAreSummed() {
+        WriteCoalescer<RollupQuery> coalescer = new WriteCoalescer<>();
+        UUID worldId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            Contribution contribution = new Contribution(i, 1, i % 2, worldId, 3);
+            coalescer.merge(new ContributionRollupQuery(contribution, now), RollupQuery::plus);
+        }
+
+        assertThat("rollups were not grouped by source key", coalescer.size() == 2);
+        RollupQuery rollup = coalescer.poll();
+        assertThat("rollup value is wrong", rollup.getValue() == 150);
+        assertThat("rollup count is wrong", rollup.getEvents() == 50);
+    }
+
+    @Test
+    public void testInsertAbsorbsUpdateAndDeleteCancelsInsert() {
+        AsyncDBQueue queue = AsyncDBQueue.getInstance();
+        GPlayer gPlayer = new GPlayer(Integer.MIN_VALUE, UUID.randomUUID(), 0L, 0, UUID.randomUUID());
+        queue.queueInsertQuery(new PlayerInsertQuery(gPlayer));
+        queue.queueUpdateQuery(new PlayerUpdateQuery(gPlayer));
+        assertThat("update was not folded into the insert", !queue.getUpdateQueue().contains(new PlayerUpdateQuery(gPlayer)));
+
+        Tree tree = new Tree(Integer.MIN_VALUE, 0, null, true, 0);
+        queue.queueInsertQuery(new TreeInsertQuery(tree));
+        queue.queueDeleteQuery(new TreeDeleteQuery(tree));
+        assertThat("delete did not cancel the pending insert", !queue.getDeleteQueue().contains(new TreeDeleteQuery(tree)));
+
+        queue.getInsertQueue().remove(new PlayerInsertQuery(gPlayer));
+    }
+}
@@ -0,0 +1,152 @@
+package net.porillo.effect.negative;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.stream.Stream;
+
+import static net.porillo.effect.storage.ChunkRegionData.chunkKey;
+
+@Test
+public class SeaLevelChunksTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("gw-chunks");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testConvergedChunksAreNotQueuedAfterRestart() {
+        Path path = directory.resolve(SeaLevelChunks.FILE_NAME);
+        SeaLevelChunks chunks = new SeaLevelChunks(path);
+        Assert.assertTrue(chunks.update(64, false));
+        chunks.converge(0, 0, 64);
+        chunks.converge(-3, 7, 63);
+        Assert.assertEquals(chunks.save(), 2);
+        Assert.assertEquals(chunks.save(), 0);
+
+        SeaLevelChunks restarted = new SeaLevelChunks(path);
+        restarted.load();
+        Assert.assertTrue(restarted.update(64, false));
+        restarted.queue(0, 0);
+        restarted.queue(-3, 7);
+        restarted.queue(1, 0);
+        Assert.assertFalse(restarted.getPending().contains(chunkKey(0, 0)));
+        Assert.assertTrue(restarted.getPending().contains(chunkKey(-3, 7)));
+        Assert.assertTrue(restarted.getPending().contains(chunkKey(1, 0)));
+
+        restarted.unqueue(1, 0);
+        Assert.assertFalse(restarted.getPending().contains(chunkKey(1, 0)));
+    }
+
+    @Test
+    public void testRegionIsWrittenWhenItsLastChunkUnloads() {
+        Path path = directory.resolve(SeaLevelChunks.FILE_NAME);
+        SeaLevelChunks chunks = new SeaLevelChunks(path);
+        chunks.update(64, false);
+        chunks.load(0, 0);
+        chunks.load(31, 31);
+        chunks.converge(0, 0, 64);
+
+        chunks.unload(0, 0);
+        Assert.assertEquals(chunks.size(), 1);
+        chunks.unload(31, 31);
+        Assert.assertEquals(chunks.size(), 0);
+
+        //Written on unload, not only on save:
+        SeaLevelChunks restarted = new SeaLevelChunks(path);
+        restarted.update(64, false);
+        Assert.assertTrue(restarted.isConverged(0, 0, 64));
+    }
+
+    @Test
+    public void testConvergedChunksAreUnqueuedOnceRead() {
+        Path path = directory.resolve(SeaLevelChunks.FILE_NAME);
+        SeaLevelChunks stored = new SeaLevelChunks(path);
+        stored.converge(0, 0, 64);
+        stored.converge(2, 0, 64);
+        stored.save();
+
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        SeaLevelChunks chunks = new SeaLevelChunks(path, tasks::add, tasks::add);
+        chunks.update(64, false);
+        chunks.load(0, 0);
+        chunks.load(1, 0);
+        chunks.converge(1, 0, 64);
+        Assert.assertTrue(chunks.getPending().contains(chunkKey(0, 0)));
+
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+
+        Assert.assertFalse(chunks.getPending().contains(chunkKey(0, 0)));
+        Assert.assertTrue(chunks.isConverged(1, 0, 64));
+        Assert.assertTrue(chunks.isConverged(2, 0, 64));
+    }
+
+    @Test
+    public void testRepairOutlivesTheRegionFiles() {
+        Path path = directory.resolve(SeaLevelChunks.FILE_NAME);
+        SeaLevelChunks chunks = new SeaLevelChunks(path);
+        chunks.update(64, false);
+        chunks.converge(0, 0, 64);
+        chunks.save();
+
+        //The region file is older than the repair:
+        chunks.update(64, true);
+        SeaLevelChunks restarted = new SeaLevelChunks(path);
+        restarted.load();
+        Assert.assertFalse(restarted.isConverged(0, 0, 64));
+    }
+
+    @Test
+    public void testVersionOneFileIsMigrated() throws IOException {
+        Path path = directory.resolve(SeaLevelChunks.FILE_NAME);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x4757534C);
+            out.writeInt(1);
+            out.writeBoolean(false);
+            out.writeInt(1);
+            out.writeLong(chunkKey(-40, 3));
+            out.writeInt(70);
+        }
+
+        new SeaLevelChunks(path).load();
+        SeaLevelChunks restarted = new SeaLevelChunks(path);
+        restarted.load();
+        Assert.assertTrue(restarted.isConverged(-40, 3, 70));
+        Assert.assertFalse(restarted.isConverged(-40, 4, 70));
+    }
+
+    @Test
+    public void testOnlyChangesAreReported() {
+        SeaLevelChunks chunks = new SeaLevelChunks(directory.resolve(SeaLevelChunks.FILE_NAME));
+        Assert.assertTrue(chunks.update(62, false));
+        Assert.assertFalse(chunks.update(62, false));
+        Assert.assertTrue(chunks.update(63, false));
+        chunks.converge(0, 0, 63);
+        Assert.assertTrue(chunks.isConverged(0, 0, 63));
+
+        //A repair forgets converged chunks, even at the same sea level:
+        Assert.assertTrue(chunks.update(63, true));
+        Assert.assertFalse(chunks.isConverged(0, 0, 63));
+    }
+}
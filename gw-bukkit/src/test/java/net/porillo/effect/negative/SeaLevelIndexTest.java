@@ -0,0 +1,146 @@
+package net.porillo.effect.negative;
+
+import net.porillo.effect.storage.ChunkRegionData;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.stream.Stream;
+
+@Test
+public class SeaLevelIndexTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("gw-index").resolve(SeaLevelIndex.FILE_NAME);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.getParent())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testTagsAreExact() {
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        index.tag(-1, 63, 0);
+        index.tag(15, 64, -16);
+
+        Assert.assertTrue(index.isTagged(-1, 63, 0));
+        Assert.assertTrue(index.isTagged(15, 64, -16));
+        Assert.assertFalse(index.isTagged(-1, 64, 0));
+        Assert.assertFalse(index.isTagged(15, 63, -16));
+        Assert.assertFalse(index.isTagged(-17, 63, 0));
+        Assert.assertFalse(index.isTagged(0, 300, 0));
+
+        index.untag(-1, 63, 0);
+        Assert.assertFalse(index.isTagged(-1, 63, 0));
+    }
+
+    @Test
+    public void testCopyIsDetached() {
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        Assert.assertNull(index.copy(0, 0));
+
+        index.tag(3, 63, 4);
+        SeaLevelIndex.ChunkBits copy = index.copy(0, 0);
+        index.untag(3, 63, 4);
+        index.tag(3, 64, 4);
+
+        Assert.assertTrue(copy.isTagged(3, 63, 4));
+        Assert.assertFalse(copy.isTagged(3, 64, 4));
+        Assert.assertFalse(copy.isTagged(3, 300, 4));
+    }
+
+    @Test
+    public void testUnloadReleasesAndPersists() {
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        index.tag(5, 70, 5);
+        index.tag(20, 62, 5);
+        Assert.assertEquals(index.size(), 2);
+
+        index.unload(0, 0);
+        Assert.assertEquals(index.size(), 1);
+        Assert.assertFalse(index.isTagged(5, 70, 5));
+        Assert.assertEquals(index.save(), 1);
+
+        SeaLevelIndex reopened = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        reopened.load(0, 0);
+        reopened.load(1, 0);
+        Assert.assertTrue(reopened.isTagged(5, 70, 5));
+        Assert.assertTrue(reopened.isTagged(20, 62, 5));
+        Assert.assertEquals(reopened.save(), 0);
+    }
+
+    @Test
+    public void testChangesWhileLoadingSurviveTheRead() {
+        SeaLevelIndex stored = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        stored.tag(1, 63, 1);
+        stored.tag(2, 63, 2);
+        stored.unload(0, 0);
+
+        //Reads and their merges only run when drained:
+        Queue<Runnable> io = new ArrayDeque<>();
+        Queue<Runnable> main = new ArrayDeque<>();
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256, io::add, main::add);
+        index.load(0, 0);
+        Assert.assertTrue(index.isLoading(0, 0));
+        index.untag(1, 63, 1);
+        index.tag(3, 63, 3);
+
+        drain(io);
+        drain(main);
+        Assert.assertFalse(index.isLoading(0, 0));
+        Assert.assertFalse(index.isTagged(1, 63, 1));
+        Assert.assertTrue(index.isTagged(2, 63, 2));
+        Assert.assertTrue(index.isTagged(3, 63, 3));
+    }
+
+    @Test
+    public void testUnloadWhileLoadingKeepsStoredBlocks() {
+        SeaLevelIndex stored = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        stored.tag(1, 63, 1);
+        stored.unload(0, 0);
+
+        Queue<Runnable> io = new ArrayDeque<>();
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256, io::add, io::add);
+        index.tag(4, 63, 4);
+        index.unload(0, 0);
+        drain(io);
+
+        SeaLevelIndex reopened = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        reopened.load(0, 0);
+        Assert.assertTrue(reopened.isTagged(1, 63, 1));
+        Assert.assertTrue(reopened.isTagged(4, 63, 4));
+    }
+
+    @Test
+    public void testMergeKeepsExistingBlocks() throws IOException {
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(directory), 256);
+        index.tag(1, 65, 1);
+        index.unload(0, 0);
+        index.merge(0, 0, Collections.singleton(SeaLevelPlan.pack(2, 66, 2)));
+
+        index.load(0, 0);
+        Assert.assertTrue(index.isTagged(1, 65, 1));
+        Assert.assertTrue(index.isTagged(2, 66, 2));
+    }
+
+    private static void drain(Queue<Runnable> tasks) {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package net.porillo.effect.negative;
+
+import net.porillo.effect.storage.ChunkRegionData;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Test
+public class SeaLevelPlanTest {
+
+    private static final int BASE = 62;
+    private static final int MAX = 70;
+
+    /**
+     * A column of water up to the given height and air above it, at x = z = 0; stone elsewhere
+     */
+    private static ChunkSnapshot column(int waterTop) {
+        return (ChunkSnapshot) Proxy.newProxyInstance(
+                SeaLevelPlanTest.class.getClassLoader(),
+                new Class<?>[]{ChunkSnapshot.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWorldName":
+                            return "world";
+                        case "getX":
+                        case "getZ":
+                            return 0;
+                        case "getBlockType":
+                            if ((int) args[0] != 0 || (int) args[2] != 0) {
+                                return Material.STONE;
+                            }
+                            return (int) args[1] <= waterTop ? Material.WATER : Material.AIR;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static List<String> changes(SeaLevelPlan plan) {
+        List<String> changes = new ArrayList<>();
+        while (plan.hasNext()) {
+            int change = plan.next();
+            changes.add(String.format("%s%s %d,%d,%d",
+                    SeaLevelPlan.isDrain(change) ? "drain" : "rise",
+                    SeaLevelPlan.isTaggedOnly(change) ? "?" : "",
+                    SeaLevelPlan.x(change), SeaLevelPlan.y(change), SeaLevelPlan.z(change)));
+        }
+
+        return changes;
+    }
+
+    @Test
+    public void testRiseFillsAirUpToSeaLevel() {
+        SeaLevelPlan plan = SeaLevelPlan.scan(column(BASE), BASE, MAX, BASE + 2, false, null);
+        Assert.assertEquals(changes(plan), Arrays.asList("rise 0,63,0", "rise 0,64,0"));
+    }
+
+    @Test
+    public void testFallOnlyDrainsTaggedWaterAboveSeaLevel() {
+        SeaLevelPlan plan = SeaLevelPlan.scan(column(BASE + 3), BASE, MAX, BASE + 1, false, null);
+        Assert.assertEquals(changes(plan), Arrays.asList("drain? 0,64,0", "drain? 0,65,0"));
+    }
+
+    @Test
+    public void testRepairDrainsEverythingAboveBase() {
+        SeaLevelPlan plan = SeaLevelPlan.scan(column(BASE + 2), BASE, MAX, BASE + 2, true, null);
+        Assert.assertEquals(changes(plan), Arrays.asList("drain 0,63,0", "drain 0,64,0"));
+    }
+
+    @Test
+    public void testConvergedChunkHasNoChanges() {
+        Assert.assertEquals(SeaLevelPlan.scan(column(BASE + 2), BASE, MAX, BASE + 2, false, null).size(), 0);
+    }
+
+    @Test
+    public void testFallSkipsUntaggedWater() throws IOException {
+        //Only the top block was raised by the plugin, the one below is natural water:
+        SeaLevelIndex index = new SeaLevelIndex(new ChunkRegionData(Files.createTempDirectory("gw-plan")), MAX);
+        index.tag(0, BASE + 3, 0);
+
+        SeaLevelPlan plan = SeaLevelPlan.scan(column(BASE + 3), BASE, MAX, BASE + 1, false, index.copy(0, 0));
+        Assert.assertEquals(changes(plan), Collections.singletonList("drain? 0,65,0"));
+    }
+
+    @Test
+    public void testNegativeHeightsRoundTrip() {
+        int change = SeaLevelPlan.pack(15, -64, 7);
+        Assert.assertEquals(SeaLevelPlan.x(change), 15);
+        Assert.assertEquals(SeaLevelPlan.y(change), -64);
+        Assert.assertEquals(SeaLevelPlan.z(change), 7);
+        Assert.assertFalse(SeaLevelPlan.isDrain(change));
+    }
+}
@@ -0,0 +1,76 @@
+package net.porillo.effect.storage;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+@Test
+public class ChunkRegionDataTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("gw-regions").resolve("seaLevelBlocks");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.getParent())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRecordsSurviveReopening() throws IOException {
+        ChunkRegionData data = new ChunkRegionData(directory);
+        data.write(0, 0, new int[]{1, 2, 3});
+        data.write(-1, 31, new int[]{4});
+        data.write(32, -33, new int[]{5, 6});
+
+        ChunkRegionData reopened = new ChunkRegionData(directory);
+        Assert.assertEquals(reopened.read(0, 0), new int[]{1, 2, 3});
+        Assert.assertEquals(reopened.read(-1, 31), new int[]{4});
+        Assert.assertEquals(reopened.read(32, -33), new int[]{5, 6});
+        Assert.assertEquals(reopened.read(1, 0), new int[0]);
+    }
+
+    @Test
+    public void testRewritesAndRemovalsAreCompacted() throws IOException {
+        ChunkRegionData data = new ChunkRegionData(directory);
+        Random random = new Random(0);
+        int[][] expected = new int[32][];
+        for (int round = 0; round < 200; round++) {
+            int chunk = random.nextInt(expected.length);
+            int[] record = random.ints(random.nextInt(500)).toArray();
+            data.write(chunk, 0, record);
+            expected[chunk] = record;
+        }
+
+        ChunkRegionData reopened = new ChunkRegionData(directory);
+        long liveBytes = 0;
+        for (int chunk = 0; chunk < expected.length; chunk++) {
+            int[] record = expected[chunk] == null ? new int[0] : expected[chunk];
+            Assert.assertEquals(reopened.read(chunk, 0), record);
+            liveBytes += record.length * 4;
+        }
+
+        Assert.assertTrue(Files.size(directory.resolve("r.0.0.dat")) <= 2 * (8 + 1024 * 8 + liveBytes) + 4096);
+    }
+
+    @Test
+    public void testChunkKeyRoundTrip() {
+        long key = ChunkRegionData.chunkKey(-1875000, 1875000);
+        Assert.assertEquals(ChunkRegionData.chunkX(key), -1875000);
+        Assert.assertEquals(ChunkRegionData.chunkZ(key), 1875000);
+        Assert.assertNotEquals(ChunkRegionData.chunkKey(1, 0), ChunkRegionData.chunkKey(0, 1));
+    }
+}
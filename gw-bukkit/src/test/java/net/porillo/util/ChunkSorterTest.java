@@ -0,0 +1,123 @@
+package net.porillo.util;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class ChunkSorterTest {
+
+    private static Chunk chunk(int x, int z) {
+        return (Chunk) Proxy.newProxyInstance(
+                ChunkSorterTest.class.getClassLoader(),
+                new Class<?>[]{Chunk.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getX":
+                            return x;
+                        case "getZ":
+                            return z;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return String.format("[%d, %d]", x, z);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Player player(double x, double z) {
+        return (Player) Proxy.newProxyInstance(
+                ChunkSorterTest.class.getClassLoader(),
+                new Class<?>[]{Player.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getLocation") && args == null) {
+                        return new Location(null, x, 64, z);
+                    }
+
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * The full sort the top-k selection replaces: nearest first, ties to the chunk listed first
+     */
+    private static List<Chunk> fullSort(Chunk[] chunks, List<Player> players, int numChunks) {
+        List<Integer> order = new ArrayList<>();
+        double[] distance = new double[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            order.add(i);
+            distance[i] = Double.MAX_VALUE;
+            for (Player player : players) {
+                double dx = (chunks[i].getX() << 4) + 8 - player.getLocation().getX();
+                double dz = (chunks[i].getZ() << 4) + 8 - player.getLocation().getZ();
+                distance[i] = Math.min(distance[i], dx * dx + dz * dz);
+            }
+        }
+
+        //Stable, so equal distances keep the listed order:
+        order.sort(Comparator.comparingDouble(i -> distance[i]));
+        List<Chunk> sorted = new ArrayList<>();
+        for (int i = 0; i < Math.min(numChunks, order.size()); i++) {
+            sorted.add(chunks[order.get(i)]);
+        }
+
+        return sorted;
+    }
+
+    @Test
+    public void testMatchesFullSort() {
+        Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            //A small area, so many chunks are the same distance from a player:
+            Chunk[] chunks = new Chunk[random.nextInt(40)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = chunk(random.nextInt(9) - 4, random.nextInt(9) - 4);
+            }
+
+            List<Player> players = new ArrayList<>();
+            for (int p = random.nextInt(4); p > 0; p--) {
+                players.add(player((random.nextInt(9) - 4) << 4, (random.nextInt(9) - 4) << 4));
+            }
+
+            int numChunks = random.nextInt(chunks.length + 10);
+            Assert.assertEquals(ChunkSorter.sortByDistance(chunks, players, numChunks),
+                    fullSort(chunks, players, numChunks),
+                    String.format("run %d: %d chunks, %d players, %d requested", run, chunks.length, players.size(), numChunks));
+        }
+    }
+
+    @Test
+    public void testTiesGoToTheChunkListedFirst() {
+        //All but the last chunk are the same distance from the player:
+        Chunk[] chunks = {chunk(1, 0), chunk(-2, -1), chunk(-2, 0), chunk(1, -1), chunk(0, 0)};
+        List<Player> players = Collections.singletonList(player(0, 0));
+
+        Assert.assertEquals(ChunkSorter.sortByDistance(chunks, players, 3),
+                Arrays.asList(chunks[4], chunks[0], chunks[1]));
+    }
+
+    @Test
+    public void testMoreRequestedThanLoaded() {
+        Chunk[] chunks = {chunk(3, 3), chunk(0, 0), chunk(-1, 2)};
+        List<Player> players = Collections.singletonList(player(8, 8));
+
+        Assert.assertEquals(ChunkSorter.sortByDistance(chunks, players, 10),
+                Arrays.asList(chunks[1], chunks[2], chunks[0]));
+        Assert.assertTrue(ChunkSorter.sortByDistance(chunks, players, 0).isEmpty());
+        Assert.assertEquals(ChunkSorter.sortByDistance(chunks, Collections.emptyList(), 10), Arrays.asList(chunks));
+    }
+}
@@ -0,0 +1,56 @@
+package net.porillo;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import lombok.Getter;
+import lombok.Setter;
+import net.porillo.database.ConnectionManager;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.logging.Logger;
+
+/**
+ * Runs the core without a server, e.g., in tests and benchmarks
+ * - The thread that created the platform counts as the primary thread, tasks run inline
+ * - The data folder defaults to the classpath folder holding /models, if any
+ */
+@Getter
+public class HeadlessPlatform implements Platform {
+
+    private final Logger logger = Logger.getLogger("GlobalWarming");
+    private final Thread primaryThread = Thread.currentThread();
+    @Setter private RandomService random = new RandomService();
+    @Setter private Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    @Setter private File dataFolder = findDataFolder();
+    @Setter private ConnectionManager connectionManager;
+
+    @Override
+    public InputStream getResource(String name) {
+        return HeadlessPlatform.class.getClassLoader().getResourceAsStream(name);
+    }
+
+    @Override
+    public boolean isPrimaryThread() {
+        return Thread.currentThread() == primaryThread;
+    }
+
+    @Override
+    public void runTask(Runnable task) {
+        task.run();
+    }
+
+    private static File findDataFolder() {
+        URL models = HeadlessPlatform.class.getResource("/models");
+        if (models != null && "file".equals(models.getProtocol())) {
+            try {
+                return new File(models.toURI()).getParentFile();
+            } catch (URISyntaxException ignored) {
+            }
+        }
+
+        return new File(".");
+    }
+}
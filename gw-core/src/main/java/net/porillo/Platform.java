@@ -0,0 +1,57 @@
+package net.porillo;
+
+import com.google.gson.Gson;
+import net.porillo.database.ConnectionManager;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.logging.Logger;
+
+/**
+ * Services the core needs from whatever hosts it
+ * - The Bukkit plugin provides itself, see GlobalWarming
+ * - Tests and benchmarks run on a HeadlessPlatform, the default
+ */
+public interface Platform {
+
+    static Platform getInstance() {
+        return Holder.instance;
+    }
+
+    static void setInstance(Platform platform) {
+        Holder.instance = platform == null ? new HeadlessPlatform() : platform;
+    }
+
+    Logger getLogger();
+
+    RandomService getRandom();
+
+    Gson getGson();
+
+    /**
+     * Folder for models and other editable files
+     */
+    File getDataFolder();
+
+    /**
+     * @return a bundled resource, e.g., a default model, or NULL if missing
+     */
+    InputStream getResource(String name);
+
+    ConnectionManager getConnectionManager();
+
+    boolean isPrimaryThread();
+
+    /**
+     * Run a task on the primary thread, e.g., to hand over query results
+     */
+    void runTask(Runnable task);
+
+    final class Holder {
+
+        private static volatile Platform instance = new HeadlessPlatform();
+
+        private Holder() {
+        }
+    }
+}
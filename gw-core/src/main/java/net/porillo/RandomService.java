@@ -0,0 +1,90 @@
+package net.porillo;
+
+import lombok.Getter;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random numbers for every subsystem, without a shared seed to contend on
+ * - Each thread gets its own SplittableRandom per stream, so no locking or CAS
+ * - Streams are independent: drawing more effects does not shift the ids
+ * - Seeded mode is deterministic per (seed, stream, thread name), for load tests and benchmarks
+ * - Seeded ids repeat after a restart, so never seed a live server
+ */
+public final class RandomService {
+
+    public enum Stream {
+        IDS,
+        FIRE,
+        WEATHER,
+        FARM_YIELD,
+        MOB_SPAWNING,
+        NOTIFICATIONS
+    }
+
+    private static final Stream[] STREAMS = Stream.values();
+
+    @Getter private final boolean seeded;
+    @Getter private final long seed;
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom[]> streams = ThreadLocal.withInitial(() -> new SplittableRandom[STREAMS.length]);
+
+    /**
+     * Unseeded: streams are split from a randomly seeded root
+     */
+    public RandomService() {
+        this.seeded = false;
+        this.seed = 0;
+        this.root = new SplittableRandom();
+    }
+
+    /**
+     * Seeded: the same seed gives the same numbers on each thread
+     */
+    public RandomService(long seed) {
+        this.seeded = true;
+        this.seed = seed;
+        this.root = null;
+    }
+
+    /**
+     * @return the calling thread's generator for the stream, not to be shared with other threads
+     */
+    public SplittableRandom get(Stream stream) {
+        SplittableRandom[] randoms = streams.get();
+        SplittableRandom random = randoms[stream.ordinal()];
+        if (random == null) {
+            random = create(stream, Thread.currentThread().getName());
+            randoms[stream.ordinal()] = random;
+        }
+
+        return random;
+    }
+
+    /**
+     * @return a non-negative unique id for a new record
+     */
+    public int nextId() {
+        return get(Stream.IDS).nextInt(Integer.MAX_VALUE);
+    }
+
+    private SplittableRandom create(Stream stream, String threadName) {
+        if (!seeded) {
+            synchronized (root) {
+                return root.split();
+            }
+        }
+
+        long streamSeed = mix(seed + stream.ordinal() * 0x9E3779B97F4A7C15L);
+        return new SplittableRandom(mix(streamSeed ^ threadName.hashCode()));
+    }
+
+    /**
+     * Stafford variant 13 of the 64-bit MurmurHash3 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,100 @@
+package net.porillo.database;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Hands out pooled connections
+ * - Callers must close() the connection when finished, returning it to the pool
+ * - prepareStatement(sql) on a pooled connection is served from a per-connection statement cache
+ */
+public class ConnectionManager {
+
+    private String host;
+    private int port;
+    private String database, type;
+    private String username, password;
+    @Getter private volatile ConnectionPool pool;
+
+    // Pool settings, applied when the pool is first created:
+    @Setter private int poolMinSize = 1;
+    @Setter private int poolMaxSize = 4;
+    @Setter private long poolIdleTimeoutMillis = 300_000L;
+    @Setter private long poolBorrowTimeoutMillis = 10_000L;
+    @Setter private int statementCacheSize = 64;
+
+    public ConnectionManager(String type, String host, int port, String database, String username, String password) {
+        this.type = type;
+        this.host = host;
+        this.port = port;
+        this.database = database;
+        this.username = username;
+        this.password = password;
+    }
+
+    public Connection openConnection() throws SQLException, ClassNotFoundException {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ConnectionPool(
+                            this::createConnection,
+                            poolMinSize,
+                            poolMaxSize,
+                            poolIdleTimeoutMillis,
+                            poolBorrowTimeoutMillis,
+                            statementCacheSize);
+                }
+            }
+        }
+
+        return pool.borrow();
+    }
+
+    private Connection createConnection() throws SQLException, ClassNotFoundException {
+        if (type.equalsIgnoreCase("H2")) {
+            Class.forName("org.h2.Driver");
+            String path = String.format("%s/plugins/GlobalWarming/database", new File(".").getAbsolutePath());
+            String jdbcString = "jdbc:h2:file:" + path + ";MODE=MySQL;DB_CLOSE_ON_EXIT=TRUE;IGNORECASE=TRUE;LAZY_QUERY_EXECUTION=1";
+            return DriverManager.getConnection(jdbcString, username, password);
+        } else if (type.equalsIgnoreCase("H2_SERVER")) {
+            //Shared H2 database, e.g., several servers in delta mode:
+            // - No lazy query execution, it desynchronizes the remote protocol on 1.4.200
+            Class.forName("org.h2.Driver");
+            String jdbcString = String.format(
+                    "jdbc:h2:tcp://%s:%d/%s;MODE=MySQL;IGNORECASE=TRUE",
+                    this.host,
+                    this.port,
+                    this.database);
+
+            return DriverManager.getConnection(jdbcString, username, password);
+        } else if (type.equalsIgnoreCase("MYSQL")) {
+            Class.forName("com.mysql.jdbc.Driver");
+            String connectionString = String.format(
+                    "jdbc:mysql://%s:%d/%s?user=%s&password=%s&allowPublicKeyRetrieval=true&autoReconnect=true&rewriteBatchedStatements=true&useCursorFetch=true&useSSL=false&useUnicode=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&serverTimezone=UTC",
+                    this.host,
+                    this.port,
+                    this.database,
+                    this.username,
+                    this.password);
+
+            return DriverManager.getConnection(connectionString);
+        }
+
+        throw new SQLException(String.format("Unsupported database type: [%s]", type));
+    }
+
+    public void close() {
+        try {
+            if (pool != null) {
+                pool.close();
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+}
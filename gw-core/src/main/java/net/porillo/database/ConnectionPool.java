@@ -0,0 +1,445 @@
+package net.porillo.database;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small, dependency-free JDBC connection pool
+ * - Borrowed connections are returned to the pool by calling close()
+ * - The minimum size is opened in the background when the pool is created, and kept open
+ * - Idle connections are validated when borrowed, outside the pool lock, and evicted after the idle timeout
+ * - Each physical connection keeps an LRU cache of prepared statements keyed by SQL text;
+ * closing a cached statement only clears its parameters and batch
+ */
+public class ConnectionPool {
+
+    public interface ConnectionFactory {
+        Connection create() throws SQLException, ClassNotFoundException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int minSize, maxSize, statementCacheSize;
+    private final long idleTimeoutMillis, borrowTimeoutMillis;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    // Metrics:
+    @Getter private int totalConnections;
+    @Getter private int activeConnections;
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong evictedConnections = new AtomicLong();
+    private boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis, int statementCacheSize) {
+        this.factory = factory;
+        this.minSize = Math.max(0, minSize);
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GlobalWarming-ConnectionPool");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        this.evictor.execute(this::fillToMinimum);
+        this.evictor.scheduleAtFixedRate(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout when the pool is exhausted
+     * - Call close() on the returned connection to give it back
+     */
+    public Connection borrow() throws SQLException, ClassNotFoundException {
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        PooledConnection pooled = null;
+        while (pooled == null) {
+            PooledConnection candidate = null;
+            synchronized (this) {
+                while (candidate == null) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+
+                    //Reuse an idle connection, validated below:
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+
+                    //Grow the pool (the physical connection is opened outside the lock):
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        break;
+                    }
+
+                    //Wait for a connection to be returned:
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException(String.format(
+                                "Timed out after %d ms waiting for a database connection (pool size: %d)",
+                                borrowTimeoutMillis,
+                                maxSize));
+                    }
+
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            }
+
+            if (candidate == null) {
+                pooled = open();
+            } else if (candidate.isValid()) {
+                //Validated outside the lock, it can block for the validation timeout:
+                pooled = candidate;
+            } else {
+                candidate.closePhysical();
+                synchronized (this) {
+                    totalConnections--;
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized (this) {
+            activeConnections++;
+        }
+
+        recordBorrow(System.nanoTime() - start);
+        return pooled.lease();
+    }
+
+    /**
+     * Open a physical connection for a slot already counted in totalConnections
+     */
+    private PooledConnection open() throws SQLException, ClassNotFoundException {
+        try {
+            return new PooledConnection(factory.create());
+        } catch (SQLException | ClassNotFoundException | RuntimeException e) {
+            synchronized (this) {
+                totalConnections--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open idle connections until the pool holds at least the minimum size
+     * - Runs on the evictor thread, so neither construction nor a borrow waits for it
+     */
+    private void fillToMinimum() {
+        while (true) {
+            synchronized (this) {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+
+                totalConnections++;
+            }
+
+            PooledConnection pooled;
+            try {
+                pooled = open();
+            } catch (SQLException | ClassNotFoundException | RuntimeException e) {
+                //The next borrow reports the error:
+                return;
+            }
+
+            synchronized (this) {
+                if (closed) {
+                    destroy(pooled);
+                } else {
+                    idle.offerLast(pooled);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void release(PooledConnection pooled) {
+        boolean healthy = pooled.reset();
+        synchronized (this) {
+            activeConnections--;
+            if (healthy && !closed) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+
+            notifyAll();
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout,
+     * keeping at least the minimum pool size open, then refill to the minimum
+     */
+    private void evictIdleConnections() {
+        final long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (this) {
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (pooled.lastUsed < cutoff) {
+                    oldestFirst.remove();
+                    destroy(pooled);
+                    evictedConnections.incrementAndGet();
+                }
+            }
+        }
+
+        fillToMinimum();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections--;
+        pooled.closePhysical();
+    }
+
+    public void close() {
+        evictor.shutdownNow();
+        synchronized (this) {
+            closed = true;
+            for (PooledConnection pooled = idle.poll(); pooled != null; pooled = idle.poll()) {
+                destroy(pooled);
+            }
+
+            notifyAll();
+        }
+    }
+
+    public synchronized int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public double getAverageBorrowWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : borrowWaitNanos.get() / 1e6 / borrows;
+    }
+
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1e6;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    public long getEvictedConnections() {
+        return evictedConnections.get();
+    }
+
+    /**
+     * A physical connection plus its prepared-statement cache
+     */
+    private class PooledConnection {
+
+        private final Connection physical;
+        private final Map<String, PreparedStatement> statements;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Each borrow hands out a fresh proxy, so a stale reference
+         * cannot use the connection after it has been returned
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        private PreparedStatement prepareCached(String sql) throws SQLException {
+            if (statementCacheSize <= 0) {
+                return physical.prepareStatement(sql);
+            }
+
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statementCacheMisses.incrementAndGet();
+                statement = physical.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statementCacheHits.incrementAndGet();
+            }
+
+            return cachedStatementProxy(statement);
+        }
+
+        /**
+         * Roll back any unfinished transaction before the connection is reused
+         *
+         * @return false if the connection is no longer usable
+         */
+        private boolean reset() {
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            for (PreparedStatement statement : statements.values()) {
+                closeQuietly(statement);
+            }
+
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return pooled.prepareCached((String) args[0]);
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Cached statements stay open for reuse: close() only resets them
+     */
+    private static PreparedStatement cachedStatementProxy(PreparedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        statement.clearParameters();
+                        statement.clearBatch();
+                        return null;
+                    } else if (method.getName().equals("isClosed")) {
+                        return statement.isClosed();
+                    }
+
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
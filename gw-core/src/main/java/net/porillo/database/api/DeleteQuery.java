@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public abstract class DeleteQuery implements Query {
+public abstract class DeleteQuery implements KeyedQuery {
 
     @Getter
     private String table;
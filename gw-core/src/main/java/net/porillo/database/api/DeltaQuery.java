@@ -0,0 +1,47 @@
+package net.porillo.database.api;
+
+import lombok.Getter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Adds a change to a stored counter, e.g., a world's carbon value
+ * - Immutable: changes to the same row are combined with plus() while queued
+ * - The SQL must add to the stored value, so servers sharing a database never overwrite each other
+ * - Not idempotent: a failed flush queues the change again, and a journal replay skips
+ * changes a committed flush already applied, see AsyncDBQueue
+ */
+@Getter
+public abstract class DeltaQuery implements KeyedQuery {
+
+    private final String table;
+    private final int uniqueId;
+    private final long delta;
+
+    public DeltaQuery(String table, int uniqueId, long delta) {
+        this.table = table;
+        this.uniqueId = uniqueId;
+        this.delta = delta;
+    }
+
+    /**
+     * @return a copy of this row with the given change
+     */
+    protected abstract DeltaQuery withDelta(long delta);
+
+    public DeltaQuery plus(DeltaQuery other) {
+        return withDelta(delta + other.delta);
+    }
+
+    @Override
+    public Object getPrimaryKey() {
+        return uniqueId;
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.setLong(1, delta);
+        preparedStatement.setInt(2, uniqueId);
+    }
+}
@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public abstract class InsertQuery implements Query {
+public abstract class InsertQuery implements KeyedQuery {
 
     @Getter
     private String table;
@@ -0,0 +1,10 @@
+package net.porillo.database.api;
+
+/**
+ * A write against a single row, identified by (table, primary key)
+ * - Used to coalesce repeated writes to the same row between flushes
+ */
+public interface KeyedQuery extends PreparedQuery {
+
+    Object getPrimaryKey();
+}
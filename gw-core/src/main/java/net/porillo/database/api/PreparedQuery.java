@@ -0,0 +1,22 @@
+package net.porillo.database.api;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A query whose parameters can be bound onto any statement prepared
+ * from {@link #getSQL()}, allowing one statement to be reused for
+ * every queued query sharing the same SQL (JDBC batching)
+ */
+public interface PreparedQuery extends Query {
+
+    void bindParameters(PreparedStatement preparedStatement) throws SQLException;
+
+    @Override
+    default PreparedStatement prepareStatement(Connection connection) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(getSQL());
+        bindParameters(preparedStatement);
+        return preparedStatement;
+    }
+}
@@ -0,0 +1,67 @@
+package net.porillo.database.api;
+
+import lombok.Getter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Adds a batch of carbon events to a (player, source key, world, minute bucket) total
+ * - Immutable: events for the same row are combined with plus() while queued
+ * - The SQL must add to the stored totals, as rows may be written by several flushes
+ */
+@Getter
+public abstract class RollupQuery extends InsertQuery {
+
+    public static final long BUCKET_MILLIS = 60_000L;
+
+    private final int playerId;
+    private final int sourceKey;
+    private final UUID worldId;
+    private final long bucket;
+    private final long value;
+    private final int events;
+
+    public RollupQuery(String table, int playerId, int sourceKey, UUID worldId, long bucket, long value, int events) {
+        super(table);
+        this.playerId = playerId;
+        this.sourceKey = sourceKey;
+        this.worldId = worldId;
+        this.bucket = bucket;
+        this.value = value;
+        this.events = events;
+    }
+
+    /**
+     * @return the minute bucket containing the given time
+     */
+    public static long bucketOf(long timeMillis) {
+        return timeMillis / BUCKET_MILLIS;
+    }
+
+    /**
+     * @return a copy of this row with the given totals
+     */
+    protected abstract RollupQuery withTotals(long value, int events);
+
+    public RollupQuery plus(RollupQuery other) {
+        return withTotals(value + other.value, events + other.events);
+    }
+
+    @Override
+    public Object getPrimaryKey() {
+        return Arrays.asList(playerId, sourceKey, worldId, bucket);
+    }
+
+    @Override
+    public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.setInt(1, playerId);
+        preparedStatement.setInt(2, sourceKey);
+        preparedStatement.setString(3, worldId.toString());
+        preparedStatement.setLong(4, bucket);
+        preparedStatement.setLong(5, value);
+        preparedStatement.setInt(6, events);
+    }
+}
@@ -0,0 +1,17 @@
+package net.porillo.database.api;
+
+import java.util.List;
+
+public interface SelectCallback<Type> {
+
+    /**
+     * Called on the main thread with each chunk of loaded rows
+     */
+    void onSelectionChunk(List<Type> chunk);
+
+    /**
+     * Called on the main thread once every row has been delivered
+     */
+    default void onSelectionReady(int rows) {
+    }
+}
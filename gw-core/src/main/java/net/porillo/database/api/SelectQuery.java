@@ -0,0 +1,83 @@
+package net.porillo.database.api;
+
+import lombok.Getter;
+import lombok.ToString;
+import net.porillo.Platform;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Getter
+@ToString
+public abstract class SelectQuery<Type, Callback extends SelectCallback<Type>> implements Query {
+
+    private String table;
+    private Callback callback;
+
+    public SelectQuery(String table, Callback callback) {
+        this.table = table;
+        this.callback = callback;
+    }
+
+    /**
+     * Convert the current row of the result set
+     */
+    public abstract Type decode(ResultSet rs) throws SQLException;
+
+    @Override
+    public PreparedStatement prepareStatement(Connection connection) throws SQLException {
+        return connection.prepareStatement(getSQL()); // served from the pooled connection's statement cache
+    }
+
+    public List<Type> queryDatabase(Connection connection) throws SQLException {
+        List<Type> rows = new ArrayList<>();
+        stream(connection, 0, Integer.MAX_VALUE, rows::addAll);
+        return rows;
+    }
+
+    /**
+     * Load every row, then hand them to the callback on the main thread
+     */
+    public void execute(Connection connection) throws SQLException {
+        List<Type> rows = queryDatabase(connection);
+        Platform.getInstance().runTask(() -> {
+            callback.onSelectionChunk(rows);
+            callback.onSelectionReady(rows.size());
+        });
+    }
+
+    /**
+     * Decode the result set in chunks, without holding the whole table in memory
+     * - fetchSize is a hint for the driver to read rows through a cursor (0 = driver default)
+     *
+     * @return number of rows decoded
+     */
+    public int stream(Connection connection, int fetchSize, int chunkSize, Consumer<List<Type>> consumer) throws SQLException {
+        int rows = 0;
+        try (PreparedStatement statement = prepareStatement(connection)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                List<Type> chunk = new ArrayList<>();
+                while (rs.next()) {
+                    chunk.add(decode(rs));
+                    rows++;
+                    if (chunk.size() >= chunkSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>();
+                    }
+                }
+
+                if (!chunk.isEmpty()) {
+                    consumer.accept(chunk);
+                }
+            }
+        }
+
+        return rows;
+    }
+}
@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public abstract class UpdateQuery<T> implements Query {
+public abstract class UpdateQuery<T> implements KeyedQuery {
 
     @Getter
     private String table;
@@ -18,13 +18,13 @@ public abstract class UpdateQuery<T> implements Query {
 
         UpdateQuery<?> that = (UpdateQuery<?>) o;
 
-        return table.equals(that.table) && object.equals(that.object);
+        return table.equals(that.table) && getPrimaryKey().equals(that.getPrimaryKey());
     }
 
     @Override
     public int hashCode() {
         int result = table.hashCode();
-        result = 31 * result + object.hashCode();
+        result = 31 * result + getPrimaryKey().hashCode();
         return result;
     }
 }
@@ -0,0 +1,137 @@
+package net.porillo.database.queries.other;
+
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One versioned schema change, read from migrations/V[version]__[description].sql
+ * - Applied at most once, then recorded in schema_version with its checksum
+ * - A recorded migration whose script has since changed fails the checksum check
+ */
+@Getter
+public class SchemaMigrationQuery extends CreateTableQuery {
+
+    private final int version;
+    private final String description;
+
+    public SchemaMigrationQuery(int version, String description) {
+        super("schema_version", loadScript(version, description));
+        this.version = version;
+        this.description = description;
+    }
+
+    /**
+     * @return true if the migration was applied, false if it already was
+     * @throws SQLException if it fails to apply or its checksum does not match
+     */
+    public boolean migrate(Connection connection) throws SQLException {
+        long checksum = getChecksum();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT checksum FROM schema_version WHERE version = ?")) {
+            statement.setInt(1, version);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    if (rs.getLong(1) != checksum) {
+                        throw new SQLException(String.format(
+                                "Checksum mismatch for migration [%s]: recorded [%d], found [%d]",
+                                getName(), rs.getLong(1), checksum));
+                    }
+
+                    return false;
+                }
+            }
+        }
+
+        //Apply the statements and record the version together:
+        // - Note: MySQL commits DDL implicitly, so migrations hold a single statement;
+        //   one that fails leaves nothing behind and is retried on the next startup
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : getStatements()) {
+                    statement.executeUpdate(sql);
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, installedOn) VALUES (?,?,?,?)")) {
+                statement.setInt(1, version);
+                statement.setString(2, description);
+                statement.setLong(3, checksum);
+                statement.setLong(4, System.currentTimeMillis());
+                statement.executeUpdate();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        return true;
+    }
+
+    public String getName() {
+        return String.format("V%d__%s", version, description);
+    }
+
+    public long getChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(getSQL().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * @return the script's statements, split on semicolons
+     */
+    public List<String> getStatements() {
+        List<String> statements = new ArrayList<>();
+        for (String sql : getSQL().split(";")) {
+            if (!sql.trim().isEmpty()) {
+                statements.add(sql.trim());
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * Migrations are always read from the plugin jar, so their checksums can't drift
+     */
+    private static String loadScript(int version, String description) {
+        String resource = String.format("/migrations/V%d__%s.sql", version, description);
+        InputStream stream = SchemaMigrationQuery.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IllegalArgumentException(String.format("Migration not found: [%s]", resource));
+        }
+
+        StringBuilder builder = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("--")) {
+                    builder.append(line).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return builder.toString();
+    }
+}
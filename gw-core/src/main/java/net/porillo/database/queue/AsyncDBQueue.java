@@ -0,0 +1,875 @@
+package net.porillo.database.queue;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.porillo.Platform;
+import net.porillo.database.api.*;
+import net.porillo.database.queries.other.CreateTableQuery;
+import net.porillo.database.queries.other.SchemaMigrationQuery;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Singleton class designed to facilitate thread-safe
+ * asynchronous database operations for GlobalWarming.
+ * <p>
+ * We maintain an in-memory storage of all the data we
+ * need during the operation of the plugin. For all
+ * in-memory storage operations, we want an associated
+ * update/insert/delete to the corresponding DB table.
+ * <p>
+ * We want to first and foremost ensure all DB operations
+ * are on NOT done on the main thread, as it will hang the
+ * server for a short period of time. This is not acceptable
+ * for production servers, where Ticks Per Second (TPS) is
+ * mission critical for players and server owners.
+ * <p>
+ * Additionally, we can queue up updates and execute them in
+ * batch at regular intervals, and on plugin shutdown. Wherever
+ * possible, we want to batch similar api for performance.
+ * <p>
+ * Each flush is committed as one transaction.
+ * <p>
+ * Batch mode: queued queries sharing the same SQL are bound onto
+ * a single PreparedStatement and sent with addBatch / executeBatch.
+ * When a batch
+ * fails, its rows are retried one at a time so a single bad row
+ * does not discard the rest of the flush. Rows the database rejects
+ * (constraint violations) are skipped with a warning; any other error
+ * rolls back the flush and its writes are queued again.
+ * <p>
+ * Coalescing: pending writes are keyed by (table, primary key), so
+ * a row is written at most once per flush with its latest state. An
+ * update to a row whose insert is still pending is folded into the
+ * insert, and deleting a row that was never flushed cancels both.
+ * Rollup and delta queries are additive and are summed instead of replaced.
+ * Each flush swaps in empty queues, so a write is never half-flushed;
+ * a flush that fails hands its writes back, ahead of newer ones.
+ * <p>
+ * Journal: when enabled, every queued insert/update/delete is also
+ * appended to a memory-mapped QueryJournal. The journal is truncated
+ * once a flush commits and replayed on startup, so queued writes
+ * survive a crash between flushes. Rollups and deltas are additive,
+ * so each flush also stores the journal sequence it covers in the
+ * journal_checkpoints table, in the same transaction; a replay skips
+ * records at or below it, even if the crash came before the truncate.
+ * <p>
+ * Scheduling: a single QueueWriter thread flushes when enough rows are
+ * queued, when the oldest entry gets too old, or on the interval timer,
+ * so flushes never overlap. When the queue outgrows its limit, the writer
+ * flushes back-to-back, producers off the main thread are held back, and
+ * a warning reports the queue and drain rates.
+ * <p>
+ * Delta mode: carbon values and scores are written as atomic
+ * "value = value + ?" deltas instead of absolute values, so several
+ * servers can share one database without overwriting each other's
+ * totals. The queue tracks how much of each counter it has queued
+ * and flushed, so a total re-read from the database can be combined
+ * with the changes this server has not written yet.
+ * <p>
+ * Note: we also want to load *some* contents of the database
+ * into memory on plugin startup. However, it will not be done
+ * using this Queue since we want to do that immediately.
+ */
+@Getter
+@Setter
+public class AsyncDBQueue {
+
+    private static AsyncDBQueue instance;
+
+    private Queue<CreateTableQuery> createQueue = new ConcurrentLinkedQueue<>();
+    private WriteCoalescer<InsertQuery> insertQueue = new WriteCoalescer<>();
+    private WriteCoalescer<UpdateQuery<?>> updateQueue = new WriteCoalescer<>();
+    private WriteCoalescer<DeleteQuery> deleteQueue = new WriteCoalescer<>();
+    private WriteCoalescer<RollupQuery> rollupQueue = new WriteCoalescer<>();
+    private WriteCoalescer<DeltaQuery> deltaQueue = new WriteCoalescer<>();
+    private Queue<SelectQuery<?, ?>> selectQueue = new ConcurrentLinkedQueue<>();
+
+    private boolean debug;
+    private boolean batchEnabled = true;
+    private int maxBatchSize = 500;
+    private QueryJournal journal;
+    private boolean deltaMode;
+
+    // Last journal sequence each journal's flushes committed:
+    private static final String CHECKPOINT_TABLE_SQL = "CREATE TABLE IF NOT EXISTS journal_checkpoints ("
+            + "journalId BIGINT NOT NULL, lastSequence BIGINT NOT NULL, PRIMARY KEY (journalId))";
+    private static final String CHECKPOINT_SELECT_SQL = "SELECT lastSequence FROM journal_checkpoints WHERE journalId = ?";
+    private static final String CHECKPOINT_UPDATE_SQL = "INSERT INTO journal_checkpoints (journalId, lastSequence) VALUES (?,?)"
+            + " ON DUPLICATE KEY UPDATE lastSequence = VALUES(lastSequence)";
+    private boolean checkpointTableCreated;
+
+    // Last journal sequence a failed replay left unapplied, retried by the next flush (0 if none):
+    private volatile long replayPending;
+
+    // Per counter (table, unique id): {total queued, total flushed} by this server
+    private final Map<List<Object>, long[]> deltaTotals = new ConcurrentHashMap<>();
+
+    // Statistics for the most recent flush:
+    private int lastFlushRows;
+    private long lastFlushMillis;
+
+    // Start time of the most recent completed flush, writes queued before it are committed:
+    private volatile long lastFlushStarted;
+
+    // Flush scheduling and backpressure:
+    private QueueWriter writer;
+    private final Object flushLock = new Object();
+    private volatile long oldestQueuedAt;
+    private long queuedSinceFlush;
+    private long lastQueueRateCheck = System.currentTimeMillis();
+    private long lastBackpressureWarning;
+    private int flushCount;
+    private long maxFlushMillis;
+
+    /**
+     * Start the dedicated writer thread
+     *
+     * @param intervalMillis flush at least this often when anything is queued
+     * @param maxAgeMillis   flush once the oldest queued entry is this old
+     * @param rowThreshold   flush once this many rows are queued
+     * @param maxDepth       warn, and hold back producers off the main thread, above this many rows
+     */
+    public void startWriter(long intervalMillis, long maxAgeMillis, int rowThreshold, int maxDepth) {
+        this.writer = new QueueWriter(this, intervalMillis, maxAgeMillis, rowThreshold, maxDepth);
+        this.writer.start();
+    }
+
+    /**
+     * @param maxBatchSize rows per JDBC batch, at least one
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public void close() {
+        if (writer != null) {
+            writer.stop();
+        }
+
+        flush("shutdown");
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public void runQueueWriteTaskNow() {
+        if (writer != null) {
+            writer.requestFlush();
+        }
+    }
+
+    /**
+     * Write everything queued so far, never overlapping another flush
+     *
+     * @return false if the flush failed, its writes are queued again
+     */
+    public boolean flush(String reason) {
+        synchronized (flushLock) {
+            try {
+                if (isSyncNeeded()) {
+                    Platform.getInstance().getLogger().info(String.format("Syncing database (%s)...", reason));
+                    writeQueues();
+                    Platform.getInstance().getLogger().info(String.format(
+                            "Finished syncing database: [%d] rows in [%d] ms (%.1f rows/s, batch mode: %s).",
+                            lastFlushRows,
+                            lastFlushMillis,
+                            lastFlushMillis == 0 ? lastFlushRows : lastFlushRows * 1000.0 / lastFlushMillis,
+                            batchEnabled));
+                    checkBackpressure();
+                }
+            } catch (SQLException | ClassNotFoundException e) {
+                log(Level.SEVERE, String.format("Database sync failed, writes are queued for the next sync: %s", e));
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Warn, at most once a minute, when writes are queued faster than flushes drain them
+     */
+    private void checkBackpressure() {
+        if (writer == null || getQueueDepth() <= writer.getMaxDepth()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastBackpressureWarning < 60000L) {
+            return;
+        }
+
+        long queued;
+        long elapsed;
+        synchronized (this) {
+            queued = queuedSinceFlush;
+            elapsed = Math.max(1L, now - lastQueueRateCheck);
+            queuedSinceFlush = 0;
+            lastQueueRateCheck = now;
+        }
+
+        lastBackpressureWarning = now;
+        Platform.getInstance().getLogger().warning(String.format(
+                "Database queue is growing faster than it drains: [%d] rows queued (limit [%d]), "
+                        + "oldest [%d] ms, queued at %.1f rows/s, flushed at %.1f rows/s.",
+                getQueueDepth(),
+                writer.getMaxDepth(),
+                getOldestEntryAgeMillis(),
+                queued * 1000.0 / elapsed,
+                lastFlushMillis == 0 ? lastFlushRows : lastFlushRows * 1000.0 / lastFlushMillis));
+    }
+
+    /**
+     * @return rows waiting to be written
+     */
+    public int getQueueDepth() {
+        return insertQueue.size() + updateQueue.size() + deleteQueue.size() + rollupQueue.size() + deltaQueue.size();
+    }
+
+    /**
+     * @return age of the oldest write waiting to be flushed, 0 when none are
+     */
+    public long getOldestEntryAgeMillis() {
+        long oldest = oldestQueuedAt;
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    /**
+     * Caller must hold this queue's lock
+     */
+    private void onQueued() {
+        if (oldestQueuedAt == 0) {
+            oldestQueuedAt = System.currentTimeMillis();
+        }
+
+        queuedSinceFlush++;
+        if (writer != null) {
+            writer.onQueued(getQueueDepth());
+        }
+    }
+
+    private void awaitCapacity() {
+        if (writer != null && !Platform.getInstance().isPrimaryThread()) {
+            writer.awaitCapacity();
+        }
+    }
+
+    public void queueSelectQuery(SelectQuery selectQuery) {
+        this.selectQueue.offer(selectQuery);
+    }
+
+    public void queueDeleteQuery(DeleteQuery deleteQuery) {
+        awaitCapacity();
+        synchronized (this) {
+            journal(deleteQuery);
+            this.updateQueue.remove(deleteQuery);
+            if (this.insertQueue.remove(deleteQuery) == null) {
+                this.deleteQueue.offer(deleteQuery);
+            }
+
+            onQueued();
+        }
+    }
+
+    public void queueCreateQuery(CreateTableQuery createTableQuery) {
+        this.createQueue.offer(createTableQuery);
+    }
+
+    public void queueInsertQuery(InsertQuery insertQuery) {
+        awaitCapacity();
+        synchronized (this) {
+            journal(insertQuery);
+            this.insertQueue.offer(insertQuery);
+            onQueued();
+        }
+    }
+
+    public void queueUpdateQuery(UpdateQuery updateQuery) {
+        awaitCapacity();
+        synchronized (this) {
+            journal(updateQuery);
+
+            //Inserts bind the live object at flush time, so a pending insert already carries this update:
+            if (!this.insertQueue.contains(updateQuery)) {
+                this.updateQueue.offer(updateQuery);
+            }
+
+            onQueued();
+        }
+    }
+
+    /**
+     * Add the rollup's totals to any pending rollup for the same row
+     */
+    public void queueRollupQuery(RollupQuery rollupQuery) {
+        awaitCapacity();
+        synchronized (this) {
+            journal(rollupQuery);
+            this.rollupQueue.merge(rollupQuery, RollupQuery::plus);
+            onQueued();
+        }
+    }
+
+    /**
+     * Add the change to any pending change for the same counter
+     */
+    public void queueDeltaQuery(DeltaQuery deltaQuery) {
+        awaitCapacity();
+        synchronized (this) {
+            journal(deltaQuery);
+            this.deltaQueue.merge(deltaQuery, DeltaQuery::plus);
+            deltaTotals.computeIfAbsent(deltaKey(deltaQuery.getTable(), deltaQuery.getUniqueId()), k -> new long[2])[0] += deltaQuery.getDelta();
+            onQueued();
+        }
+    }
+
+    /**
+     * @return total change flushed for the counter so far
+     */
+    public synchronized long getFlushedDelta(String table, int uniqueId) {
+        long[] totals = deltaTotals.get(deltaKey(table, uniqueId));
+        return totals == null ? 0 : totals[1];
+    }
+
+    /**
+     * Changes this server has queued but not written
+     * - Call on the thread that queues changes, so the in-memory value and the queue agree
+     *
+     * @param flushed the counter's flushed total when its stored value was read
+     * @return the change to add to the stored value to reach this server's view of the counter
+     */
+    public synchronized long getUnwrittenDelta(String table, int uniqueId, long flushed) {
+        long[] totals = deltaTotals.get(deltaKey(table, uniqueId));
+        return totals == null ? 0 : totals[0] - flushed;
+    }
+
+    private static List<Object> deltaKey(String table, int uniqueId) {
+        return Arrays.asList(table, uniqueId);
+    }
+
+    private void journal(PreparedQuery query) {
+        if (journal != null) {
+            journal.append(query);
+        }
+    }
+
+    /**
+     * Re-apply journaled writes left behind by a crash
+     * - Must run before the select queries load the tables
+     * - Records a committed flush already covered are skipped, so additive writes apply once
+     * - Rows the database rejects (e.g., duplicate inserts) are skipped
+     * - Any other error rolls the replay back and keeps the journal, the next flush retries it
+     */
+    public void replayJournal(Connection connection) throws SQLException {
+        if (journal == null) {
+            return;
+        }
+
+        createCheckpointTable(connection);
+        long checkpoint = journal.checkpoint();
+        replay(connection, journal.getSequence());
+        journal.truncate(checkpoint);
+    }
+
+    /**
+     * Apply the journaled records after the database's checkpoint, up to the given sequence, in one transaction
+     * - Records after the sequence belong to writes still queued in memory, their flush writes them
+     */
+    private void replay(Connection connection, long sequence) throws SQLException {
+        List<PreparedQuery> records = journal.readBetween(readCheckpoint(connection), sequence);
+        if (records.isEmpty()) {
+            replayPending = 0;
+            return;
+        }
+
+        int replayed = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (PreparedQuery query : records) {
+                if (executeRow(query, connection)) {
+                    replayed++;
+                }
+            }
+
+            writeCheckpoint(connection, sequence);
+            connection.commit();
+        } catch (SQLException e) {
+            replayPending = sequence;
+            connection.rollback();
+            Platform.getInstance().getLogger().severe(String.format(
+                    "Unable to replay the query journal, it is kept and retried with the next sync: %s", e));
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        replayPending = 0;
+        Platform.getInstance().getLogger().info(String.format(
+                "Replayed [%d] of [%d] uncommitted journaled queries.",
+                replayed,
+                records.size()));
+    }
+
+    /**
+     * DDL commits implicitly on MySQL, so this runs before any flush transaction starts
+     */
+    private void createCheckpointTable(Connection connection) throws SQLException {
+        if (checkpointTableCreated) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CHECKPOINT_TABLE_SQL);
+        }
+
+        checkpointTableCreated = true;
+    }
+
+    /**
+     * @return the last journal sequence a committed flush covered, 0 if none did
+     */
+    private long readCheckpoint(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CHECKPOINT_SELECT_SQL)) {
+            statement.setLong(1, journal.getId());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void writeCheckpoint(Connection connection, long sequence) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CHECKPOINT_UPDATE_SQL)) {
+            statement.setLong(1, journal.getId());
+            statement.setLong(2, sequence);
+            statement.executeUpdate();
+        }
+    }
+
+    private void writeQueues() throws SQLException, ClassNotFoundException {
+        long start = System.currentTimeMillis();
+        int rows;
+        try (Connection connection = Platform.getInstance().getConnectionManager().openConnection()) {
+            writeCreateTableQueue(connection);
+            if (journal != null) {
+                createCheckpointTable(connection);
+
+                //A failed startup replay goes first, its records precede everything queued since:
+                // - Its journal records are truncated along with this flush's
+                if (replayPending > 0) {
+                    replay(connection, replayPending);
+                }
+            }
+
+            //Swap in empty queues, writes queued from here on wait for the next flush:
+            // - Everything journaled so far belongs to this flush
+            WriteCoalescer<DeleteQuery> deleteSwap;
+            WriteCoalescer<InsertQuery> insertSwap;
+            WriteCoalescer<RollupQuery> rollupSwap;
+            WriteCoalescer<DeltaQuery> deltaSwap;
+            WriteCoalescer<UpdateQuery<?>> updateSwap;
+            long checkpoint;
+            long sequence;
+            long queuedAt;
+            synchronized (this) {
+                checkpoint = journal == null ? 0 : journal.checkpoint();
+                sequence = journal == null ? 0 : journal.getSequence();
+                queuedAt = oldestQueuedAt;
+                deleteSwap = deleteQueue;
+                insertSwap = insertQueue;
+                rollupSwap = rollupQueue;
+                deltaSwap = deltaQueue;
+                updateSwap = updateQueue;
+                deleteQueue = new WriteCoalescer<>();
+                insertQueue = new WriteCoalescer<>();
+                rollupQueue = new WriteCoalescer<>();
+                deltaQueue = new WriteCoalescer<>();
+                updateQueue = new WriteCoalescer<>();
+                oldestQueuedAt = 0;
+            }
+
+            //Drained up front, so a failed flush can hand every write back:
+            // - Deltas count as flushed only once committed, until then they stay unwritten
+            List<DeleteQuery> deletes = drain(deleteSwap);
+            List<InsertQuery> inserts = drain(insertSwap);
+            List<RollupQuery> rollups = drain(rollupSwap);
+            List<DeltaQuery> flushedDeltas = drain(deltaSwap);
+            List<UpdateQuery<?>> updates = drain(updateSwap);
+
+            //Commit every write in this flush, and the journal sequence it covers, as a single transaction:
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                rows = writeQueues(deletes, inserts, rollups, flushedDeltas, updates, connection);
+                if (journal != null) {
+                    writeCheckpoint(connection, sequence);
+                }
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                //The journal is not truncated, the next flush covers these records again:
+                requeue(deletes, inserts, rollups, flushedDeltas, updates, queuedAt);
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            synchronized (this) {
+                for (DeltaQuery delta : flushedDeltas) {
+                    deltaTotals.get(deltaKey(delta.getTable(), delta.getUniqueId()))[1] += delta.getDelta();
+                }
+            }
+
+            if (journal != null) {
+                journal.truncate(checkpoint);
+            }
+
+            writeSelectQueue(connection);
+        }
+
+        lastFlushRows = rows;
+        lastFlushMillis = System.currentTimeMillis() - start;
+        lastFlushStarted = start;
+        maxFlushMillis = Math.max(maxFlushMillis, lastFlushMillis);
+        flushCount++;
+    }
+
+    private static <T extends KeyedQuery> List<T> drain(WriteCoalescer<T> queue) {
+        List<T> queries = new ArrayList<>(queue.size());
+        for (T query = queue.poll(); query != null; query = queue.poll()) {
+            queries.add(query);
+        }
+
+        return queries;
+    }
+
+    /**
+     * Hand the writes of a failed flush back to the queues
+     * - They were queued first, so they go ahead of writes queued since the swap
+     * - A newer write to the same row replaces a failed one, additive writes are summed
+     * - Failed inserts and updates of a row deleted since the swap are dropped
+     */
+    private synchronized void requeue(List<DeleteQuery> deletes,
+                                      List<InsertQuery> inserts,
+                                      List<RollupQuery> rollups,
+                                      List<DeltaQuery> deltas,
+                                      List<UpdateQuery<?>> updates,
+                                      long queuedAt) {
+        WriteCoalescer<DeleteQuery> newerDeletes = deleteQueue;
+        WriteCoalescer<InsertQuery> newerInserts = insertQueue;
+        WriteCoalescer<RollupQuery> newerRollups = rollupQueue;
+        WriteCoalescer<DeltaQuery> newerDeltas = deltaQueue;
+        WriteCoalescer<UpdateQuery<?>> newerUpdates = updateQueue;
+        deleteQueue = new WriteCoalescer<>();
+        insertQueue = new WriteCoalescer<>();
+        rollupQueue = new WriteCoalescer<>();
+        deltaQueue = new WriteCoalescer<>();
+        updateQueue = new WriteCoalescer<>();
+
+        for (DeleteQuery query : deletes) {
+            deleteQueue.offer(query);
+        }
+
+        for (InsertQuery query : inserts) {
+            if (!newerDeletes.contains(query)) {
+                insertQueue.offer(query);
+            }
+        }
+
+        for (UpdateQuery<?> query : updates) {
+            if (!newerDeletes.contains(query)) {
+                updateQueue.offer(query);
+            }
+        }
+
+        for (RollupQuery query : rollups) {
+            rollupQueue.merge(query, RollupQuery::plus);
+        }
+
+        for (DeltaQuery query : deltas) {
+            deltaQueue.merge(query, DeltaQuery::plus);
+        }
+
+        for (DeleteQuery query : drain(newerDeletes)) {
+            deleteQueue.offer(query);
+        }
+
+        for (InsertQuery query : drain(newerInserts)) {
+            insertQueue.offer(query);
+        }
+
+        for (UpdateQuery<?> query : drain(newerUpdates)) {
+            updateQueue.offer(query);
+        }
+
+        for (RollupQuery query : drain(newerRollups)) {
+            rollupQueue.merge(query, RollupQuery::plus);
+        }
+
+        for (DeltaQuery query : drain(newerDeltas)) {
+            deltaQueue.merge(query, DeltaQuery::plus);
+        }
+
+        if (queuedAt != 0 && (oldestQueuedAt == 0 || queuedAt < oldestQueuedAt)) {
+            oldestQueuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * Deletes go first, so a row deleted and re-inserted since the last flush keeps its insert
+     * - Deltas follow inserts, so a new row exists before it is added to
+     *
+     * @return number of rows written
+     */
+    private int writeQueues(List<DeleteQuery> deletes,
+                            List<InsertQuery> inserts,
+                            List<RollupQuery> rollups,
+                            List<DeltaQuery> deltas,
+                            List<UpdateQuery<?>> updates,
+                            Connection connection) throws SQLException {
+        int rows = writeQueue(supplier(deletes), connection);
+        rows += writeQueue(supplier(inserts), connection);
+        rows += writeQueue(supplier(rollups), connection);
+        rows += writeQueue(supplier(deltas), connection);
+        rows += writeQueue(supplier(updates), connection);
+        return rows;
+    }
+
+    private static <T> Supplier<T> supplier(List<T> queries) {
+        Iterator<T> iterator = queries.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    public void writeSelectQueue(Connection connection) {
+        for (SelectQuery<?, ?> obj = selectQueue.poll(); obj != null; obj = selectQueue.poll()) {
+            try {
+                // Executes query, transforms ResultSet into List of objects, and calls back
+                obj.execute(connection);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void executeStatement(Query query, Connection connection) throws SQLException {
+        try (Statement statement = query.prepareStatement(connection)) {
+            if (debug) Platform.getInstance().getLogger().info(statement.toString());
+            if (statement instanceof PreparedStatement) {
+                PreparedStatement preparedStatement = (PreparedStatement) statement;
+                preparedStatement.executeUpdate();
+            } else {
+                statement.executeUpdate(query.getSQL());
+            }
+        }
+    }
+
+    /**
+     * Execute a single row, skipping it if the database rejects it
+     * - Within a transaction, a rejected row is rolled back to a savepoint first
+     * - Any other error is thrown, failing the flush
+     *
+     * @return true if the row was written
+     */
+    private boolean executeRow(Query query, Connection connection) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try {
+            executeStatement(query, connection);
+            return true;
+        } catch (SQLException e) {
+            if (!isRejected(e)) {
+                throw e;
+            }
+
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+
+            Platform.getInstance().getLogger().warning(String.format(
+                    "Skipped a row rejected by the database [%s]: %s", query.getSQL(), e.getMessage()));
+            return false;
+        } finally {
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+    }
+
+    /**
+     * @return true if the row itself is at fault (SQLState class 23, integrity constraint
+     * violation), rather than the connection or the statement
+     */
+    private static boolean isRejected(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+                || (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+    }
+
+    /**
+     * Drain the queue, executing each query individually or, in batch mode,
+     * grouped by SQL onto a shared statement
+     *
+     * @return number of rows written
+     */
+    private <T extends PreparedQuery> int writeQueue(Supplier<T> queue, Connection connection) throws SQLException {
+        int rows = 0;
+        if (!batchEnabled) {
+            for (T query = queue.get(); query != null; query = queue.get()) {
+                if (executeRow(query, connection)) {
+                    rows++;
+                }
+            }
+
+            return rows;
+        }
+
+        //Group by SQL, keeping the queued order within each group:
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        for (T query = queue.get(); query != null; query = queue.get()) {
+            groups.computeIfAbsent(query.getSQL(), k -> new ArrayList<>()).add(query);
+        }
+
+        for (Map.Entry<String, List<T>> group : groups.entrySet()) {
+            rows += executeBatch(group.getKey(), group.getValue(), connection);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Execute queries which share the same SQL using one PreparedStatement
+     * - Rows are sent in chunks of at most maxBatchSize
+     * - A failed chunk is retried row-by-row
+     */
+    private int executeBatch(String sql, List<? extends PreparedQuery> queries, Connection connection) throws SQLException {
+        int rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int from = 0; from < queries.size(); from += maxBatchSize) {
+                List<? extends PreparedQuery> chunk = queries.subList(from, Math.min(from + maxBatchSize, queries.size()));
+                Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+                try {
+                    for (PreparedQuery query : chunk) {
+                        query.bindParameters(statement);
+                        if (debug) Platform.getInstance().getLogger().info(statement.toString());
+                        statement.addBatch();
+                    }
+
+                    statement.executeBatch();
+                    rows += chunk.size();
+                } catch (BatchUpdateException e) {
+                    Platform.getInstance().getLogger().warning(String.format(
+                            "Batch of [%d] rows failed for [%s], retrying individually: %s",
+                            chunk.size(),
+                            sql,
+                            e.getMessage()));
+
+                    statement.clearBatch();
+                    rows += retryIndividually(chunk, e.getUpdateCounts(), savepoint, connection);
+                } finally {
+                    if (savepoint != null) {
+                        connection.releaseSavepoint(savepoint);
+                    }
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Per-row fallback for a failed batch
+     * - Within a transaction, the batch is rolled back and every row is retried
+     * - In autocommit mode, only the rows the driver reports as failed are retried
+     */
+    private int retryIndividually(List<? extends PreparedQuery> chunk, int[] updateCounts, Savepoint savepoint, Connection connection) throws SQLException {
+        int rows = 0;
+        if (savepoint != null) {
+            connection.rollback(savepoint);
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            boolean executed = savepoint == null
+                    && updateCounts != null
+                    && i < updateCounts.length
+                    && updateCounts[i] != Statement.EXECUTE_FAILED;
+
+            if (executed || executeRow(chunk.get(i), connection)) {
+                rows++;
+            }
+        }
+
+        return rows;
+    }
+
+    public int writeDeleteQueue(Connection connection) throws SQLException {
+        return writeQueue(deleteQueue::poll, connection);
+    }
+
+    public int writeInsertQueue(Connection connection) throws SQLException {
+        return writeQueue(insertQueue::poll, connection);
+    }
+
+    /**
+     * Create missing tables, then apply schema migrations in the order they were queued
+     * - Once a migration fails, later migrations are skipped until the next startup
+     */
+    public void writeCreateTableQueue(Connection connection) {
+        boolean migrationFailed = false;
+        for (CreateTableQuery tableQuery = createQueue.poll(); tableQuery != null; tableQuery = createQueue.poll()) {
+            if (tableQuery instanceof SchemaMigrationQuery) {
+                SchemaMigrationQuery migration = (SchemaMigrationQuery) tableQuery;
+                if (migrationFailed) {
+                    continue;
+                }
+
+                try {
+                    if (migration.migrate(connection)) {
+                        log(Level.INFO, String.format("Applied schema migration [%s].", migration.getName()));
+                    }
+                } catch (SQLException e) {
+                    migrationFailed = true;
+                    log(Level.SEVERE, String.format("Schema migration [%s] failed, skipping later migrations: %s",
+                            migration.getName(), e.getMessage()));
+                }
+            } else {
+                try {
+                    executeStatement(tableQuery, connection);
+                } catch (SQLException e) {
+                    log(Level.SEVERE, String.format("Unable to create table [%s]: %s", tableQuery.getTable(), e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private static void log(Level level, String message) {
+        Platform.getInstance().getLogger().log(level, message);
+    }
+
+    public int writeUpdateQueue(Connection connection) throws SQLException {
+        return writeQueue(updateQueue::poll, connection);
+    }
+
+    public boolean isSyncNeeded() {
+        return !createQueue.isEmpty() || !insertQueue.isEmpty() || !rollupQueue.isEmpty()
+                || !deltaQueue.isEmpty() || !updateQueue.isEmpty() || !deleteQueue.isEmpty() || !selectQueue.isEmpty();
+    }
+
+    public static AsyncDBQueue getInstance() {
+        if (instance == null) {
+            instance = new AsyncDBQueue();
+        }
+
+        return instance;
+    }
+}
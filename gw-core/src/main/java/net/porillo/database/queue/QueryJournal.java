@@ -0,0 +1,503 @@
+package net.porillo.database.queue;
+
+import lombok.Getter;
+import net.porillo.Platform;
+import net.porillo.database.api.PreparedQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped write-ahead journal for queued DB mutations
+ * <p>
+ * Every queued insert/update/delete is recorded as its SQL plus the
+ * parameters it binds at queue time. Writes go straight into the mapped
+ * file, so they survive a JVM crash without a system call per append.
+ * Entries are discarded once a flush has committed them, and anything
+ * still present at startup is replayed before the tables are loaded.
+ * <p>
+ * Each record carries a sequence number, increasing for the life of the
+ * journal, and each journal a random id. A flush stores the last sequence
+ * it covers in the database within its transaction, so a replay skips the
+ * records a crash left behind after their flush had already committed.
+ * <p>
+ * Layout: [magic][start][end][id][sequence] header followed by records of
+ * [length][crc32][sequence][table][sql][parameter count][parameters...]
+ * <p>
+ * A record with a length of 0 ends the journal early. Compaction and reset
+ * write one before they move the header's start, so a crash before its end
+ * moves too never reads past the records they kept.
+ */
+public class QueryJournal {
+
+    private static final int MAGIC = 0x474A4E32; // "GJN2"
+    private static final int HEADER_SIZE = 4 + 8 + 8 + 8 + 8;
+    private static final int START_OFFSET = 4, END_OFFSET = 12, ID_OFFSET = 20, SEQUENCE_OFFSET = 28;
+
+    // Parameter types:
+    private static final byte NULL = 0, INT = 1, LONG = 2, BOOLEAN = 3, DOUBLE = 4, STRING = 5;
+
+    private final File file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long start, end;
+
+    // Bytes discarded from the front of the file, keeps checkpoints stable:
+    private long compacted;
+
+    // Scratch space for the record being appended:
+    private final Object[] parameters = new Object[64];
+    private int parameterCount;
+    private final PreparedStatement recorder;
+    private final CRC32 crc = new CRC32();
+
+    @Getter private long appendedRecords;
+
+    // Identifies this journal's checkpoint in the database:
+    @Getter private final long id;
+
+    // Sequence number of the last record appended:
+    private long sequence;
+
+    public QueryJournal(File file, int initialCapacity) throws IOException {
+        this.file = file;
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        long capacity = Math.max(channel.size(), Math.max(HEADER_SIZE, initialCapacity));
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (buffer.getInt(0) == MAGIC) {
+            this.start = buffer.getLong(START_OFFSET);
+            this.end = buffer.getLong(END_OFFSET);
+            this.id = buffer.getLong(ID_OFFSET);
+            this.sequence = buffer.getLong(SEQUENCE_OFFSET);
+            if (start < HEADER_SIZE || end < start || end > capacity || sequence < 0) {
+                Platform.getInstance().getLogger().warning(String.format(
+                        "Query journal header is corrupt, discarding: [%s]", file.getName()));
+                this.start = this.end = HEADER_SIZE;
+                this.sequence = 0;
+                writeHeader();
+            }
+
+            //Append after the last readable record, not after bytes a crash left behind:
+            long readable = readableEnd();
+            if (readable != end) {
+                if (readable + 4 > end || buffer.getInt((int) readable) != 0) {
+                    Platform.getInstance().getLogger().warning(String.format(
+                            "Query journal is corrupt after [%d] bytes, discarding the remainder: [%s]",
+                            readable - start, file.getName()));
+                }
+
+                this.end = readable;
+                buffer.putLong(END_OFFSET, end);
+            }
+        } else {
+            if (buffer.getInt(0) != 0) {
+                Platform.getInstance().getLogger().warning(String.format(
+                        "Query journal has an unsupported format, discarding: [%s]", file.getName()));
+            }
+
+            //Random, not from the platform: a seeded RandomService repeats on every server
+            this.id = ThreadLocalRandom.current().nextLong();
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(ID_OFFSET, id);
+            this.start = this.end = HEADER_SIZE;
+            writeHeader();
+        }
+
+        this.recorder = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    //Only parameter setters are supported: setXxx(int index, value)
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        int index = (Integer) args[0];
+                        if (index < 1 || index > parameters.length) {
+                            throw new SQLException("Parameter index out of range: " + index);
+                        }
+
+                        parameters[index - 1] = args[1];
+                        parameterCount = Math.max(parameterCount, index);
+                        return null;
+                    } else if (method.getName().equals("clearParameters")) {
+                        parameterCount = 0;
+                        return null;
+                    }
+
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Record a query and the parameters it binds right now
+     */
+    public synchronized void append(PreparedQuery query) {
+        try {
+            parameterCount = 0;
+            query.bindParameters(recorder);
+
+            byte[] table = query.getTable().getBytes(StandardCharsets.UTF_8);
+            byte[] sql = query.getSQL().getBytes(StandardCharsets.UTF_8);
+            int length = 8 + 4 + table.length + 4 + sql.length + 2;
+            for (int i = 0; i < parameterCount; i++) {
+                length += encodedSize(parameters[i]);
+            }
+
+            ensureCapacity(8 + length);
+            int recordStart = (int) end;
+            int position = recordStart + 8;
+            buffer.putLong(position, sequence + 1);
+            position += 8;
+            buffer.putInt(position, table.length);
+            putBytes(position + 4, table);
+            position += 4 + table.length;
+            buffer.putInt(position, sql.length);
+            putBytes(position + 4, sql);
+            position += 4 + sql.length;
+
+            buffer.putShort(position, (short) parameterCount);
+            position += 2;
+            for (int i = 0; i < parameterCount; i++) {
+                position = encode(parameters[i], position);
+            }
+
+            buffer.putInt(recordStart, length);
+            buffer.putInt(recordStart + 4, checksum(recordStart + 8, length));
+
+            //Publish the record last, an incomplete append is never replayed:
+            sequence++;
+            end = position;
+            buffer.putLong(SEQUENCE_OFFSET, sequence);
+            buffer.putLong(END_OFFSET, end);
+            appendedRecords++;
+        } catch (SQLException | IOException | RuntimeException e) {
+            Platform.getInstance().getLogger().warning(String.format(
+                    "Unable to journal query [%s]: %s", query.getSQL(), e.getMessage()));
+        } finally {
+            Arrays.fill(parameters, 0, parameterCount, null);
+        }
+    }
+
+    /**
+     * @return a position covering every record appended so far
+     */
+    public synchronized long checkpoint() {
+        return end + compacted;
+    }
+
+    /**
+     * @return sequence number of the last record appended, 0 if none ever was
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Discard all records appended before the checkpoint
+     * - Call once the queries they describe have been committed
+     */
+    public synchronized void truncate(long checkpoint) {
+        long position = checkpoint - compacted;
+        if (position <= start) {
+            return;
+        }
+
+        if (position >= end) {
+            reset();
+        } else {
+            start = position;
+            buffer.putLong(START_OFFSET, start);
+        }
+    }
+
+    /**
+     * Read back every record that has not been truncated
+     * - Reading stops at the first record that fails its checksum
+     */
+    public List<PreparedQuery> readAll() {
+        return readAfter(0);
+    }
+
+    /**
+     * Read back the records that have not been truncated and are numbered after the given sequence
+     * - Reading stops at the first record that fails its checksum
+     */
+    public List<PreparedQuery> readAfter(long committedSequence) {
+        return readBetween(committedSequence, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read back the records that have not been truncated and are numbered after the
+     * given sequence, up to and including the last sequence
+     * - Reading stops at the first record that fails its checksum
+     */
+    public synchronized List<PreparedQuery> readBetween(long committedSequence, long lastSequence) {
+        List<PreparedQuery> records = new ArrayList<>();
+        int position = (int) start;
+        while (position + 8 <= end) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                //Left by a compaction or reset that did not finish moving the end:
+                break;
+            } else if (length < 0 || position + 8 + length > end || buffer.getInt(position + 4) != checksum(position + 8, length)) {
+                Platform.getInstance().getLogger().warning(String.format(
+                        "Query journal is corrupt after [%d] records, ignoring the remainder.", records.size()));
+                break;
+            }
+
+            int cursor = position + 8;
+            long recordSequence = buffer.getLong(cursor);
+            if (recordSequence > lastSequence) {
+                break;
+            } else if (recordSequence <= committedSequence) {
+                position += 8 + length;
+                continue;
+            }
+
+            cursor += 8;
+            byte[] table = getBytes(cursor + 4, buffer.getInt(cursor));
+            cursor += 4 + table.length;
+            byte[] sql = getBytes(cursor + 4, buffer.getInt(cursor));
+            cursor += 4 + sql.length;
+
+            Object[] values = new Object[buffer.getShort(cursor)];
+            cursor += 2;
+            for (int i = 0; i < values.length; i++) {
+                byte type = buffer.get(cursor++);
+                switch (type) {
+                    case INT:
+                        values[i] = buffer.getInt(cursor);
+                        cursor += 4;
+                        break;
+                    case LONG:
+                        values[i] = buffer.getLong(cursor);
+                        cursor += 8;
+                        break;
+                    case BOOLEAN:
+                        values[i] = buffer.get(cursor++) != 0;
+                        break;
+                    case DOUBLE:
+                        values[i] = buffer.getDouble(cursor);
+                        cursor += 8;
+                        break;
+                    case STRING:
+                        byte[] value = getBytes(cursor + 4, buffer.getInt(cursor));
+                        cursor += 4 + value.length;
+                        values[i] = new String(value, StandardCharsets.UTF_8);
+                        break;
+                    default:
+                        values[i] = null;
+                }
+            }
+
+            records.add(new JournaledQuery(
+                    new String(table, StandardCharsets.UTF_8),
+                    new String(sql, StandardCharsets.UTF_8),
+                    values));
+            position += 8 + length;
+        }
+
+        return records;
+    }
+
+    /**
+     * @return bytes of journaled records awaiting a flush
+     */
+    public synchronized long getPendingBytes() {
+        return end - start;
+    }
+
+    public synchronized void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return the end of the records a read would return, i.e., before an empty or corrupt record
+     */
+    private long readableEnd() {
+        int position = (int) start;
+        while (position + 8 <= end) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 8 + length > end || buffer.getInt(position + 4) != checksum(position + 8, length)) {
+                break;
+            }
+
+            position += 8 + length;
+        }
+
+        return position;
+    }
+
+    private void reset() {
+        compacted += end - HEADER_SIZE;
+        start = HEADER_SIZE;
+        end = HEADER_SIZE;
+        buffer.putInt(HEADER_SIZE, 0);
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        buffer.putLong(START_OFFSET, start);
+        buffer.putLong(END_OFFSET, end);
+        buffer.putLong(SEQUENCE_OFFSET, sequence);
+    }
+
+    /**
+     * Make room for a record, first by dropping truncated bytes from
+     * the front of the file and then by growing the mapping
+     * - Pending records are only moved into truncated bytes they do not overlap,
+     * so the records the header points at stay intact until it points at the copy
+     * - The copy is followed by an empty record, then the start and the end move
+     */
+    private void ensureCapacity(int recordSize) throws IOException {
+        if (end + recordSize <= buffer.capacity()) {
+            return;
+        }
+
+        int pending = (int) (end - start);
+        if (HEADER_SIZE + pending + 4 <= start) {
+            putBytes(HEADER_SIZE, getBytes((int) start, pending));
+            buffer.putInt(HEADER_SIZE + pending, 0);
+
+            compacted += start - HEADER_SIZE;
+            start = HEADER_SIZE;
+            end = HEADER_SIZE + pending;
+            writeHeader();
+        }
+
+        long capacity = buffer.capacity();
+        while (end + recordSize > capacity) {
+            capacity *= 2;
+        }
+
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Query journal is full: [%s]", file.getName()));
+        }
+
+        if (capacity != buffer.capacity()) {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    private int checksum(int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(position + length).position(position);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private void putBytes(int position, byte[] bytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.put(bytes);
+    }
+
+    private byte[] getBytes(int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static int encodedSize(Object value) {
+        if (value instanceof Integer) {
+            return 1 + 4;
+        } else if (value instanceof Long || value instanceof Double) {
+            return 1 + 8;
+        } else if (value instanceof Boolean) {
+            return 1 + 1;
+        } else if (value == null) {
+            return 1;
+        }
+
+        return 1 + 4 + value.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private int encode(Object value, int position) {
+        if (value instanceof Integer) {
+            buffer.put(position, INT);
+            buffer.putInt(position + 1, (Integer) value);
+            return position + 5;
+        } else if (value instanceof Long) {
+            buffer.put(position, LONG);
+            buffer.putLong(position + 1, (Long) value);
+            return position + 9;
+        } else if (value instanceof Double) {
+            buffer.put(position, DOUBLE);
+            buffer.putDouble(position + 1, (Double) value);
+            return position + 9;
+        } else if (value instanceof Boolean) {
+            buffer.put(position, BOOLEAN);
+            buffer.put(position + 1, (byte) ((Boolean) value ? 1 : 0));
+            return position + 2;
+        } else if (value == null) {
+            buffer.put(position, NULL);
+            return position + 1;
+        }
+
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.put(position, STRING);
+        buffer.putInt(position + 1, bytes.length);
+        putBytes(position + 5, bytes);
+        return position + 5 + bytes.length;
+    }
+
+    /**
+     * A journaled query, replayed with the parameter values it was recorded with
+     */
+    private static class JournaledQuery implements PreparedQuery {
+
+        private final String table, sql;
+        private final Object[] values;
+
+        private JournaledQuery(String table, String sql, Object[] values) {
+            this.table = table;
+            this.sql = sql;
+            this.values = values;
+        }
+
+        @Override
+        public String getTable() {
+            return table;
+        }
+
+        @Override
+        public String getSQL() {
+            return sql;
+        }
+
+        @Override
+        public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                preparedStatement.setObject(i + 1, values[i]);
+            }
+        }
+    }
+}
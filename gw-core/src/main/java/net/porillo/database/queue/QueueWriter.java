@@ -0,0 +1,182 @@
+package net.porillo.database.queue;
+
+import lombok.Getter;
+
+/**
+ * Dedicated thread that flushes the AsyncDBQueue
+ * <p>
+ * A flush starts when the queue holds at least rowThreshold rows, when
+ * its oldest entry is older than maxAge, when interval has passed since
+ * the last flush, or when one is requested. Flushes run one at a time on
+ * this thread, so a slow flush delays the next one instead of overlapping
+ * it. While the queue is over maxDepth the writer flushes back-to-back,
+ * and producers off the main thread wait for it to drain. After a failed
+ * flush, e.g., while the database is down, the writer waits before retrying.
+ */
+public class QueueWriter implements Runnable {
+
+    private static final long POLL_MILLIS = 1000L;
+    private static final long MAX_PRODUCER_WAIT_MILLIS = 5000L;
+    private static final long RETRY_MILLIS = 5000L;
+
+    private final AsyncDBQueue queue;
+    @Getter private final long intervalMillis;
+    @Getter private final long maxAgeMillis;
+    @Getter private final int rowThreshold;
+    @Getter private final int maxDepth;
+
+    private final Object lock = new Object();
+    private volatile boolean running;
+    private boolean flushRequested;
+    private Thread thread;
+
+    public QueueWriter(AsyncDBQueue queue, long intervalMillis, long maxAgeMillis, int rowThreshold, int maxDepth) {
+        this.queue = queue;
+        this.intervalMillis = intervalMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        this.rowThreshold = Math.max(1, rowThreshold);
+        this.maxDepth = Math.max(this.rowThreshold, maxDepth);
+    }
+
+    public void start() {
+        this.running = true;
+        this.thread = new Thread(this, "GlobalWarming-DB-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stop the thread, waiting for a flush in progress to finish
+     */
+    public void stop() {
+        this.running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void requestFlush() {
+        synchronized (lock) {
+            flushRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Called after each queued write, wakes the writer once the row threshold is reached
+     */
+    public void onQueued(int depth) {
+        if (depth >= rowThreshold) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Backpressure: block the calling (non-main) thread while the queue is over maxDepth
+     * - Gives up after a few seconds, the write is still queued
+     */
+    public void awaitCapacity() {
+        long deadline = System.currentTimeMillis() + MAX_PRODUCER_WAIT_MILLIS;
+        synchronized (lock) {
+            while (running && queue.getQueueDepth() > maxDepth) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    return;
+                }
+
+                lock.notifyAll();
+                try {
+                    lock.wait(Math.min(wait, 50L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long lastFlush = System.currentTimeMillis();
+        while (running) {
+            String reason = null;
+            synchronized (lock) {
+                while (running && (reason = getFlushReason(lastFlush)) == null) {
+                    try {
+                        lock.wait(POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                flushRequested = false;
+            }
+
+            if (!running) {
+                return;
+            }
+
+            lastFlush = System.currentTimeMillis();
+            boolean flushed = queue.flush(reason);
+
+            //Release producers waiting on backpressure:
+            synchronized (lock) {
+                lock.notifyAll();
+                if (!flushed) {
+                    awaitRetry();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait out the retry delay, only stopping early to shut down
+     * - Caller must hold the lock
+     */
+    private void awaitRetry() {
+        long deadline = System.currentTimeMillis() + RETRY_MILLIS;
+        for (long wait = RETRY_MILLIS; running && wait > 0; wait = deadline - System.currentTimeMillis()) {
+            try {
+                lock.wait(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return why a flush is due, or NULL if it isn't
+     */
+    private String getFlushReason(long lastFlush) {
+        if (flushRequested) {
+            return "requested";
+        }
+
+        int depth = queue.getQueueDepth();
+        if (depth >= rowThreshold) {
+            return String.format("%d rows queued", depth);
+        }
+
+        long age = queue.getOldestEntryAgeMillis();
+        if (age > 0 && age >= maxAgeMillis) {
+            return String.format("oldest entry %d ms old", age);
+        }
+
+        if (System.currentTimeMillis() - lastFlush >= intervalMillis && queue.isSyncNeeded()) {
+            return "interval";
+        }
+
+        return null;
+    }
+}
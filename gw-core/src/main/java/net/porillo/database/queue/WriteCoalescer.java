@@ -0,0 +1,126 @@
+package net.porillo.database.queue;
+
+import net.porillo.database.api.KeyedQuery;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BinaryOperator;
+
+/**
+ * Last-writer-wins queue of row writes, keyed by (table, primary key)
+ * - A row is queued once, in the order it was first written
+ * - Writing it again replaces the pending query in place
+ * - Queries bind their parameters at flush time, so the latest state is written
+ */
+public class WriteCoalescer<T extends KeyedQuery> {
+
+    private final Map<Key, T> pending = new ConcurrentHashMap<>();
+    private final Queue<Key> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @return the pending query this one replaced, if any
+     */
+    public T offer(T query) {
+        Key key = new Key(query);
+        T previous = pending.put(key, query);
+        if (previous == null) {
+            order.offer(key);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Combine the query with the pending write for the same row, if any
+     * - Used for additive writes (e.g., rollups) where replacing would lose data
+     */
+    public void merge(T query, BinaryOperator<T> merger) {
+        Key key = new Key(query);
+        boolean[] added = new boolean[1];
+        pending.compute(key, (k, previous) -> {
+            if (previous == null) {
+                added[0] = true;
+                return query;
+            }
+
+            return merger.apply(previous, query);
+        });
+
+        if (added[0]) {
+            order.offer(key);
+        }
+    }
+
+    public T poll() {
+        for (Key key = order.poll(); key != null; key = order.poll()) {
+            T query = pending.remove(key);
+            if (query != null) {
+                return query;
+            }
+        }
+
+        return null;
+    }
+
+    public T peek() {
+        for (Key key : order) {
+            T query = pending.get(key);
+            if (query != null) {
+                return query;
+            }
+        }
+
+        return null;
+    }
+
+    public boolean contains(KeyedQuery query) {
+        return pending.containsKey(new Key(query));
+    }
+
+    /**
+     * Drop the pending write for the same row as the given query
+     *
+     * @return the dropped query, if any
+     */
+    public T remove(KeyedQuery query) {
+        // The stale key left in the order queue is skipped by poll()
+        return pending.remove(new Key(query));
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private static final class Key {
+
+        private final String table;
+        private final Object primaryKey;
+
+        private Key(KeyedQuery query) {
+            this.table = query.getTable();
+            this.primaryKey = query.getPrimaryKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            return table.equals(that.table) && Objects.equals(primaryKey, that.primaryKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * table.hashCode() + Objects.hashCode(primaryKey);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.porillo.engine;
+
+import net.porillo.engine.api.Model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares model instances between worlds with identical model files
+ * <p>
+ * Each world's file is read and hashed; a model is parsed once per
+ * distinct (type, variant, contents) and the instance is handed to every
+ * world using those contents. Worlds that copied the defaults from the
+ * jar therefore share a single parse. Shared models must be treated as
+ * read-only, and report the path of the first world that loaded them.
+ * <p>
+ * Reloading re-reads a world's file and only parses it when its contents
+ * changed. A file that fails to parse is rejected and the world keeps its
+ * previous model.
+ */
+public class ModelRegistry {
+
+    //Created eagerly, worlds load their models from pool threads:
+    private static final ModelRegistry instance = new ModelRegistry();
+
+    private final Map<List<Object>, CompletableFuture<Model>> byWorld = new ConcurrentHashMap<>();
+    private final Map<List<Object>, CompletableFuture<Model>> byContent = new ConcurrentHashMap<>();
+    private final Map<List<Object>, String> worldHashes = new ConcurrentHashMap<>();
+
+    // Statistics, used to report the parsing time saved by sharing:
+    private final AtomicInteger requested = new AtomicInteger();
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicLong parseNanos = new AtomicLong();
+
+    /**
+     * Load a world's model on the calling thread, or get the shared instance
+     */
+    public <T extends Model> T get(Class<T> type, String worldName, String modelName, Object variant, Supplier<T> factory) {
+        return join(load(type, worldName, modelName, variant, factory, Runnable::run));
+    }
+
+    /**
+     * Load a world's model on the executor, or get the shared instance
+     *
+     * @param variant  settings the model is built with besides its file, e.g., a sensitivity (may be NULL)
+     * @param factory  builds the model from the world's file
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Model> CompletableFuture<T> load(Class<T> type, String worldName, String modelName, Object variant, Supplier<T> factory, Executor executor) {
+        List<Object> worldKey = Arrays.asList(type, worldName, variant);
+        CompletableFuture<Model> future = byWorld.computeIfAbsent(worldKey, key -> {
+            requested.incrementAndGet();
+            return CompletableFuture
+                    .supplyAsync(() -> hash(new FileModel(worldName, modelName).getContents()), executor)
+                    .thenCompose(hash -> {
+                        worldHashes.put(worldKey, hash);
+                        return byContent.computeIfAbsent(Arrays.asList(type, variant, hash),
+                                contentKey -> CompletableFuture.supplyAsync(() -> parse(factory), executor));
+                    });
+        });
+
+        return (CompletableFuture<T>) future;
+    }
+
+    /**
+     * Re-read a world's model file on the executor
+     * - Completes with NULL when the file is unchanged
+     * - Completes exceptionally when the file is invalid, the world keeps its previous model
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Model> CompletableFuture<T> reload(Class<T> type, String worldName, String modelName, Object variant, Supplier<T> factory, Executor executor) {
+        List<Object> worldKey = Arrays.asList(type, worldName, variant);
+        CompletableFuture<Model> future = CompletableFuture
+                .supplyAsync(() -> hash(new FileModel(worldName, modelName).getContents()), executor)
+                .thenCompose(hash -> {
+                    if (hash.equals(worldHashes.get(worldKey))) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    List<Object> contentKey = Arrays.asList(type, variant, hash);
+                    CompletableFuture<Model> parsed = byContent.computeIfAbsent(contentKey,
+                            key -> CompletableFuture.supplyAsync(() -> parse(factory), executor));
+                    return parsed.whenComplete((model, error) -> {
+                        if (error != null) {
+                            //Forget the rejected contents, so fixing the file and saving it again retries:
+                            byContent.remove(contentKey, parsed);
+                        } else {
+                            byWorld.put(worldKey, parsed);
+                            worldHashes.put(worldKey, hash);
+                            release();
+                        }
+                    });
+                });
+
+        return (CompletableFuture<T>) future;
+    }
+
+    /**
+     * Wait for a model, rethrowing the loading error itself
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * @return distinct models parsed so far
+     */
+    public int getParsed() {
+        return parsed.get();
+    }
+
+    /**
+     * @return world models requested so far, shared or not
+     */
+    public int getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * @return estimated parsing time saved by sharing, from the average parse time
+     */
+    public long getSavedMillis() {
+        int count = parsed.get();
+        return count == 0 ? 0 : parseNanos.get() / count * (requested.get() - count) / 1_000_000L;
+    }
+
+    /**
+     * Drop models no world uses anymore, e.g., the contents before a reload
+     */
+    private void release() {
+        Set<List<Object>> used = new HashSet<>();
+        for (Map.Entry<List<Object>, String> entry : worldHashes.entrySet()) {
+            List<Object> worldKey = entry.getKey();
+            used.add(Arrays.asList(worldKey.get(0), worldKey.get(2), entry.getValue()));
+        }
+
+        byContent.entrySet().removeIf(entry -> entry.getValue().isDone() && !used.contains(entry.getKey()));
+    }
+
+    private Model parse(Supplier<? extends Model> factory) {
+        long started = System.nanoTime();
+        Model model = factory.get();
+        parseNanos.addAndGet(System.nanoTime() - started);
+        parsed.incrementAndGet();
+        return model;
+    }
+
+    private static String hash(String contents) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(contents.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM provides SHA-256, fall back to the contents themselves
+            return contents;
+        }
+    }
+
+    public static ModelRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reads a model file without parsing it
+     */
+    private static class FileModel extends Model {
+
+        private FileModel(String worldName, String modelName) {
+            super(worldName, modelName);
+        }
+
+        @Override
+        public void loadModel() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.porillo.engine.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a world's climate, computed from one carbon value
+ * - Effects read these numbers on their hot paths instead of re-interpolating models
+ * - Published as a whole by the climate simulation thread, see ClimateSimulation
+ */
+@Getter
+@AllArgsConstructor
+public class ClimateState {
+
+    /**
+     * Version of the world's carbon value this snapshot was computed from
+     */
+    private final int version;
+
+    private final int carbonValue;
+
+    /**
+     * Carbon the temperature responds to, lags behind the carbon value, see WorldClimateEngine.tick()
+     */
+    private final double effectiveCarbon;
+
+    private final double temperature;
+    private final String formattedTemperature;
+
+    /**
+     * Blocks above (or below) the base sea level
+     */
+    private final int seaLevelDelta;
+
+    /**
+     * Snow and ice do not form below these heights
+     */
+    private final double snowHeight;
+    private final double iceHeight;
+
+    /**
+     * Chance [0-100] a crop grows or a mob spawns, missing entries are not affected
+     */
+    private final Map<Material, Double> cropChances;
+    private final Map<EntityType, Double> spawnChances;
+
+    public Double getCropChance(Material material) {
+        return cropChances.get(material);
+    }
+
+    public Double getSpawnChance(EntityType entityType) {
+        return spawnChances.get(entityType);
+    }
+}
@@ -0,0 +1,218 @@
+package net.porillo.engine.api;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Piecewise-linear curve, e.g., temperature to crop fitness
+ * - Inputs outside the curve are clamped to its end points
+ * - Points are kept in primitive arrays and segments are found by binary search
+ * - Lookup-table mode maps an input straight to its segment, with identical results
+ */
+public class Distribution {
+
+    /**
+     * Lookup-table size for curves compiled from now on, 0 for binary search
+     */
+    @Getter @Setter private static int defaultLookupTableSize;
+
+    public double[] temp;
+    public double[] fitness;
+    private transient volatile Curve curve;
+
+    public Distribution(List<Double> x, List<Double> y) {
+        this(toArray(x), toArray(y));
+    }
+
+    public Distribution(double[] temp, double[] fitness) {
+        this.temp = temp;
+        this.fitness = fitness;
+    }
+
+    public List<Double> getX() {
+        return toList(getCurve().x);
+    }
+
+    public List<Double> getY() {
+        return toList(getCurve().y);
+    }
+
+    /**
+     * Switch lookup-table mode on (size > 0) or off (size = 0) for this curve
+     */
+    public void setLookupTableSize(int size) {
+        this.curve = new Curve(temp, fitness, size);
+    }
+
+    public double getValue(double input) {
+        Curve curve = getCurve();
+        double[] x = curve.x;
+        double[] y = curve.y;
+        int last = x.length - 1;
+        if (input <= x[0]) {
+            return y[0];
+        } else if (input >= x[last]) {
+            return y[last];
+        }
+
+        int i = curve.segmentOf(input);
+        if (i < 1 || i > last) {
+            return -1;
+        }
+
+        return y[i - 1] + (input - x[i - 1]) / (x[i] - x[i - 1]) * (y[i] - y[i - 1]);
+    }
+
+    /**
+     * Inverse lookup: the first input where the curve reaches the given value
+     * - Flat segments at the value resolve to their first point
+     *
+     * @return the input, or NaN when the curve never reaches the value
+     */
+    public double getInput(double value) {
+        Curve curve = getCurve();
+        double[] x = curve.x;
+        double[] y = curve.y;
+        if (y[0] == value) {
+            return x[0];
+        }
+
+        for (int i = 1; i < x.length; i++) {
+            double low = Math.min(y[i - 1], y[i]);
+            double high = Math.max(y[i - 1], y[i]);
+            if (value >= low && value <= high) {
+                if (y[i] == y[i - 1]) {
+                    return x[i - 1];
+                }
+
+                return x[i - 1] + (value - y[i - 1]) / (y[i] - y[i - 1]) * (x[i] - x[i - 1]);
+            }
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Compiled lazily, as Gson fills in temp and fitness without calling a constructor
+     */
+    private Curve getCurve() {
+        Curve curve = this.curve;
+        if (curve == null) {
+            curve = new Curve(temp, fitness, defaultLookupTableSize);
+            this.curve = curve;
+        }
+
+        return curve;
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+
+        return array;
+    }
+
+    private static List<Double> toList(double[] values) {
+        List<Double> list = new ArrayList<>(values.length);
+        for (double value : values) {
+            list.add(value);
+        }
+
+        return list;
+    }
+
+    /**
+     * Immutable point arrays, with an optional table of segment indices
+     */
+    private static final class Curve {
+
+        private final double[] x;
+        private final double[] y;
+        private final boolean sorted;
+        private final int[] table;
+        private final double tableMin;
+        private final double tableScale;
+
+        private Curve(double[] x, double[] y, int tableSize) {
+            int length = Math.min(x.length, y.length);
+            this.x = new double[length];
+            this.y = new double[length];
+            System.arraycopy(x, 0, this.x, 0, length);
+            System.arraycopy(y, 0, this.y, 0, length);
+
+            boolean sorted = true;
+            for (int i = 1; i < length; i++) {
+                sorted &= this.x[i - 1] <= this.x[i];
+            }
+
+            this.sorted = sorted;
+            if (sorted && tableSize > 0 && length > 1 && this.x[length - 1] > this.x[0]) {
+                //Each cell holds the segment containing its lower bound:
+                this.table = new int[tableSize];
+                this.tableMin = this.x[0];
+                this.tableScale = tableSize / (this.x[length - 1] - this.x[0]);
+                for (int cell = 0; cell < tableSize; cell++) {
+                    table[cell] = upperBound(tableMin + cell / tableScale);
+                }
+            } else {
+                this.table = null;
+                this.tableMin = 0;
+                this.tableScale = 0;
+            }
+        }
+
+        /**
+         * @return index of the first point above the input, i.e., the end of its segment
+         */
+        private int segmentOf(double input) {
+            if (!sorted) {
+                //Unsorted points: keep the original first-match scan
+                for (int i = 0; i < x.length; i++) {
+                    if (input < x[i]) {
+                        return i;
+                    }
+                }
+
+                return -1;
+            }
+
+            if (table == null || input != input) {
+                return upperBound(input);
+            }
+
+            int cell = (int) ((input - tableMin) * tableScale);
+            int i = table[Math.max(0, Math.min(table.length - 1, cell))];
+
+            //A cell spans few points, so this only steps past the ones it contains:
+            while (i > 1 && x[i - 1] > input) {
+                i--;
+            }
+
+            while (i < x.length && x[i] <= input) {
+                i++;
+            }
+
+            return i;
+        }
+
+        private int upperBound(double input) {
+            int low = 0;
+            int high = x.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (x[mid] > input) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+
+            return low;
+        }
+    }
+}
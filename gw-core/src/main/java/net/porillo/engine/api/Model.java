@@ -1,13 +1,11 @@
 package net.porillo.engine.api;
 
 import lombok.Getter;
-import net.porillo.GlobalWarming;
+import net.porillo.Platform;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 public abstract class Model {
 
@@ -19,15 +17,7 @@ public abstract class Model {
         this.modelName = modelName;
         this.worldName = worldName;
 
-        if (GlobalWarming.getInstance() != null) {
-            this.modelsPath = GlobalWarming.getInstance().getDataFolder().toPath().resolve("models");
-        } else {
-            try {
-                this.modelsPath = Paths.get(getClass().getResource("/models").toURI());
-            } catch (URISyntaxException e) {
-                e.printStackTrace();
-            }
-        }
+        this.modelsPath = Platform.getInstance().getDataFolder().toPath().resolve("models");
     }
 
     public Path getPath() {
@@ -59,7 +49,7 @@ public abstract class Model {
     private void createIfNotExists() {
         Path path = getPath();
         if (!Files.exists(path)) {
-            GlobalWarming.getInstance().getLogger().info(String.format(
+            Platform.getInstance().getLogger().info(String.format(
                     "Model: [%s] does not exist at: [%s], creating.",
                     modelName,
                     path));
@@ -67,7 +57,7 @@ public abstract class Model {
             try {
                 // Copy resource from JAR to the correct path
                 Files.createDirectories(modelsPath.resolve(worldName));
-                Files.copy(GlobalWarming.getInstance().getResource(String.format("models/%s", modelName)), path);
+                Files.copy(Platform.getInstance().getResource(String.format("models/%s", modelName)), path);
             } catch (IOException e) {
                 e.printStackTrace();
             }
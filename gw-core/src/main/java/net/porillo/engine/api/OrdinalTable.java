@@ -0,0 +1,64 @@
+package net.porillo.engine.api;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Model values compiled into a dense array indexed by enum ordinal
+ * - Lookups are a single array read, with no hashing or boxing
+ * - Keys missing from the model hold UNDEFINED
+ * - Each missing key is reported once, see reportMiss()
+ */
+public final class OrdinalTable<E extends Enum<E>> {
+
+    public static final double UNDEFINED = Double.NaN;
+
+    private final Class<E> type;
+    private final double[] values;
+    private final AtomicIntegerArray reported;
+
+    public OrdinalTable(Class<E> type, Map<E, Double> map) {
+        E[] constants = type.getEnumConstants();
+        this.type = type;
+        this.values = new double[constants.length];
+        this.reported = new AtomicIntegerArray(constants.length);
+        for (int i = 0; i < values.length; i++) {
+            Double value = map.get(constants[i]);
+            values[i] = value == null ? UNDEFINED : value;
+        }
+    }
+
+    /**
+     * @return the key's value, or UNDEFINED
+     */
+    public double get(E key) {
+        return values[key.ordinal()];
+    }
+
+    public boolean isDefined(E key) {
+        return !Double.isNaN(values[key.ordinal()]);
+    }
+
+    /**
+     * @return true the first time a missing key is reported, so callers log it once
+     */
+    public boolean reportMiss(E key) {
+        return reported.compareAndSet(key.ordinal(), 0, 1);
+    }
+
+    /**
+     * @return the defined entries, e.g., for validation
+     */
+    public Map<E, Double> toMap() {
+        Map<E, Double> map = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            if (isDefined(key)) {
+                map.put(key, get(key));
+            }
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+}
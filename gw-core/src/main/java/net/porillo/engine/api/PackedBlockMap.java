@@ -0,0 +1,101 @@
+package net.porillo.engine.api;
+
+import java.util.Arrays;
+
+/**
+ * Reusable map from block positions to an int, e.g., a block type ordinal
+ * - Positions are packed into a long, see pack(), so nothing is boxed or allocated per block
+ * - Open addressing over primitive arrays; clear() is O(1) and keeps the arrays for the next use
+ * - Entries are visited in the order their positions were first put
+ * - Not thread-safe, keep one per thread
+ */
+public final class PackedBlockMap {
+
+    private long[] keys;
+    private int[] values;
+    private int[] stamps;
+    private int[] order;
+    private int stamp = 1;
+    private int size;
+    private int mask;
+
+    public PackedBlockMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1);
+    }
+
+    /**
+     * Pack a block position into a long: 26 bits each for x and z, 12 bits for y
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public void clear() {
+        size = 0;
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Map the position to the value, replacing the value of a position put before
+     */
+    public void put(long key, int value) {
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+
+        int slot = slotOf(key);
+        while (stamps[slot] == stamp) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        stamps[slot] = stamp;
+        keys[slot] = key;
+        values[slot] = value;
+        order[size++] = slot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of the index-th distinct position, in first-put order
+     */
+    public int valueAt(int index) {
+        return values[order[index]];
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        stamps = new int[capacity];
+        order = new int[capacity / 2 + 1];
+        mask = capacity - 1;
+        stamp = 1;
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldOrder = order;
+        int oldSize = size;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldSize; i++) {
+            put(oldKeys[oldOrder[i]], oldValues[oldOrder[i]]);
+        }
+    }
+}
@@ -2,8 +2,7 @@ package net.porillo.engine.models;
 
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
-import net.porillo.GlobalWarming;
-import net.porillo.engine.ClimateEngine;
+import net.porillo.Platform;
 import net.porillo.engine.api.Distribution;
 import net.porillo.engine.api.Model;
 
@@ -24,7 +23,7 @@ public class CarbonIndexModel extends Model {
     @Override
     public void loadModel() {
         this.indexMap = new TreeMap<>(Comparator.naturalOrder());
-        this.indexMap.putAll(GlobalWarming.getInstance().getGson()
+        this.indexMap.putAll(Platform.getInstance().getGson()
                 .fromJson(super.getContents(), new TypeToken<Map<Integer, Double>>() {
                 }.getType()));
 
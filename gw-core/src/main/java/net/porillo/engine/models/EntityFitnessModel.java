@@ -3,8 +3,7 @@ package net.porillo.engine.models;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import lombok.Getter;
-import net.porillo.GlobalWarming;
-import net.porillo.engine.ClimateEngine;
+import net.porillo.Platform;
 import net.porillo.engine.api.MobDistribution;
 import net.porillo.engine.api.Model;
 import org.bukkit.entity.EntityType;
@@ -23,20 +22,26 @@ public class EntityFitnessModel extends Model {
     @Override
     public void loadModel() {
         try {
-            this.entityFitnessMap = GlobalWarming.getInstance().getGson().fromJson(
+            this.entityFitnessMap = Platform.getInstance().getGson().fromJson(
                     super.getContents(),
                     new TypeToken<Map<EntityType, MobDistribution>>() {
                     }.getType());
         } catch (JsonSyntaxException ex) {
             ex.printStackTrace();
-            GlobalWarming.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
-            GlobalWarming.getInstance().getLogger().severe("Could not load into the expected <EntityType, MobDistribution> mapping.");
-            GlobalWarming.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
-            return;
+            Platform.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
+            Platform.getInstance().getLogger().severe("Could not load into the expected <EntityType, MobDistribution> mapping.");
+            Platform.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
         }
 
         if (this.entityFitnessMap == null) {
             throw new RuntimeException(String.format("No values found in: [%s]", super.getPath()));
         }
+
+        for (Map.Entry<EntityType, MobDistribution> entry : entityFitnessMap.entrySet()) {
+            MobDistribution distribution = entry.getValue();
+            if (distribution == null || distribution.temp == null || distribution.fitness == null || distribution.temp.length == 0) {
+                throw new RuntimeException(String.format("Invalid distribution for: [%s] in: [%s]", entry.getKey(), super.getPath()));
+            }
+        }
     }
 }
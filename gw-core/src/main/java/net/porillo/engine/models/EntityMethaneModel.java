@@ -0,0 +1,60 @@
+package net.porillo.engine.models;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import net.porillo.Platform;
+import net.porillo.engine.api.Model;
+import net.porillo.engine.api.OrdinalTable;
+import org.bukkit.entity.EntityType;
+
+import java.util.Map;
+
+public class EntityMethaneModel extends Model {
+
+    private OrdinalTable<EntityType> entityMethaneTable;
+
+    public EntityMethaneModel(String worldName) {
+        super(worldName, "entityMethaneModel.json");
+        this.loadModel();
+    }
+
+    @Override
+    public void loadModel() {
+        Map<EntityType, Double> entityMethaneMap = null;
+        try {
+            entityMethaneMap = Platform.getInstance().getGson().fromJson(
+                    super.getContents(),
+                    new TypeToken<Map<EntityType, Double>>() {
+                    }.getType());
+        } catch (JsonSyntaxException ex) {
+            ex.printStackTrace();
+            Platform.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
+            Platform.getInstance().getLogger().severe("Could not load into the expected <EntityType, MobDistribution> mapping.");
+            Platform.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
+        }
+
+        if (entityMethaneMap == null) {
+            throw new RuntimeException(String.format("No values found in: [%s]", super.getPath()));
+        }
+
+        this.entityMethaneTable = new OrdinalTable<>(EntityType.class, entityMethaneMap);
+    }
+
+    public Map<EntityType, Double> getEntityMethaneMap() {
+        return entityMethaneTable.toMap();
+    }
+
+    public double getContribution(EntityType entityType) {
+        double contribution = entityMethaneTable.get(entityType);
+        if (!Double.isNaN(contribution)) {
+            return contribution;
+        } else {
+            //Report once per entity type:
+            if (entityMethaneTable.reportMiss(entityType)) {
+                Platform.getInstance().getLogger().info(String.format("No contribution defined in the model for: [%s]", entityType.name()));
+            }
+
+            return 0.0;
+        }
+    }
+}
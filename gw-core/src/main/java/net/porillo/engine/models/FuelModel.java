@@ -3,16 +3,16 @@ package net.porillo.engine.models;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
-import lombok.Getter;
-import net.porillo.GlobalWarming;
+import net.porillo.Platform;
 import net.porillo.engine.api.Model;
+import net.porillo.engine.api.OrdinalTable;
 import org.bukkit.Material;
 
 import java.util.Map;
 
 public class FuelModel extends Model {
 
-    @Getter private Map<Material, Double> fuelMap;
+    private OrdinalTable<Material> fuelTable;
 
     private final Gson gson;
 
@@ -24,23 +24,31 @@ public class FuelModel extends Model {
 
     @Override
     public void loadModel() {
+        Map<Material, Double> fuelMap = null;
         try {
-            this.fuelMap = gson.fromJson(super.getContents(), new TypeToken<Map<Material, Double>>() {}.getType());
+            fuelMap = gson.fromJson(super.getContents(), new TypeToken<Map<Material, Double>>() {}.getType());
         } catch (JsonSyntaxException ex) {
             ex.printStackTrace();
-            GlobalWarming.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
-            GlobalWarming.getInstance().getLogger().severe("Could not load into the expected <Material, Double> mapping.");
-            GlobalWarming.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
+            Platform.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
+            Platform.getInstance().getLogger().severe("Could not load into the expected <Material, Double> mapping.");
+            Platform.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
         }
 
-        if (this.fuelMap == null) {
+        if (fuelMap == null) {
             throw new RuntimeException(String.format("No values found in: [%s]", super.getPath()));
         }
+
+        this.fuelTable = new OrdinalTable<>(Material.class, fuelMap);
+    }
+
+    public Map<Material, Double> getFuelMap() {
+        return fuelTable.toMap();
     }
 
     public double getContribution(Material fuelType) {
-        if (fuelMap.containsKey(fuelType)) {
-            return fuelMap.get(fuelType);
+        double contribution = fuelTable.get(fuelType);
+        if (!Double.isNaN(contribution)) {
+            return contribution;
         } else {
             throw new NullPointerException(String.format("No contribution defined in the model for: [%s]", fuelType.name()));
         }
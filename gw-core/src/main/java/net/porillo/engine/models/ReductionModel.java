@@ -0,0 +1,62 @@
+package net.porillo.engine.models;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import net.porillo.Platform;
+import net.porillo.engine.api.Model;
+import net.porillo.engine.api.OrdinalTable;
+import org.bukkit.Material;
+
+import java.util.Map;
+
+public class ReductionModel extends Model {
+
+    private OrdinalTable<Material> reductionTable;
+    private final Gson gson;
+
+    public ReductionModel(Gson gson, String worldName) {
+        super(worldName, "reductionModel.json");
+        this.gson = gson;
+        this.loadModel();
+    }
+
+    @Override
+    public void loadModel() {
+        Map<Material, Double> reductionMap = null;
+        try {
+            reductionMap = gson.fromJson(super.getContents(), new TypeToken<Map<Material, Double>>() {}.getType());
+        } catch (JsonSyntaxException ex) {
+            ex.printStackTrace();
+            Platform.getInstance().getLogger().severe("Error loading model file: " + super.getPath());
+            Platform.getInstance().getLogger().severe("Could not load into the expected <Material, Double> mapping.");
+            Platform.getInstance().getLogger().severe("Please check the formatting and verify the types are correct.");
+        }
+
+        if (reductionMap == null) {
+            throw new RuntimeException(String.format("No values found in: [%s]", super.getPath()));
+        }
+
+        this.reductionTable = new OrdinalTable<>(Material.class, reductionMap);
+    }
+
+    public Map<Material, Double> getReductionMap() {
+        return reductionTable.toMap();
+    }
+
+    public double getReduction(Material block) {
+        double reduction = reductionTable.get(block);
+        if (!Double.isNaN(reduction)) {
+            return reduction;
+        } else {
+            //Warn once per block type:
+            if (reductionTable.reportMiss(block)) {
+                Platform.getInstance().getLogger().warning(
+                        String.format("No reduction defined in %s/reductionModel.json for: [%s]",
+                                getWorldName(), block.name()));
+            }
+
+            return 0;
+        }
+    }
+}
@@ -86,4 +86,19 @@ public class ScoreTempModel extends Model {
     public double getTemperature(int score) {
         return distribution.getValue((double) score);
     }
+
+    public double getTemperature(double score) {
+        return distribution.getValue(score);
+    }
+
+    /**
+     * Get the score for a temperature, the inverse of getTemperature
+     * - Uses the lowest score when several map onto the temperature
+     *
+     * @return NULL if the model never reaches the temperature
+     */
+    public Integer getScore(double temperature) {
+        double score = distribution.getInput(temperature);
+        return Double.isNaN(score) ? null : (int) Math.round(score);
+    }
 }
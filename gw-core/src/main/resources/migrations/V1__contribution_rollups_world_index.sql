@@ -0,0 +1 @@
+CREATE INDEX idx_contribution_rollups_world ON contribution_rollups (worldId, bucket);
@@ -0,0 +1 @@
+CREATE INDEX idx_reduction_rollups_world ON reduction_rollups (worldId, bucket);
@@ -0,0 +1 @@
+CREATE INDEX idx_offsets_hunter ON offsets (hunterId);
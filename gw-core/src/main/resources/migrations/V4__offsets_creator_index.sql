@@ -0,0 +1 @@
+CREATE INDEX idx_offsets_creator ON offsets (creatorId);
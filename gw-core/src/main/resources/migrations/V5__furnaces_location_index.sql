@@ -0,0 +1 @@
+CREATE INDEX idx_furnaces_location ON furnaces (worldId, blockX, blockY, blockZ);
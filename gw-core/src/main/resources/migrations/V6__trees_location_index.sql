@@ -0,0 +1 @@
+CREATE INDEX idx_trees_location ON trees (worldId, blockX, blockY, blockZ);
@@ -0,0 +1,70 @@
+package net.porillo;
+
+import net.porillo.RandomService.Stream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Test
+public class RandomServiceTest {
+
+    private static long[] draw(SplittableRandom random, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextLong();
+        }
+
+        return values;
+    }
+
+    @Test
+    public void testSeededStreamsRepeat() {
+        long[] first = draw(new RandomService(42L).get(Stream.FIRE), 100);
+        long[] second = draw(new RandomService(42L).get(Stream.FIRE), 100);
+        Assert.assertEquals(second, first);
+
+        long[] otherSeed = draw(new RandomService(43L).get(Stream.FIRE), 100);
+        Assert.assertNotEquals(otherSeed, first);
+    }
+
+    @Test
+    public void testStreamsAreIndependent() {
+        RandomService service = new RandomService(42L);
+        long[] fire = draw(service.get(Stream.FIRE), 100);
+
+        //Drawing ids in between must not shift the fire stream:
+        RandomService interleaved = new RandomService(42L);
+        SplittableRandom interleavedFire = interleaved.get(Stream.FIRE);
+        long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            interleaved.nextId();
+            values[i] = interleavedFire.nextLong();
+        }
+
+        Assert.assertEquals(values, fire);
+        Assert.assertNotEquals(draw(new RandomService(42L).get(Stream.WEATHER), 100), fire);
+    }
+
+    @Test
+    public void testEachThreadHasItsOwnGenerator() throws InterruptedException {
+        RandomService service = new RandomService(42L);
+        SplittableRandom mine = service.get(Stream.IDS);
+        Assert.assertSame(service.get(Stream.IDS), mine);
+
+        AtomicReference<SplittableRandom> theirs = new AtomicReference<>();
+        Thread thread = new Thread(() -> theirs.set(service.get(Stream.IDS)), "GlobalWarming-Test");
+        thread.start();
+        thread.join();
+        Assert.assertNotSame(theirs.get(), mine);
+    }
+
+    @Test
+    public void testIdsAreNonNegative() {
+        RandomService service = new RandomService();
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(service.nextId() >= 0);
+        }
+    }
+}
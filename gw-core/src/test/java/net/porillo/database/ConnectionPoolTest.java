@@ -0,0 +1,96 @@
+package net.porillo.database;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeClass
+    public void setUp() {
+        pool = new ConnectionPool(
+                () -> DriverManager.getConnection("jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1"),
+                1, 2, 60_000L, 250L, 8);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws SQLException, ClassNotFoundException {
+        try (Connection connection = pool.borrow()) {
+            connection.createStatement().execute("SELECT 1");
+        }
+
+        int total = pool.getTotalConnections();
+        for (int i = 0; i < 10; i++) {
+            try (Connection connection = pool.borrow()) {
+                connection.createStatement().execute("SELECT 1");
+            }
+        }
+
+        assertThat("connection was not reused", pool.getTotalConnections() == total);
+        assertThat("connection was not returned", pool.getActiveConnections() == 0);
+    }
+
+    @Test
+    public void testStatementsAreCached() throws SQLException, ClassNotFoundException {
+        long hits = pool.getStatementCacheHits();
+        try (Connection connection = pool.borrow()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+                    statement.setInt(1, i);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        assertThat("missing row", rs.next());
+                        assertThat("wrong parameter", rs.getInt(1) == i);
+                    }
+                }
+            }
+        }
+
+        assertThat("statement was not cached", pool.getStatementCacheHits() - hits >= 2);
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void testBorrowTimesOutWhenExhausted() throws SQLException, ClassNotFoundException {
+        try (Connection first = pool.borrow(); Connection second = pool.borrow()) {
+            pool.borrow();
+        }
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void testReturnedConnectionIsUnusable() throws SQLException, ClassNotFoundException {
+        Connection connection = pool.borrow();
+        connection.close();
+        connection.createStatement();
+    }
+
+    @Test
+    public void testMinimumSizeIsOpened() throws InterruptedException {
+        ConnectionPool filled = new ConnectionPool(
+                () -> DriverManager.getConnection("jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1"),
+                2, 3, 60_000L, 250L, 8);
+        try {
+            for (int i = 0; i < 100 && filled.getIdleConnections() < 2; i++) {
+                Thread.sleep(10);
+            }
+
+            assertThat("minimum size was not opened", filled.getIdleConnections() == 2);
+            assertThat("opened more than the minimum size", filled.getTotalConnections() == 2);
+        } finally {
+            filled.close();
+        }
+    }
+}
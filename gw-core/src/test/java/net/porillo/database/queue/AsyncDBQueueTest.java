@@ -0,0 +1,283 @@
+package net.porillo.database.queue;
+
+import net.porillo.HeadlessPlatform;
+import net.porillo.Platform;
+import net.porillo.database.ConnectionManager;
+import net.porillo.database.api.DeltaQuery;
+import net.porillo.database.api.InsertQuery;
+import net.porillo.database.api.RollupQuery;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AsyncDBQueueTest {
+
+    private static final String URL = "jdbc:h2:mem:async_queue_test;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE";
+    private static final UUID WORLD = UUID.randomUUID();
+
+    private AsyncDBQueue queue;
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        HeadlessPlatform platform = new HeadlessPlatform();
+        platform.setConnectionManager(new ConnectionManager("H2", null, 0, null, null, null) {
+            @Override
+            public Connection openConnection() throws SQLException {
+                return DriverManager.getConnection(URL);
+            }
+        });
+        Platform.setInstance(platform);
+
+        queue = new AsyncDBQueue();
+        execute("DROP TABLE IF EXISTS counters");
+        execute("DROP TABLE IF EXISTS counter_rollups");
+        execute("DROP TABLE IF EXISTS journal_checkpoints");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        Platform.setInstance(null);
+    }
+
+    @Test
+    public void testFailedFlushIsRequeued() throws SQLException {
+        queue.queueInsertQuery(new CounterInsert(1));
+        queue.queueRollupQuery(new CounterRollup(1, 5));
+        assertThat("flush should fail without tables", !queue.flush("test"));
+        assertThat("writes were dropped", queue.getQueueDepth() == 2);
+
+        // Written after the failure, summed with the requeued rollup
+        createTables();
+        queue.queueRollupQuery(new CounterRollup(1, 3));
+        assertThat("flush failed", queue.flush("test"));
+        assertThat("writes were not flushed", queue.getQueueDepth() == 0);
+        assertThat("insert was lost", count("SELECT COUNT(*) FROM counters") == 1);
+        assertThat("rollup was lost", count("SELECT value FROM counter_rollups") == 8);
+    }
+
+    @Test
+    public void testRejectedRowIsSkipped() throws SQLException {
+        createTables();
+        execute("INSERT INTO counters (id) VALUES (1)");
+
+        // The duplicate is rejected, the rest of the flush commits
+        queue.queueInsertQuery(new CounterInsert(1));
+        queue.queueInsertQuery(new CounterInsert(2));
+        assertThat("flush failed", queue.flush("test"));
+        assertThat("rejected row was retried", queue.getQueueDepth() == 0);
+        assertThat("valid row was lost", count("SELECT COUNT(*) FROM counters") == 2);
+    }
+
+    @Test
+    public void testReplaySkipsCommittedFlush() throws IOException, SQLException {
+        createTables();
+        File file = File.createTempFile("queue", ".journal");
+        File crashed = File.createTempFile("crashed", ".journal");
+        file.deleteOnExit();
+        crashed.deleteOnExit();
+
+        QueryJournal journal = new QueryJournal(file, 4096);
+        queue.setJournal(journal);
+        queue.queueRollupQuery(new CounterRollup(1, 5));
+
+        // The journal as a crash after the commit, before the truncate, would leave it
+        Files.copy(file.toPath(), crashed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertThat("flush failed", queue.flush("test"));
+        assertThat("journal was not truncated", journal.getPendingBytes() == 0);
+        journal.close();
+
+        // Queued after the flush, never committed
+        QueryJournal restarted = new QueryJournal(crashed, 4096);
+        restarted.append(new CounterRollup(1, 2));
+        Files.copy(crashed.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        AsyncDBQueue replaying = new AsyncDBQueue();
+        replaying.setJournal(restarted);
+        try (Connection connection = DriverManager.getConnection(URL)) {
+            replaying.replayJournal(connection);
+        }
+
+        assertThat("committed rollup was replayed", count("SELECT value FROM counter_rollups") == 7);
+        assertThat("journal was not truncated", restarted.getPendingBytes() == 0);
+        restarted.close();
+
+        // A crash during the replay's own truncate
+        AsyncDBQueue again = new AsyncDBQueue();
+        again.setJournal(new QueryJournal(file, 4096));
+        try (Connection connection = DriverManager.getConnection(URL)) {
+            again.replayJournal(connection);
+        }
+
+        assertThat("replay was applied twice", count("SELECT value FROM counter_rollups") == 7);
+        again.getJournal().close();
+    }
+
+    @Test
+    public void testFailedReplayIsKept() throws IOException, SQLException {
+        File file = File.createTempFile("queue", ".journal");
+        file.deleteOnExit();
+        QueryJournal journal = new QueryJournal(file, 4096);
+        journal.append(new CounterRollup(1, 5));
+        queue.setJournal(journal);
+
+        // Not a rejected row: the replay is rolled back and the journal kept
+        try (Connection connection = DriverManager.getConnection(URL)) {
+            queue.replayJournal(connection);
+            throw new AssertionError("replay should fail without tables");
+        } catch (SQLException expected) {
+            assertThat("journal was truncated", journal.getPendingBytes() > 0);
+        }
+
+        // The next flush replays the journal first, then writes what was queued since
+        createTables();
+        queue.queueRollupQuery(new CounterRollup(1, 3));
+        assertThat("flush failed", queue.flush("test"));
+        assertThat("journaled rollup was lost", count("SELECT value FROM counter_rollups") == 8);
+        assertThat("journal was not truncated", journal.getPendingBytes() == 0);
+        journal.close();
+    }
+
+    @Test
+    public void testDeltasCountAsFlushedOnceCommitted() throws SQLException {
+        queue.queueDeltaQuery(new CounterDelta(1, 5));
+        assertThat("flush should fail without tables", !queue.flush("test"));
+        assertThat("delta was dropped", queue.getDeltaQueue().size() == 1);
+        assertThat("failed delta counted as flushed", queue.getFlushedDelta("counters", 1) == 0);
+        assertThat("failed delta is not unwritten", queue.getUnwrittenDelta("counters", 1, 0) == 5);
+
+        createTables();
+        execute("INSERT INTO counters (id) VALUES (1)");
+        queue.queueDeltaQuery(new CounterDelta(1, 3));
+        assertThat("flush failed", queue.flush("test"));
+        assertThat("delta was not flushed", queue.getFlushedDelta("counters", 1) == 8);
+        assertThat("delta is still unwritten", queue.getUnwrittenDelta("counters", 1, 8) == 0);
+        assertThat("delta was lost", count("SELECT value FROM counters WHERE id = 1") == 8);
+    }
+
+    @Test
+    public void testReplaySkipsCommittedDelta() throws IOException, SQLException {
+        createTables();
+        execute("INSERT INTO counters (id) VALUES (1)");
+        File file = File.createTempFile("queue", ".journal");
+        File crashed = File.createTempFile("crashed", ".journal");
+        file.deleteOnExit();
+        crashed.deleteOnExit();
+
+        QueryJournal journal = new QueryJournal(file, 4096);
+        queue.setJournal(journal);
+        queue.queueDeltaQuery(new CounterDelta(1, 5));
+        Files.copy(file.toPath(), crashed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertThat("flush failed", queue.flush("test"));
+        journal.close();
+
+        AsyncDBQueue replaying = new AsyncDBQueue();
+        replaying.setJournal(new QueryJournal(crashed, 4096));
+        try (Connection connection = DriverManager.getConnection(URL)) {
+            replaying.replayJournal(connection);
+        }
+
+        assertThat("committed delta was replayed", count("SELECT value FROM counters WHERE id = 1") == 5);
+        replaying.getJournal().close();
+    }
+
+    private void createTables() throws SQLException {
+        execute("CREATE TABLE counters (id INT NOT NULL, value BIGINT NOT NULL DEFAULT 0, PRIMARY KEY (id))");
+        execute("CREATE TABLE counter_rollups (playerId INT NOT NULL, sourceKey INT NOT NULL, worldId VARCHAR(36) NOT NULL,"
+                + " bucket BIGINT NOT NULL, value BIGINT NOT NULL, events INT NOT NULL,"
+                + " PRIMARY KEY (playerId, sourceKey, worldId, bucket))");
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    private static class CounterInsert extends InsertQuery {
+
+        private final int id;
+
+        private CounterInsert(int id) {
+            super("counters");
+            this.id = id;
+        }
+
+        @Override
+        public Object getPrimaryKey() {
+            return id;
+        }
+
+        @Override
+        public String getSQL() {
+            return "INSERT INTO counters (id) VALUES (?)";
+        }
+
+        @Override
+        public void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+            preparedStatement.setInt(1, id);
+        }
+    }
+
+    private static class CounterDelta extends DeltaQuery {
+
+        private CounterDelta(int id, long delta) {
+            super("counters", id, delta);
+        }
+
+        @Override
+        protected DeltaQuery withDelta(long delta) {
+            return new CounterDelta(getUniqueId(), delta);
+        }
+
+        @Override
+        public String getSQL() {
+            return "UPDATE counters SET value = value + ? WHERE id = ?";
+        }
+    }
+
+    private static class CounterRollup extends RollupQuery {
+
+        private CounterRollup(int playerId, long value) {
+            this(playerId, value, 1);
+        }
+
+        private CounterRollup(int playerId, long value, int events) {
+            super("counter_rollups", playerId, 0, WORLD, 0, value, events);
+        }
+
+        @Override
+        protected RollupQuery withTotals(long value, int events) {
+            return new CounterRollup(getPlayerId(), value, events);
+        }
+
+        @Override
+        public String getSQL() {
+            return "INSERT INTO counter_rollups (playerId, sourceKey, worldId, bucket, value, events)"
+                    + " VALUES (?,?,?,?,?,?)"
+                    + " ON DUPLICATE KEY UPDATE value = value + VALUES(value), events = events + VALUES(events)";
+        }
+    }
+}
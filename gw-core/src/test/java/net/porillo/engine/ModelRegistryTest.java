@@ -0,0 +1,71 @@
+package net.porillo.engine;
+
+import com.google.gson.Gson;
+import net.porillo.engine.models.ReductionModel;
+import org.bukkit.Material;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+@Test
+public class ModelRegistryTest {
+
+    private static ReductionModel get(ModelRegistry registry, String worldName) {
+        return registry.get(ReductionModel.class, worldName, "reductionModel.json", null,
+                () -> new ReductionModel(new Gson(), worldName));
+    }
+
+    @Test
+    public void testIdenticalFilesShareOneModel() {
+        ModelRegistry registry = new ModelRegistry();
+        ReductionModel world = get(registry, "world");
+        ReductionModel nether = get(registry, "world_nether");
+
+        Assert.assertSame(nether, world);
+        Assert.assertSame(get(registry, "world"), world);
+        Assert.assertEquals(registry.getRequested(), 2);
+        Assert.assertEquals(registry.getParsed(), 1);
+    }
+
+    @Test
+    public void testDifferentFilesAreParsedSeparately() {
+        ModelRegistry registry = new ModelRegistry();
+        ReductionModel world = get(registry, "world");
+        ReductionModel end = get(registry, "world_the_end");
+
+        Assert.assertNotSame(end, world);
+        Assert.assertEquals(world.getReduction(Material.ACACIA_LOG), 2.0);
+        Assert.assertEquals(end.getReduction(Material.ACACIA_LOG), 3.0);
+        Assert.assertEquals(registry.getParsed(), 2);
+    }
+
+    @Test
+    public void testReloadSkipsUnchangedFiles() {
+        ModelRegistry registry = new ModelRegistry();
+        get(registry, "world");
+
+        ReductionModel reloaded = registry.reload(ReductionModel.class, "world", "reductionModel.json", null,
+                () -> new ReductionModel(new Gson(), "world"), Runnable::run).join();
+        Assert.assertNull(reloaded);
+        Assert.assertEquals(registry.getParsed(), 1);
+    }
+
+    @Test
+    public void testReloadRejectsInvalidModels() {
+        ModelRegistry registry = new ModelRegistry();
+        CompletableFuture<ReductionModel> rejected = registry.reload(ReductionModel.class, "world_the_end", "reductionModel.json", null,
+                () -> {
+                    throw new RuntimeException("Invalid model");
+                }, Runnable::run);
+        Assert.assertTrue(rejected.isCompletedExceptionally());
+
+        //The rejected contents are not cached, so a later load parses them again:
+        Assert.assertEquals(get(registry, "world_the_end").getReduction(Material.ACACIA_LOG), 3.0);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "No values found in: .*")
+    public void testMalformedFilesAreReported() {
+        get(new ModelRegistry(), "world_malformed");
+    }
+}
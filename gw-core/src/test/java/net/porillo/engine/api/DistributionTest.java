@@ -0,0 +1,58 @@
+package net.porillo.engine.api;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class DistributionTest {
+
+    private final static List<Double> x = Arrays.asList(0D, 1D, 2D, 3D, 4D);
+    private final static List<Double> y = Arrays.asList(0D, 10D, 25D, 50D, 100D);
+
+    // Uneven spacing, like the score-temperature model:
+    private final static double[] scores = {-1000000, -500000, -1000, -100, 0, 1, 10, 50, 100, 500, 1000, 50000, 1000000};
+    private final static double[] temps = {10.0, 11.0, 13.8, 13.9, 14.0, 14.0, 14.0, 14.1, 14.2, 14.3, 14.5, 15.5, 20.0};
+
+    @Test
+    public void testDistributionMin() {
+        Distribution distribution = new Distribution(x, y);
+        Assert.assertEquals(distribution.getValue(0), 0D);
+        Assert.assertEquals(distribution.getValue(1), 10D);
+        Assert.assertEquals(distribution.getValue(2), 25D);
+        Assert.assertEquals(distribution.getValue(3), 50D);
+        System.out.println(distribution.getValue(3.95));
+        Assert.assertEquals(distribution.getValue(4), 100D);
+    }
+
+    @Test
+    public void testLookupTableMatchesBinarySearch() {
+        Distribution search = new Distribution(scores, temps);
+        Distribution table = new Distribution(scores, temps);
+        table.setLookupTableSize(64);
+
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            double input = (random.nextDouble() * 2.2 - 1.1) * 1000000;
+            Assert.assertEquals(table.getValue(input), search.getValue(input));
+        }
+
+        for (double score : scores) {
+            Assert.assertEquals(table.getValue(score), search.getValue(score));
+            Assert.assertEquals(table.getValue(Math.nextUp(score)), search.getValue(Math.nextUp(score)));
+        }
+    }
+
+    @Test
+    public void testInverse() {
+        Distribution distribution = new Distribution(scores, temps);
+        Assert.assertEquals(distribution.getInput(14.0), 0D);
+        Assert.assertEquals(distribution.getInput(10.0), -1000000D);
+        Assert.assertEquals(distribution.getInput(17.75), 525000D);
+        Assert.assertEquals(distribution.getValue(distribution.getInput(12.4)), 12.4, 1e-9);
+        Assert.assertTrue(Double.isNaN(distribution.getInput(25.0)));
+    }
+}
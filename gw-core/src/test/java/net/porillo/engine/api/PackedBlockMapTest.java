@@ -0,0 +1,62 @@
+package net.porillo.engine.api;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+@Test
+public class PackedBlockMapTest {
+
+    @Test
+    public void testLastValueWinsInFirstPutOrder() {
+        PackedBlockMap map = new PackedBlockMap(8);
+        map.put(PackedBlockMap.pack(0, 64, 0), 1);
+        map.put(PackedBlockMap.pack(1, 64, 0), 2);
+        map.put(PackedBlockMap.pack(0, 64, 0), 3);
+
+        Assert.assertEquals(map.size(), 2);
+        Assert.assertEquals(map.valueAt(0), 3);
+        Assert.assertEquals(map.valueAt(1), 2);
+    }
+
+    @Test
+    public void testNegativeCoordinatesAreDistinct() {
+        long[] keys = {
+                PackedBlockMap.pack(-1, 64, 0),
+                PackedBlockMap.pack(0, 64, -1),
+                PackedBlockMap.pack(0, -1, 0),
+                PackedBlockMap.pack(-30000000, 0, 30000000),
+                PackedBlockMap.pack(30000000, 255, -30000000)};
+        Assert.assertEquals(Arrays.stream(keys).distinct().count(), keys.length);
+    }
+
+    @Test
+    public void testMatchesHashMapAcrossClearsAndGrowth() {
+        PackedBlockMap map = new PackedBlockMap(8);
+        Random random = new Random(0);
+        for (int round = 0; round < 50; round++) {
+            Map<List<Integer>, Integer> expected = new LinkedHashMap<>();
+            map.clear();
+            int blocks = 1 + random.nextInt(2000);
+            for (int i = 0; i < blocks; i++) {
+                int x = random.nextInt(32) - 16;
+                int y = 60 + random.nextInt(32);
+                int z = random.nextInt(32) - 16;
+                int value = random.nextInt(5);
+                expected.put(Arrays.asList(x, y, z), value);
+                map.put(PackedBlockMap.pack(x, y, z), value);
+            }
+
+            Assert.assertEquals(map.size(), expected.size());
+            int index = 0;
+            for (int value : expected.values()) {
+                Assert.assertEquals(map.valueAt(index++), value);
+            }
+        }
+    }
+}
@@ -32,7 +32,7 @@ echo -e "${LPAREN}CREATING THE DATABASE, USER AND PERMISSIONS${RPAREN}" &&
 sudo mysql -u root -Bse "CREATE DATABASE GlobalWarming;USE GlobalWarming;CREATE USER 'user'@'localhost' IDENTIFIED BY 'pass'; GRANT ALL PRIVILEGES ON GlobalWarming.* TO 'user'@'localhost';"
 fi &&
 echo -e "${LPAREN}COPYING THE GLOBALWARMING PLUGIN${RPAREN}" &&
-sudo cp target/GlobalWarming.jar /home/minecraft/server/plugins/ &&
+sudo cp gw-bukkit/target/GlobalWarming.jar /home/minecraft/server/plugins/ &&
 echo -e "${LPAREN}COPYING THE DATAPACK (CUSTOM ADVANCEMENTS)${RPAREN}" &&
 sudo su minecraft -c "cp -r gw_datapack /home/minecraft/server/world/datapacks/" &&
 echo -e "${LPAREN}LAUNCHING THE SERVER${RPAREN}" &&
@@ -177,7 +177,7 @@ mvn clean compile install &&
 echo -e "${LPAREN}COPY PLUGIN TO SERVER${RPAREN}" &&
 cd ~/build/GlobalWarming &&
 sudo su minecraft -c "mkdir -p /home/minecraft/server/plugins" &&
-sudo su minecraft -c "cp target/GlobalWarming.jar /home/minecraft/server/plugins/" &&
+sudo su minecraft -c "cp gw-bukkit/target/GlobalWarming.jar /home/minecraft/server/plugins/" &&
 sudo su minecraft -c "mkdir -p /home/minecraft/server/world/datapacks" &&
 sudo su minecraft -c "cp -r gw_datapack /home/minecraft/server/world/datapacks/" &&
 
@@ -1,8 +0,0 @@
-package net.porillo.database.api;
-
-import java.util.List;
-
-public interface SelectCallback<Type> {
-
-    void onSelectionCompletion(List<Type> returnList);
-}